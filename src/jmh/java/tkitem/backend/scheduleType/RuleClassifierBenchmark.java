@@ -0,0 +1,92 @@
+package tkitem.backend.scheduleType;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import tkitem.backend.domain.scheduleType.classification.RuleClassifier;
+import tkitem.backend.scheduleType.RuleClassifierEquivalenceTest.LegacyRuleClassifier;
+
+/**
+ * 일정 유형 룰 점수: 기존 키워드별 String.contains 구현 vs RuleClassifier(오토마톤 1회 스캔)
+ * - 운영 사전(dummy/rule_keywords.json) 과 exemplar 텍스트로 제목/설명 입력 구성
+ * - descExemplars: 설명 1건에 이어붙인 exemplar 수 (실제 일정 설명 길이 분포 근사)
+ * - 한 번의 호출에서 입력 전체를 채점하므로 결과는 입력 묶음 단위 시간
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RuleClassifierBenchmark {
+    private static final String RULES = "dummy/rule_keywords.json";
+    private static final String EXEMPLARS = "dummy/schedule_type_exemplars.json";
+    private static final String[] DEFAULT_TYPES = {null, "MEAL", "ACCOMMODATION", "PLACE"};
+    private static final int INPUTS = 256;
+
+    @Param({"1", "8"})
+    public int descExemplars;
+
+    private RuleClassifier classifier;
+    private LegacyRuleClassifier legacy;
+    private String[] titles;
+    private String[] descriptions;
+    private String[] defaultTypes;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper om = new ObjectMapper();
+        classifier = new RuleClassifier(new ClassPathResource(RULES), om);
+        legacy = new LegacyRuleClassifier(new ClassPathResource(RULES), om);
+
+        List<String> texts = new ArrayList<>();
+        try (InputStream in = new ClassPathResource(EXEMPLARS).getInputStream()) {
+            List<Map<String, Object>> exemplars = om.readValue(in, new TypeReference<>() {});
+            for (Map<String, Object> ex : exemplars) texts.add(String.valueOf(ex.get("text")));
+        }
+
+        Random rnd = new Random(42L);
+        titles = new String[INPUTS];
+        descriptions = new String[INPUTS];
+        defaultTypes = new String[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            titles[i] = texts.get(rnd.nextInt(texts.size()));
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < descExemplars; j++) {
+                if (j > 0) sb.append(". ");
+                sb.append(texts.get(rnd.nextInt(texts.size())));
+            }
+            descriptions[i] = sb.toString();
+            defaultTypes[i] = DEFAULT_TYPES[rnd.nextInt(DEFAULT_TYPES.length)];
+        }
+    }
+
+    @Benchmark
+    public void score_legacyContains(Blackhole bh) {
+        for (int i = 0; i < INPUTS; i++) {
+            bh.consume(legacy.score(titles[i], descriptions[i], defaultTypes[i]));
+        }
+    }
+
+    @Benchmark
+    public void score_automaton(Blackhole bh) {
+        for (int i = 0; i < INPUTS; i++) {
+            bh.consume(classifier.score(titles[i], descriptions[i], defaultTypes[i]));
+        }
+    }
+}
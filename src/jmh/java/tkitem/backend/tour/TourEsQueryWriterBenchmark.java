@@ -0,0 +1,85 @@
+package tkitem.backend.tour;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import tkitem.backend.domain.tour.logic.TourEsQueryWriter;
+
+/**
+ * ES 검색 본문 생성: 기존 문자열 템플릿(String.format + UTF-8 인코딩) vs TourEsQueryWriter(byte[] 직접 기록)
+ * - 기존 경로는 요청 전송 시 UTF-8 로 인코딩하던 비용까지 포함
+ * - gc 프로파일러의 gc.alloc.rate.norm 으로 요청당 할당량 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TourEsQueryWriterBenchmark {
+    private static final int SIZE = 200;
+    private static final int K = 100;
+    private static final int NUM_CANDIDATES = 1000;
+    private static final int RANK_CONSTANT = 60;
+
+    @Param({"1536"})
+    public int dims;
+
+    @Param({"200", "2000"})
+    public int allowCount;
+
+    private float[] vec;
+    private Set<Long> allowIds;
+    private final String query = "오사카 온천 료칸";
+    private final List<String> excludes = List.of("쇼핑", "옵션");
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42L);
+        vec = new float[dims];
+        for (int i = 0; i < dims; i++) vec[i] = rnd.nextFloat() * 2 - 1;
+        allowIds = new LinkedHashSet<>();
+        while (allowIds.size() < allowCount) allowIds.add(1_000_000L + rnd.nextInt(9_000_000));
+    }
+
+    @Benchmark
+    public byte[] bm25_legacy() {
+        return LegacyTourEsTemplates.bm25Body(query, excludes, allowIds, SIZE).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] bm25_writer() {
+        return TourEsQueryWriter.bm25Body(query, excludes, allowIds, null, SIZE);
+    }
+
+    @Benchmark
+    public byte[] knn_legacy() {
+        return LegacyTourEsTemplates.knnBody(vec, excludes, allowIds, SIZE, K, NUM_CANDIDATES).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] knn_writer() {
+        return TourEsQueryWriter.knnBody(vec, excludes, allowIds, null, SIZE, K, NUM_CANDIDATES);
+    }
+
+    @Benchmark
+    public byte[] rrf_legacy() {
+        return LegacyTourEsTemplates.rrfBody(query, vec, excludes, allowIds, SIZE, K, NUM_CANDIDATES, RANK_CONSTANT)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] rrf_writer() {
+        return TourEsQueryWriter.rrfBody(query, vec, excludes, allowIds, null, SIZE, K, NUM_CANDIDATES, RANK_CONSTANT, SIZE);
+    }
+}
@@ -0,0 +1,17 @@
+package tkitem.backend.domain.city.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * CITY_ALIAS 행 (원본 데이터의 도시 표기 → CITY.city_id). countryName 이 null 이면 국가 무관
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CityAliasDto {
+    private String aliasName;
+    private String countryName;
+    private Long cityId;
+}
@@ -0,0 +1,17 @@
+package tkitem.backend.domain.city.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * CITY_REVIEW 행 (사전에 없어 보류된 도시와 그 도시 때문에 적재되지 않은 tripCode)
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CityReviewDto {
+    private String cityName;
+    private String countryName;
+    private String tripCode;
+}
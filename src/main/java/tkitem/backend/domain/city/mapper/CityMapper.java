@@ -1,7 +1,11 @@
 package tkitem.backend.domain.city.mapper;
 
+import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.executor.BatchResult;
+import tkitem.backend.domain.city.dto.CityAliasDto;
+import tkitem.backend.domain.city.dto.CityReviewDto;
 import tkitem.backend.domain.city.vo.City;
 
 import java.util.List;
@@ -17,4 +21,19 @@ public interface CityMapper {
     Optional<Long> findCityIdByName(@Param("name") String name, @Param("countryName") String countryName);
 
     List<City> findCitiesByTourPackageId(Long tourPackageId);
+
+    /**
+     * 도시 사전 적재용 (city_id, city_name, country_name) 전체
+     */
+    List<City> selectAll();
+
+    List<CityAliasDto> selectAliases();
+
+    /**
+     * 보류 도시 기록 (같은 도시/국가/tripCode 는 seen_count 증가)
+     */
+    void upsertReviewEntries(@Param("rows") List<CityReviewDto> rows);
+
+    @Flush
+    List<BatchResult> flush();
 }
@@ -0,0 +1,108 @@
+package tkitem.backend.domain.city.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import tkitem.backend.domain.city.dto.CityAliasDto;
+import tkitem.backend.domain.city.mapper.CityMapper;
+import tkitem.backend.domain.city.vo.City;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * (도시, 국가) → CITY.city_id 사전 (투어 적재용)
+ * - 적재 시작 시 CITY 전체와 CITY_ALIAS 를 메모리에 올리고, 적재 중에는 DB 조회 없이 사용
+ * - 키는 NFC + 공백 정리 + 소문자 (예: " Osaka ", "osaka" 는 같은 도시)
+ * - 조회 순서: CITY 의 (도시, 국가) → 별칭 (도시, 국가) → 국가 무관 별칭 (도시)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CityDictionary {
+
+    private final CityMapper cityMapper;
+
+    private volatile Map<String, Long> idByKey = new ConcurrentHashMap<>();
+    private volatile Map<String, Long> aliasByKey = Map.of();
+    private volatile Map<String, Long> aliasByName = Map.of();
+
+    public void reload() {
+        Map<String, Long> cities = new ConcurrentHashMap<>();
+        for (City c : cityMapper.selectAll()) {
+            if (c.getCityId() == null || isBlank(c.getCityName())) continue;
+            cities.putIfAbsent(key(c.getCityName(), c.getCountryName()), c.getCityId()); // 중복 표기는 작은 id 우선
+        }
+
+        Map<String, Long> aliases = new HashMap<>();
+        Map<String, Long> namesOnly = new HashMap<>();
+        for (CityAliasDto a : cityMapper.selectAliases()) {
+            if (a.getCityId() == null || isBlank(a.getAliasName())) continue;
+            if (isBlank(a.getCountryName())) {
+                namesOnly.put(normalize(a.getAliasName()), a.getCityId());
+            } else {
+                aliases.put(key(a.getAliasName(), a.getCountryName()), a.getCityId());
+            }
+        }
+
+        idByKey = cities;
+        aliasByKey = Map.copyOf(aliases);
+        aliasByName = Map.copyOf(namesOnly);
+        log.info("[CITY] loaded cities={} aliases={}", cities.size(), aliases.size() + namesOnly.size());
+    }
+
+    /**
+     * @return 사전/별칭에 없으면 null
+     */
+    public Long idOf(String cityName, String countryName) {
+        if (isBlank(cityName)) return null;
+        String key = key(cityName, countryName);
+        Long id = idByKey.get(key);
+        if (id == null) id = aliasByKey.get(key);
+        if (id == null) id = aliasByName.get(normalize(cityName));
+        return id;
+    }
+
+    /**
+     * CITY 에 추가하고 사전에 등록 (다른 적재/인스턴스가 먼저 만들었으면 그 id)
+     */
+    public synchronized Long create(String cityName, String countryName) {
+        Long id = idOf(cityName, countryName);
+        if (id != null) return id;
+
+        City city = City.builder()
+                .cityName(cityName.trim())
+                .countryName(countryName == null ? null : countryName.trim())
+                .build();
+        try {
+            cityMapper.save(city);
+            cityMapper.flush(); // BATCH executor: 트랜잭션 안에서는 flush 후에 생성 키가 채워짐
+            id = city.getCityId();
+        } catch (DuplicateKeyException e) {
+            log.warn("도시 생성 중복 예외 발생. 다른 트랜잭션에서 생성되었을 수 있습니다. 기존 도시 ID를 조회합니다: {} ({})", cityName, countryName);
+        }
+        if (id == null) {
+            id = cityMapper.findCityIdByName(city.getCityName(), city.getCountryName()).orElse(null);
+        }
+        if (id != null) {
+            idByKey.put(key(cityName, countryName), id);
+            log.info("새로운 도시 생성 완료: '{}' ({}), ID: {}", city.getCityName(), city.getCountryName(), id);
+        }
+        return id;
+    }
+
+    static String key(String cityName, String countryName) {
+        return normalize(cityName) + "\u001F" + normalize(countryName);
+    }
+
+    static String normalize(String s) {
+        if (s == null) return "";
+        return Normalizer.normalize(s, Normalizer.Form.NFC).replaceAll("\\s+", " ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
@@ -2,12 +2,17 @@ package tkitem.backend.domain.scheduleType.api;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import tkitem.backend.domain.scheduleType.service.EsBulkWriter;
 import tkitem.backend.domain.scheduleType.service.ScheduleTypeExemplarSeeder;
 import tkitem.backend.domain.scheduleType.service.TourTypePipelineService;
+import tkitem.backend.domain.tour.service.TourScoreFeatureService;
+
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -15,13 +20,29 @@ import tkitem.backend.domain.scheduleType.service.TourTypePipelineService;
 public class TourScheduleTypeController {
     private final TourTypePipelineService pipeline;
     private final ScheduleTypeExemplarSeeder seeder;
+    private final TourScoreFeatureService scoreFeatureService;
+    private final EsBulkWriter esBulkWriter;
 
     @PostMapping("/run/pipeline")
-    public ResponseEntity<String> run(@RequestParam(defaultValue = "1000") int batchSize) throws Exception {
-        pipeline.runOnce(batchSize);
+    public ResponseEntity<String> run(@RequestParam(defaultValue = "1000") int batchSize,
+                                      @RequestParam(defaultValue = "false") boolean resume,
+                                      @RequestParam(defaultValue = "false") boolean delta) throws Exception {
+        pipeline.runOnce(batchSize, resume, delta);
         return ResponseEntity.ok("pipeline run Success");
     }
 
+    // 재시도 후에도 색인되지 않은 문서 (최근 1000건)
+    @GetMapping("/es/dead-letters")
+    public ResponseEntity<List<EsBulkWriter.DeadLetter>> deadLetters() {
+        return ResponseEntity.ok(esBulkWriter.deadLetters());
+    }
+
+    @PostMapping("/rebuild/score-feature")
+    public ResponseEntity<String> rebuildScoreFeature() {
+        scoreFeatureService.rebuildAll();
+        return ResponseEntity.ok("score feature rebuild Success");
+    }
+
     @PostMapping("/seed/exemplars")
     public ResponseEntity<String> seedExemplars() throws Exception {
         seeder.seedExemplars();
@@ -0,0 +1,116 @@
+package tkitem.backend.domain.scheduleType.classification;
+
+import java.util.*;
+
+/**
+ * 다중 키워드 동시 탐색 (Aho–Corasick)
+ * - 생성 시 키워드 전체를 하나의 오토마톤으로 컴파일, 이후 텍스트 1회 순회로 모든 등장 위치를 찾음
+ * - 상태별 자식은 정렬된 char[]/int[] 로 보관 (한글 등 넓은 문자 범위에서 표 전개 없이 이진 탐색)
+ * - 생성 후 불변이므로 여러 스레드에서 공유 가능
+ */
+final class KeywordAutomaton {
+
+    /** 매칭 콜백: 키워드 id 가 text[start, end) 에 등장 */
+    @FunctionalInterface
+    interface Hit {
+        void on(int keywordId, int start, int end);
+    }
+
+    private final int[] lengths;     // 키워드 id → 길이
+    private final char[][] edgeChars; // 상태 → 자식 전이 문자 (오름차순)
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    private final int[][] outputs;   // 상태 → 이 상태에서 끝나는 키워드 id (접미사 키워드 포함)
+    private final int[] emptyIds;    // 빈 키워드 (String.contains("") 와 같이 항상 등장으로 취급)
+
+    KeywordAutomaton(List<String> keywords) {
+        this.lengths = new int[keywords.size()];
+
+        // 1) trie 구성
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> out = new ArrayList<>();
+        children.add(new TreeMap<>());
+        out.add(new ArrayList<>());
+        List<Integer> empties = new ArrayList<>();
+        for (int id = 0; id < keywords.size(); id++) {
+            String w = keywords.get(id);
+            lengths[id] = w.length();
+            if (w.isEmpty()) {
+                empties.add(id);
+                continue;
+            }
+            int s = 0;
+            for (int i = 0; i < w.length(); i++) {
+                Integer next = children.get(s).get(w.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    out.add(new ArrayList<>());
+                    children.get(s).put(w.charAt(i), next);
+                }
+                s = next;
+            }
+            out.get(s).add(id);
+        }
+
+        int n = children.size();
+        this.edgeChars = new char[n][];
+        this.edgeTargets = new int[n][];
+        for (int s = 0; s < n; s++) {
+            TreeMap<Character, Integer> m = children.get(s);
+            edgeChars[s] = new char[m.size()];
+            edgeTargets[s] = new int[m.size()];
+            int j = 0;
+            for (var e : m.entrySet()) {
+                edgeChars[s][j] = e.getKey();
+                edgeTargets[s][j++] = e.getValue();
+            }
+        }
+
+        // 2) BFS 로 실패 링크 계산 + 실패 상태의 출력 병합 (부모가 먼저 완성됨)
+        this.fail = new int[n];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) queue.add(child);
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            out.get(s).addAll(out.get(fail[s]));
+            for (int j = 0; j < edgeChars[s].length; j++) {
+                int child = edgeTargets[s][j];
+                fail[child] = s == 0 ? 0 : next(fail[s], edgeChars[s][j]);
+                queue.add(child);
+            }
+        }
+
+        this.outputs = new int[n][];
+        for (int s = 0; s < n; s++) {
+            this.outputs[s] = out.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.emptyIds = empties.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    int size() {
+        return lengths.length;
+    }
+
+    /**
+     * text 를 한 번 순회하며 모든 키워드 등장 위치를 콜백 (겹치는 등장 포함)
+     */
+    void scan(String text, Hit hit) {
+        for (int id : emptyIds) hit.on(id, 0, 0);
+        int s = 0;
+        for (int i = 0; i < text.length(); i++) {
+            s = next(s, text.charAt(i));
+            for (int id : outputs[s]) hit.on(id, i + 1 - lengths[id], i + 1);
+        }
+    }
+
+    // 자식 전이가 없으면 실패 링크를 따라 내려감 (루트에서도 없으면 루트)
+    private int next(int s, char c) {
+        while (true) {
+            int j = Arrays.binarySearch(edgeChars[s], c);
+            if (j >= 0) return edgeTargets[s][j];
+            if (s == 0) return 0;
+            s = fail[s];
+        }
+    }
+}
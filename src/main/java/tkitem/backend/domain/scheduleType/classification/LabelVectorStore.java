@@ -0,0 +1,278 @@
+package tkitem.backend.domain.scheduleType.classification;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.ScrollResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 라벨 인덱스(schedule_type_labels_v1) 메모리 사본 + 정확한(brute-force) 코사인 kNN
+ * - 벡터는 L2 정규화 후 float[] 하나에 연속 저장 (doc i = [i*dim, (i+1)*dim)) → 내적 = 코사인
+ * - 최초 사용 시 ES 에서 scroll 로 적재, 이후 학습 데이터 저장(saveLabel) 시 뒤에 추가
+ * - 추가는 여유 용량에 쓰고 size 만 늘린 새 스냅샷을 공개하므로 조회는 잠금 없이 진행
+ * - 여러 질의를 한 번에 받아 문서 블록 단위로 순회 (블록이 캐시에 남아 있는 동안 모든 질의와 내적)
+ */
+@Component
+@Slf4j
+public class LabelVectorStore {
+
+    private static final String LABEL_INDEX = "schedule_type_labels_v1";
+    private static final int SCROLL_PAGE = 1000;
+    private static final int DOC_BLOCK = 256;
+    private static final long RETRY_INTERVAL_MS = 60_000;
+
+    public record Label(String name, double weight) {}
+    public record Neighbor(double cosine, List<Label> labels) {}
+
+    // vecs/labels 는 size 이후 구간만 추가 기록됨 (스냅샷이 보는 [0, size) 는 불변)
+    private record Snapshot(int dim, int size, float[] vecs, List<Label>[] labels) {}
+
+    private final ElasticsearchClient esClient;
+    private final boolean enabled;
+
+    private volatile Snapshot snap; // null = 미적재
+    private volatile long lastFailedAt;
+
+    public LabelVectorStore(ElasticsearchClient esClient,
+                            @Value("${pipeline.tour-type.knn-local:true}") boolean enabled) {
+        this.esClient = esClient;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 사용 가능 여부. 미적재면 적재 시도 (실패 시 RETRY_INTERVAL_MS 동안 재시도 안 함)
+     */
+    public boolean ensureLoaded() {
+        if (!enabled) return false;
+        if (snap != null) return true;
+        synchronized (this) {
+            if (snap != null) return true;
+            if (System.currentTimeMillis() - lastFailedAt < RETRY_INTERVAL_MS) return false;
+            try {
+                snap = loadFromEs();
+                log.info("[LABEL-STORE] loaded docs={} dim={}", snap.size(), snap.dim());
+                return true;
+            } catch (Exception e) {
+                lastFailedAt = System.currentTimeMillis();
+                log.warn("[LABEL-STORE] load failed, falling back to ES kNN: {}", e.toString());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 라벨 인덱스 전체 재적재 (exemplar 시딩 등 인덱스를 통째로 바꾼 뒤 호출)
+     */
+    public synchronized void reload() {
+        snap = null;
+        lastFailedAt = 0;
+        ensureLoaded();
+    }
+
+    /**
+     * 학습 데이터 추가 (ES 저장 성공분). 미적재 상태면 다음 적재 때 ES 에서 함께 읽히므로 무시
+     */
+    public synchronized void append(List<float[]> vectors, List<List<Label>> labels) {
+        Snapshot s = snap;
+        if (s == null || vectors.isEmpty()) return;
+
+        // 빈 인덱스로 적재된 경우 첫 유효 추가분의 차원을 사용
+        int dim = s.size() == 0 ? firstDim(vectors) : s.dim();
+        if (dim == 0) return;
+        int need = s.size() + vectors.size();
+        float[] vecs = s.dim() == dim ? s.vecs() : new float[0];
+        List<Label>[] lbs = s.labels();
+        if (need > lbs.length || vecs.length < need * dim) {
+            int cap = Math.max(need, lbs.length * 2);
+            vecs = Arrays.copyOf(vecs, cap * dim);
+            lbs = Arrays.copyOf(lbs, cap);
+        }
+
+        int n = s.size();
+        for (int i = 0; i < vectors.size(); i++) {
+            float[] v = vectors.get(i);
+            if (v == null || v.length != dim || !normalizeInto(v, vecs, n * dim)) continue;
+            lbs[n++] = List.copyOf(labels.get(i));
+        }
+        snap = new Snapshot(dim, n, vecs, lbs);
+    }
+
+    // null/빈 벡터는 건너뜀. 없으면 0
+    private static int firstDim(List<float[]> vectors) {
+        for (float[] v : vectors) {
+            if (v != null && v.length > 0) return v.length;
+        }
+        return 0;
+    }
+
+    /**
+     * 질의 여러 건의 코사인 Top-k (정확 계산)
+     * @param queries 질의 벡터 (null/차원 불일치는 빈 결과)
+     * @return 질의 순서대로 코사인 내림차순 이웃 목록
+     */
+    public List<List<Neighbor>> topK(List<float[]> queries, int k) {
+        Snapshot s = snap;
+        int nq = queries.size();
+        List<List<Neighbor>> out = new ArrayList<>(nq);
+        if (s == null || s.size() == 0 || k <= 0) {
+            for (int q = 0; q < nq; q++) out.add(List.of());
+            return out;
+        }
+
+        int dim = s.dim();
+        float[] vecs = s.vecs();
+        float[][] qs = new float[nq][];
+        for (int q = 0; q < nq; q++) {
+            float[] v = queries.get(q);
+            if (v == null || v.length != dim) continue;
+            float[] nv = new float[dim];
+            if (normalizeInto(v, nv, 0)) qs[q] = nv;
+        }
+
+        int kk = Math.min(k, s.size());
+        int[][] topIdx = new int[nq][kk];
+        float[][] topScore = new float[nq][kk];
+        int[] filled = new int[nq];
+
+        // 문서 블록 × 전체 질의
+        for (int d0 = 0; d0 < s.size(); d0 += DOC_BLOCK) {
+            int d1 = Math.min(s.size(), d0 + DOC_BLOCK);
+            for (int q = 0; q < nq; q++) {
+                float[] qv = qs[q];
+                if (qv == null) continue;
+                for (int d = d0; d < d1; d++) {
+                    float dot = dot(qv, vecs, d * dim, dim);
+                    filled[q] = offer(topIdx[q], topScore[q], filled[q], d, dot);
+                }
+            }
+        }
+
+        for (int q = 0; q < nq; q++) {
+            List<Neighbor> list = new ArrayList<>(filled[q]);
+            for (int j = 0; j < filled[q]; j++) {
+                list.add(new Neighbor(topScore[q][j], s.labels()[topIdx[q][j]]));
+            }
+            out.add(list);
+        }
+        return out;
+    }
+
+    // 누산기 4개로 나눠 의존성 체인을 끊음
+    private static float dot(float[] q, float[] v, int off, int dim) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        for (; i + 3 < dim; i += 4) {
+            s0 += q[i]     * v[off + i];
+            s1 += q[i + 1] * v[off + i + 1];
+            s2 += q[i + 2] * v[off + i + 2];
+            s3 += q[i + 3] * v[off + i + 3];
+        }
+        for (; i < dim; i++) s0 += q[i] * v[off + i];
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    // 점수 내림차순 고정 크기 배열에 삽입. @return 채워진 개수
+    private static int offer(int[] idx, float[] score, int filled, int doc, float s) {
+        int k = idx.length;
+        if (filled == k && s <= score[k - 1]) return filled;
+        int pos = filled < k ? filled++ : k - 1;
+        while (pos > 0 && score[pos - 1] < s) {
+            score[pos] = score[pos - 1];
+            idx[pos] = idx[pos - 1];
+            pos--;
+        }
+        score[pos] = s;
+        idx[pos] = doc;
+        return filled;
+    }
+
+    // 0 벡터면 false
+    private static boolean normalizeInto(float[] v, float[] dst, int off) {
+        double sq = 0;
+        for (float x : v) sq += (double) x * x;
+        if (sq == 0) return false;
+        float inv = (float) (1.0 / Math.sqrt(sq));
+        for (int i = 0; i < v.length; i++) dst[off + i] = v[i] * inv;
+        return true;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Snapshot loadFromEs() throws Exception {
+        esClient.indices().refresh(r -> r.index(LABEL_INDEX));
+
+        List<float[]> vectors = new ArrayList<>();
+        List<List<Label>> labels = new ArrayList<>();
+
+        SearchResponse<Map> first = esClient.search(s -> s
+                .index(LABEL_INDEX)
+                .size(SCROLL_PAGE)
+                .scroll(t -> t.time("1m"))
+                .source(src -> src.filter(f -> f.includes("label", "embedding"))), Map.class);
+        String scrollId = first.scrollId();
+        List<Hit<Map>> hits = first.hits().hits();
+        try {
+            while (hits != null && !hits.isEmpty()) {
+                for (Hit<Map> h : hits) {
+                    Map<String, Object> src = h.source();
+                    if (src == null) continue;
+                    float[] v = toFloatArray(src.get("embedding"));
+                    List<Label> lb = toLabels(src.get("label"));
+                    if (v.length == 0 || lb.isEmpty()) continue;
+                    vectors.add(v);
+                    labels.add(lb);
+                }
+                String sid = scrollId;
+                ScrollResponse<Map> next = esClient.scroll(r -> r.scrollId(sid).scroll(t -> t.time("1m")), Map.class);
+                scrollId = next.scrollId();
+                hits = next.hits().hits();
+            }
+        } finally {
+            if (scrollId != null) {
+                String sid = scrollId;
+                esClient.clearScroll(c -> c.scrollId(sid));
+            }
+        }
+
+        // 가장 흔한 차원 기준 (모델 교체 전 문서가 섞여 있으면 제외)
+        int dim = vectors.stream().collect(Collectors.groupingBy(v -> v.length, Collectors.counting()))
+                .entrySet().stream().max(Map.Entry.comparingByValue()).map(Map.Entry::getKey).orElse(0);
+
+        int cap = Math.max(16, vectors.size() + vectors.size() / 4);
+        float[] vecs = new float[cap * Math.max(dim, 1)];
+        List<Label>[] lbs = new List[cap];
+        int n = 0;
+        for (int i = 0; i < vectors.size(); i++) {
+            float[] v = vectors.get(i);
+            if (v.length != dim || !normalizeInto(v, vecs, n * dim)) continue;
+            lbs[n++] = labels.get(i);
+        }
+        return new Snapshot(dim, n, vecs, lbs);
+    }
+
+    private static float[] toFloatArray(Object o) {
+        if (o instanceof List<?> list) {
+            float[] f = new float[list.size()];
+            for (int i = 0; i < list.size(); i++) f[i] = ((Number) list.get(i)).floatValue();
+            return f;
+        }
+        return new float[0];
+    }
+
+    public static List<Label> toLabels(Object o) {
+        List<Label> out = new ArrayList<>();
+        if (o instanceof List<?> list) {
+            for (Object item : list) {
+                if (item instanceof Map<?, ?> m && m.get("name") instanceof String name && m.get("weight") instanceof Number w) {
+                    out.add(new Label(name, w.doubleValue()));
+                }
+            }
+        }
+        return List.copyOf(out);
+    }
+}
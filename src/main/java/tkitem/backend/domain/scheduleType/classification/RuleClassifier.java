@@ -14,16 +14,21 @@ import static java.util.stream.Collectors.*;
 
 /**
  * 규칙(키워드/가중치) 기반의 1차 분류
+ * - 전체 키워드(단일 + AND 구성어)를 기동 시 KeywordAutomaton 하나로 컴파일
+ * - 행마다 "제목 + ' ' + 설명" 을 1회 순회해 키워드별 제목/설명/전체 등장 여부를 구한 뒤 라벨 점수 계산
+ *   (등장 위치가 제목 구간 안이면 제목 hit, 설명 구간 안이면 설명 hit → String.contains 와 동일한 판정)
  */
 @Component
 public class RuleClassifier {
 
-    // 가중치 키워드 구조체 (String.contains 기반으로 변경)
+    // 가중치 키워드 구조체
     private static class KW {
         final String word;
         final List<String> and; // and 그룹용(null 가능)
         final double wTitle;
         final double wDesc;
+        int id = -1;     // 단일 키워드의 오토마톤 id
+        int[] andIds;    // AND 구성어의 오토마톤 id
 
         KW(String word, double wTitle, double wDesc) {
             this.word = word; // 원본 키워드 저장
@@ -40,6 +45,10 @@ public class RuleClassifier {
     }
 
     private final Map<String, List<KW>> dict;
+    private final KeywordAutomaton automaton;
+
+    // 1행 순회 결과 (키워드 id 별 등장 여부)
+    private record Hits(boolean[] inTitle, boolean[] inDesc, boolean[] inAll) {}
 
     public RuleClassifier(@Value("${rule.classifier.path}")Resource json, ObjectMapper om){
         try {
@@ -68,6 +77,75 @@ public class RuleClassifier {
         if (this.dict.isEmpty()) {
             throw new IllegalStateException("Rule keywords 비어 있음: " + json);
         }
+        this.automaton = compile(this.dict);
+    }
+
+    // 키워드 문자열마다 id 부여 (라벨 간 중복 단어는 같은 id) 후 오토마톤 생성
+    private static KeywordAutomaton compile(Map<String, List<KW>> dict) {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        for (List<KW> kws : dict.values()) {
+            for (KW kw : kws) {
+                if (kw.isAnd()) {
+                    kw.andIds = kw.and.stream().mapToInt(w -> ids.computeIfAbsent(w, k -> ids.size())).toArray();
+                } else {
+                    kw.id = ids.computeIfAbsent(kw.word, k -> ids.size());
+                }
+            }
+        }
+        return new KeywordAutomaton(new ArrayList<>(ids.keySet()));
+    }
+
+    private Hits scan(String t, String d) {
+        int n = automaton.size();
+        Hits h = new Hits(new boolean[n], new boolean[n], new boolean[n]);
+        int titleEnd = t.length();
+        int descStart = titleEnd + 1;
+        automaton.scan(t + " " + d, (id, start, end) -> {
+            h.inAll()[id] = true;
+            if (start == end) { // 빈 키워드: contains("") 는 항상 true
+                h.inTitle()[id] = true;
+                h.inDesc()[id] = true;
+                return;
+            }
+            if (end <= titleEnd) h.inTitle()[id] = true;
+            if (start >= descStart) h.inDesc()[id] = true;
+        });
+        return h;
+    }
+
+    // 라벨 1개 점수: 0.0 가중치 키워드가 걸리면 차단(0.0), 아니면 hit 가중치 최대값
+    private static void scoreLabel(String label, List<KW> keywords, Hits h, Map<String, Double> base) {
+        double best = 0.0;
+        boolean blocked = false;
+        for (var kw : keywords) {
+            double sKw = 0.0;
+            if (!kw.isAnd()) { // 단일 키워드
+                boolean hitT = h.inTitle()[kw.id];
+                boolean hitD = h.inDesc()[kw.id];
+                if ((hitT && kw.wTitle == 0.0) || (hitD && kw.wDesc == 0.0)) {
+                    blocked = true; best = 0.0; break; // 가중치값 0.0 으로 매칭시 종료
+                }
+                if (hitT) sKw = Math.max(sKw, kw.wTitle);
+                if (hitD) sKw = Math.max(sKw, kw.wDesc);
+            } else { // AND 키워드: 구성어 모두 제목+설명 어딘가에 등장
+                boolean allInTD = true;
+                for (int id : kw.andIds) {
+                    if (!h.inAll()[id]) { allInTD = false; break; }
+                }
+                if (allInTD) {
+                    if (kw.wTitle == 0.0 || kw.wDesc == 0.0) {
+                        blocked = true; best = 0.0; break; // AND에도 0.0 규칙 적용 (둘 중 하나라도 0.0이면 차단)
+                    }
+                    sKw = Math.max(kw.wTitle, kw.wDesc);
+                }
+            }
+            if (sKw > best) best = sKw;
+        }
+        if (blocked) {
+            base.put(label, 0.0);
+        } else if (best > 0.0) {
+            base.put(label, Math.min(1.0, best));
+        }
     }
 
     // 1차 룰 스코어링
@@ -89,35 +167,7 @@ public class RuleClassifier {
                 // MEAL 라벨에 대해서만 점수 계산 후 즉시 반환
                 List<KW> mealKeywords = dict.get("MEAL");
                 if (mealKeywords != null) {
-                    double best = 0.0;
-                    boolean blocked = false;
-                    for (var kw : mealKeywords) {
-                        double sKw = 0.0;
-                        if (!kw.isAnd()) { // 단일 키워드
-                            boolean hitT = t.contains(kw.word);
-                            boolean hitD = d.contains(kw.word);
-                            if ((hitT && kw.wTitle == 0.0) || (hitD && kw.wDesc == 0.0)) {
-                                blocked = true; best = 0.0; break;
-                            }
-                            if (hitT) sKw = Math.max(sKw, kw.wTitle);
-                            if (hitD) sKw = Math.max(sKw, kw.wDesc);
-                        } else { // AND 키워드
-                            String td = t + " " + d;
-                            boolean allInTD = kw.and.stream().allMatch(td::contains);
-                            if (allInTD) {
-                                if (kw.wTitle == 0.0 || kw.wDesc == 0.0) {
-                                    blocked = true; best = 0.0; break;
-                                }
-                                sKw = Math.max(kw.wTitle, kw.wDesc);
-                            }
-                        }
-                        if (sKw > best) best = sKw;
-                    }
-                    if (blocked) {
-                        base.put("MEAL", 0.0);
-                    } else if (best > 0.0) {
-                        base.put("MEAL", Math.min(1.0, best));
-                    }
+                    scoreLabel("MEAL", mealKeywords, scan(t, d), base);
                 }
                 return base; // MEAL 처리 후 종료
             }
@@ -131,40 +181,12 @@ public class RuleClassifier {
         }
 
         // --- 기본 로직 (defaultType이 MEAL이나 ACCOMMODATION이 아닌 경우) ---
-        String td = t + " " + d;
+        Hits h = scan(t, d);
 
         for (var e : dict.entrySet()) {
             // MEAL 라벨은 defaultType=MEAL일 때만 처리되었으므로 여기서는 항상 스킵
             if ("MEAL".equals(e.getKey())) continue;
-
-            double best = 0.0;
-            boolean blocked = false;
-            for (var kw : e.getValue()) {
-                double sKw = 0.0;
-                if(!kw.isAnd()) { // 단일 키워드 조합이면
-                    boolean hitT = t.contains(kw.word);
-                    boolean hitD = d.contains(kw.word);
-                    if ((hitT && kw.wTitle == 0.0) || (hitD && kw.wDesc == 0.0)) {
-                        blocked = true; best = 0.0; break; // 가중치값 0.0 으로 매칭시 종료
-                    }
-                    if (hitT) sKw = Math.max(sKw, kw.wTitle);
-                    if (hitD) sKw = Math.max(sKw, kw.wDesc);
-                } else {
-                    boolean allInTD = kw.and.stream().allMatch(td::contains);
-                    if (allInTD){
-                        if (kw.wTitle == 0.0 || kw.wDesc == 0.0) {
-                            blocked = true; best = 0.0; break; // AND에도 0.0 규칙 적용 (둘 중 하나라도 0.0이면 차단)
-                        }
-                        sKw = Math.max(kw.wTitle, kw.wDesc);
-                    }
-                }
-                if (sKw > best) best = sKw;
-            }
-            if(blocked){
-                base.put(e.getKey(), 0.0);
-            } else if (best > 0.0){
-                base.put(e.getKey(), Math.min(1.0, best));
-            }
+            scoreLabel(e.getKey(), e.getValue(), h, base);
         }
 
         return base;
@@ -0,0 +1,6 @@
+package tkitem.backend.domain.scheduleType.dto;
+
+/**
+ * TOUR_SCHEDULE_TYPE 저장 단위 (일정 1건 × 유형 1개)
+ */
+public record LabelRow(long tdsId, long typeId, double score) {}
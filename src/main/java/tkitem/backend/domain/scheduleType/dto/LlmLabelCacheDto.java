@@ -0,0 +1,16 @@
+package tkitem.backend.domain.scheduleType.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * LLM_LABEL_CACHE 행 (정규화 텍스트 키 → LLM 분류 결과 JSON)
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LlmLabelCacheDto {
+    private String cacheKey;
+    private String labelsJson;
+}
@@ -0,0 +1,29 @@
+package tkitem.backend.domain.scheduleType.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * PIPELINE_CHECKPOINT 행
+ * - lastId : 라벨 저장까지 끝난 연속 구간의 마지막 tour_detail_schedule_id
+ * - status : RUNNING / COMPLETED / FAILED
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PipelineCheckpointDto {
+    private String pipelineName;
+    private Long lastId;
+    private Long processedRows;
+    private Long ruleSuccess;
+    private Long knnSuccess;
+    private Long llmSuccess;
+    private String status;
+    private Date startedAt;
+    private Date updatedAt;
+}
@@ -0,0 +1,16 @@
+package tkitem.backend.domain.scheduleType.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * TDS_CONTENT_HASH 행 (일정별 마지막 분류 시점의 내용 해시)
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TdsContentHashDto {
+    private Long tourDetailScheduleId;
+    private String contentHash;
+}
@@ -0,0 +1,26 @@
+package tkitem.backend.domain.scheduleType.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * ES 문서 비정규화용 투어 속성 행
+ * - kind = CITY    : cityName / countryName / countryGroupName
+ * - kind = PACKAGE : departureDate / returnDate / price
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TourEsAttributeRowDto {
+    private Long tourId;
+    private String kind;
+    private String cityName;
+    private String countryName;
+    private String countryGroupName;
+    private Date departureDate;
+    private Date returnDate;
+    private Long price;
+}
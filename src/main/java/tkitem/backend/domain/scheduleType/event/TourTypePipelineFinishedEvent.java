@@ -0,0 +1,8 @@
+package tkitem.backend.domain.scheduleType.event;
+
+/**
+ * 일정 유형 파이프라인 1회 실행 종료 (성공/실패 무관, 실행 잠금 해제 후 발행)
+ * - delta : delta 실행이었는지 여부
+ */
+public record TourTypePipelineFinishedEvent(boolean delta) {
+}
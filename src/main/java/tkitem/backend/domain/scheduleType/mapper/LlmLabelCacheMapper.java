@@ -0,0 +1,19 @@
+package tkitem.backend.domain.scheduleType.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import tkitem.backend.domain.scheduleType.dto.LlmLabelCacheDto;
+
+import java.util.List;
+
+@Mapper
+public interface LlmLabelCacheMapper {
+
+    /**
+     * @param keys 1000개 이하
+     */
+    List<LlmLabelCacheDto> selectByKeys(@Param("keys") List<String> keys);
+
+    // LLM 분류 결과 기록 (같은 키면 덮어씀)
+    void upsertEntries(@Param("rows") List<LlmLabelCacheDto> rows);
+}
@@ -0,0 +1,14 @@
+package tkitem.backend.domain.scheduleType.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import tkitem.backend.domain.scheduleType.dto.PipelineCheckpointDto;
+
+@Mapper
+public interface PipelineCheckpointMapper {
+
+    PipelineCheckpointDto selectCheckpoint(@Param("pipelineName") String pipelineName);
+
+    // 진행 상황 기록 (없으면 생성)
+    void upsertCheckpoint(@Param("cp") PipelineCheckpointDto checkpoint);
+}
@@ -2,7 +2,9 @@ package tkitem.backend.domain.scheduleType.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import tkitem.backend.domain.scheduleType.dto.TdsContentHashDto;
 import tkitem.backend.domain.scheduleType.dto.TourDetailScheduleRowDto;
+import tkitem.backend.domain.scheduleType.dto.TourEsAttributeRowDto;
 
 import java.util.List;
 
@@ -10,10 +12,33 @@ import java.util.List;
 public interface TourDetailScheduleMapper {
 
     /**
-     * Oracle TOUR_DETAIL_SCHEDULE 에서 ES 색인을 위한 레코드 묶음 조회. 배치 전용 SELECT
-     * @param offset
+     * Oracle TOUR_DETAIL_SCHEDULE 에서 ES 색인을 위한 레코드 묶음 조회. 배치 전용 SELECT (keyset)
+     * @param lastId 직전 배치의 마지막 tour_detail_schedule_id (처음이면 0)
      * @param limit
+     * @return tour_detail_schedule_id 오름차순
+     */
+    List<TourDetailScheduleRowDto> selectBatchAfterId(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * ES 문서 비정규화용 투어 속성 조회 (CITY / PACKAGE 행)
+     * @param tourIds 1000개 이하
      * @return
      */
-    List<TourDetailScheduleRowDto> selectBatchForIndexing(@Param("offset") int offset, @Param("limit") int limit);
+    List<TourEsAttributeRowDto> selectTourAttributesForIndexing(@Param("tourIds") List<Long> tourIds);
+
+    /**
+     * 저장된 일정 내용 해시 조회 (delta 실행 시 변경 여부 판단)
+     * @param ids 1000개 이하
+     * @return
+     */
+    List<TdsContentHashDto> selectContentHashes(@Param("ids") List<Long> ids);
+
+    // 분류까지 끝난 일정의 내용 해시 기록
+    void upsertContentHashes(@Param("rows") List<TdsContentHashDto> rows);
+
+    /**
+     * 삭제되었거나 내용이 바뀐 일정의 해시 삭제 (다음 delta 실행에서 다시 처리)
+     * @param ids 1000개 이하
+     */
+    void deleteContentHashes(@Param("ids") List<Long> ids);
 }
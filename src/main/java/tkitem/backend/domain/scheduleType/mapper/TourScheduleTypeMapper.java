@@ -2,15 +2,22 @@ package tkitem.backend.domain.scheduleType.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import tkitem.backend.domain.scheduleType.dto.LabelRow;
+
+import java.util.List;
 
 @Mapper
 public interface TourScheduleTypeMapper {
 
-    // SCHEDULE_TYPE 이름으로 ID 조회
-    Long findScheduleTypeIdByName(@Param("name") String name);
+    /**
+     * TOUR_SCHEDULE_TYPE 다건 upsert (MERGE 한 문장)
+     * @param rows (tdsId, typeId) 중복 없이 500건 이하
+     */
+    void upsertTourScheduleTypes(@Param("rows") List<LabelRow> rows);
 
-    // TOUR_DETAIL_TYPE upsert용
-    void upsertTourScheduleType(@Param("tdsId") Long tdsId,
-                                @Param("typeId") Long scheduleTypeId,
-                                @Param("score") Double score);
+    /**
+     * 삭제되었거나 내용이 바뀐 일정의 라벨 삭제 (투어 적재)
+     * @param tdsIds 1000건 이하
+     */
+    void deleteByTdsIds(@Param("tdsIds") List<Long> tdsIds);
 }
@@ -0,0 +1,58 @@
+package tkitem.backend.domain.scheduleType.pipeline;
+
+import java.util.TreeMap;
+
+/**
+ * 재시작 지점 계산 (write 단계 단일 스레드에서만 사용)
+ * - 배치는 embed 동시 실행으로 순서가 바뀌어 끝날 수 있으므로 seq 가 연속으로 끝난 구간까지만 전진
+ * - 아직 LLM 대기 중이거나 ES 색인이 실패한 행이 있으면 그 직전 ID 까지만 인정
+ * - seq 가 음수면 배치가 아닌 입력 종료 후 LLM pending 처리분 (구간은 그대로, pending 제한만 다시 계산)
+ */
+public class PipelineWatermark {
+    /** minPendingId 에 대기 행이 없음을 나타내는 값 */
+    public static final long NO_PENDING = Long.MAX_VALUE;
+
+    private final TreeMap<Long, Long> done = new TreeMap<>();
+    private long nextSeq;
+    private long contiguousLastId;
+    private long safeId;
+    private long processedRows;
+
+    public PipelineWatermark(long startId, long processedRows) {
+        this.contiguousLastId = startId;
+        this.safeId = startId;
+        this.processedRows = processedRows;
+    }
+
+    /**
+     * @param seq          배치 순번 (0부터 연속, 음수면 최종 flush)
+     * @param rows         배치 행 수
+     * @param lastId       배치 조회 구간의 끝 ID (건너뛴 행 포함)
+     * @param minPendingId 이 시점에 아직 확정되지 않은(LLM 대기, ES 색인 실패) 가장 작은 ID (없으면 NO_PENDING)
+     * @return 체크포인트가 전진했으면 true
+     */
+    public boolean complete(long seq, int rows, long lastId, long minPendingId) {
+        if (seq >= 0) {
+            done.put(seq, lastId);
+            processedRows += rows;
+            while (done.containsKey(nextSeq)) {
+                contiguousLastId = done.remove(nextSeq);
+                nextSeq++;
+            }
+        }
+        long candidate = minPendingId == NO_PENDING
+                ? contiguousLastId
+                : Math.min(contiguousLastId, minPendingId - 1);
+        if (candidate <= safeId) return false;
+        safeId = candidate;
+        return true;
+    }
+
+    public long safeId() {
+        return safeId;
+    }
+
+    public long processedRows() {
+        return processedRows;
+    }
+}
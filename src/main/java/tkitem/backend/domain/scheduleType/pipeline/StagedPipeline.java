@@ -0,0 +1,221 @@
+package tkitem.backend.domain.scheduleType.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * bounded 큐로 연결된 단계별 파이프라인
+ * - source 1개 스레드 → 각 단계는 자체 스레드 수로 앞 단계 큐를 소비
+ * - 다음 단계 큐가 가득 차면 put 에서 대기 (backpressure)
+ * - 한 단계라도 실패하면 전체 스레드를 중단하고 run() 에서 첫 예외를 다시 던짐
+ * 지표 (tag: pipeline, stage)
+ * - pipeline.stage.latency : 항목 1건 처리 시간 (Timer)
+ * - pipeline.stage.items   : 처리 건수 (Counter, 처리량)
+ * - pipeline.stage.queue   : 단계 입력 큐 적재 수 (Gauge)
+ */
+@Slf4j
+public class StagedPipeline<T> {
+
+    /** null 을 반환하면 입력 끝 */
+    @FunctionalInterface
+    public interface Source<T> {
+        T next() throws Exception;
+    }
+
+    /** null 을 반환하면 다음 단계로 넘기지 않음 */
+    @FunctionalInterface
+    public interface Step<I, O> {
+        O apply(I in) throws Exception;
+    }
+
+    /** 입력이 모두 끝난 뒤 단계에 남은 결과 배출 (null 이면 없음) */
+    @FunctionalInterface
+    public interface Finisher<O> {
+        O finish() throws Exception;
+    }
+
+    private static final Object EOS = new Object();
+
+    // 실행마다 큐가 새로 만들어지므로 Gauge 는 최초 1회 등록하고 현재 큐를 참조
+    private static final Map<String, AtomicReference<BlockingQueue<Object>>> QUEUES = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final MeterRegistry meterRegistry;
+    private final StageDef source;
+    private final List<StageDef> stages = new ArrayList<>();
+
+    private record StageDef(String name, int threads, int queueCapacity,
+                            Step<Object, Object> step, Finisher<Object> finisher) {}
+
+    @SuppressWarnings("unchecked")
+    private StagedPipeline(String name, MeterRegistry meterRegistry, String sourceName, Source<?> source) {
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+        this.source = new StageDef(sourceName, 1, 0, in -> ((Source<Object>) source).next(), null);
+    }
+
+    private StagedPipeline(StagedPipeline<?> prev) {
+        this.name = prev.name;
+        this.meterRegistry = prev.meterRegistry;
+        this.source = prev.source;
+        this.stages.addAll(prev.stages);
+    }
+
+    public static <T> StagedPipeline<T> from(String pipeline, MeterRegistry meterRegistry, String stage, Source<T> source) {
+        return new StagedPipeline<>(pipeline, meterRegistry, stage, source);
+    }
+
+    public <O> StagedPipeline<O> then(String stage, int threads, int queueCapacity, Step<? super T, ? extends O> step) {
+        return then(stage, threads, queueCapacity, step, null);
+    }
+
+    /**
+     * finisher 는 상태를 가진 단계(버퍼 누적 등)용. threads=1 로만 사용
+     */
+    @SuppressWarnings("unchecked")
+    public <O> StagedPipeline<O> then(String stage, int threads, int queueCapacity,
+                                      Step<? super T, ? extends O> step, Finisher<? extends O> finisher) {
+        if (finisher != null && threads != 1) {
+            throw new IllegalArgumentException("finisher requires a single-threaded stage: " + stage);
+        }
+        StagedPipeline<O> next = new StagedPipeline<>(this);
+        next.stages.add(new StageDef(stage, Math.max(1, threads), Math.max(1, queueCapacity),
+                (Step<Object, Object>) step, (Finisher<Object>) finisher));
+        return next;
+    }
+
+    /**
+     * 모든 단계 실행 후 완료까지 대기
+     */
+    public void run() throws Exception {
+        int n = stages.size();
+        List<BlockingQueue<Object>> queues = new ArrayList<>(n);
+        int totalThreads = 1;
+        for (StageDef s : stages) {
+            BlockingQueue<Object> q = new ArrayBlockingQueue<>(s.queueCapacity());
+            queues.add(q);
+            queueRef(s.name()).set(q);
+            totalThreads += s.threads();
+        }
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(totalThreads,
+                r -> new Thread(r, "pipeline-" + name + "-" + seq.incrementAndGet()));
+        try {
+            pool.execute(guard(failure, pool, () -> runSource(queues.isEmpty() ? null : queues.get(0))));
+            for (int i = 0; i < n; i++) {
+                StageDef s = stages.get(i);
+                BlockingQueue<Object> in = queues.get(i);
+                BlockingQueue<Object> out = i + 1 < n ? queues.get(i + 1) : null;
+                AtomicInteger remaining = new AtomicInteger(s.threads());
+                for (int t = 0; t < s.threads(); t++) {
+                    pool.execute(guard(failure, pool, () -> runStage(s, in, out, remaining)));
+                }
+            }
+            pool.shutdown();
+            while (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.debug("[PIPELINE] {} running. queues={}", name, queues.stream().map(BlockingQueue::size).toList());
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            for (StageDef s : stages) queueRef(s.name()).set(null);
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof Exception e) throw e;
+        if (t instanceof Error e) throw e;
+    }
+
+    private interface Body {
+        void run() throws Exception;
+    }
+
+    private Runnable guard(AtomicReference<Throwable> failure, ExecutorService pool, Body body) {
+        return () -> {
+            try {
+                body.run();
+            } catch (InterruptedException e) {
+                // 다른 단계 실패로 중단됨
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                if (failure.compareAndSet(null, e)) {
+                    log.error("[PIPELINE] {} stage failed, stopping: {}", name, e.toString());
+                }
+                pool.shutdownNow();
+            }
+        };
+    }
+
+    private void runSource(BlockingQueue<Object> out) throws Exception {
+        Timer timer = timer(source.name());
+        Counter items = counter(source.name());
+        while (!Thread.currentThread().isInterrupted()) {
+            long t0 = System.nanoTime();
+            Object item = source.step().apply(null);
+            if (item == null) break;
+            timer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            items.increment();
+            if (out != null) out.put(item);
+        }
+        if (out != null) out.put(EOS);
+    }
+
+    private void runStage(StageDef s, BlockingQueue<Object> in, BlockingQueue<Object> out, AtomicInteger remaining) throws Exception {
+        Timer timer = timer(s.name());
+        Counter items = counter(s.name());
+        while (true) {
+            Object item = in.take();
+            if (item == EOS) {
+                if (remaining.decrementAndGet() > 0) {
+                    // 같은 단계의 다른 스레드도 종료하도록 되돌려 놓음
+                    in.put(EOS);
+                    return;
+                }
+                if (s.finisher() != null) {
+                    Object last = s.finisher().finish();
+                    if (last != null && out != null) out.put(last);
+                }
+                if (out != null) out.put(EOS);
+                return;
+            }
+
+            long t0 = System.nanoTime();
+            Object result = s.step().apply(item);
+            timer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            items.increment();
+            if (result != null && out != null) out.put(result);
+        }
+    }
+
+    private Timer timer(String stage) {
+        return Timer.builder("pipeline.stage.latency").tag("pipeline", name).tag("stage", stage).register(meterRegistry);
+    }
+
+    private Counter counter(String stage) {
+        return Counter.builder("pipeline.stage.items").tag("pipeline", name).tag("stage", stage).register(meterRegistry);
+    }
+
+    private AtomicReference<BlockingQueue<Object>> queueRef(String stage) {
+        return QUEUES.computeIfAbsent(name + "/" + stage, k -> {
+            AtomicReference<BlockingQueue<Object>> ref = new AtomicReference<>();
+            Gauge.builder("pipeline.stage.queue", ref, r -> r.get() == null ? 0 : r.get().size())
+                    .tag("pipeline", name).tag("stage", stage)
+                    .register(meterRegistry);
+            return ref;
+        });
+    }
+}
@@ -0,0 +1,199 @@
+package tkitem.backend.domain.scheduleType.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+import tkitem.backend.global.util.HashUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 임베딩 2단 캐시
+ * - L1: 프로세스 내 LRU (크기 제한 + TTL)
+ * - L2: Redis (little-endian float blob + TTL). redis.enabled=false 면 L1 만 사용
+ * 키: emb:{model}:{SHA-256(정규화 텍스트)}
+ */
+@Component
+@Slf4j
+public class EmbeddingCache {
+
+    private static final String KEY_PREFIX = "emb:";
+
+    private final ObjectProvider<RedisTemplate<String, byte[]>> redisProvider;
+    private final Map<String, LocalEntry> local;
+    private final long localTtlMillis;
+    private final Duration redisTtl;
+
+    private final Counter localHit;
+    private final Counter redisHit;
+    private final Counter miss;
+
+    private record LocalEntry(float[] vec, long expiresAt) {}
+
+    public EmbeddingCache(@Qualifier("embeddingRedisTemplate") ObjectProvider<RedisTemplate<String, byte[]>> redisProvider,
+                          MeterRegistry meterRegistry,
+                          @Value("${embedding.cache.local-max-size:5000}") int localMaxSize,
+                          @Value("${embedding.cache.local-ttl:6h}") Duration localTtl,
+                          @Value("${embedding.cache.redis-ttl:30d}") Duration redisTtl) {
+        this.redisProvider = redisProvider;
+        this.localTtlMillis = localTtl.toMillis();
+        this.redisTtl = redisTtl;
+        this.local = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                return size() > localMaxSize;
+            }
+        });
+
+        this.localHit = Counter.builder("embedding.cache.requests").tag("result", "hit").tag("tier", "local").register(meterRegistry);
+        this.redisHit = Counter.builder("embedding.cache.requests").tag("result", "hit").tag("tier", "redis").register(meterRegistry);
+        this.miss     = Counter.builder("embedding.cache.requests").tag("result", "miss").tag("tier", "none").register(meterRegistry);
+    }
+
+    /**
+     * 캐시 키/임베딩 입력에 공통으로 쓰는 정규화 (공백 축약 + trim)
+     */
+    public static String normalize(String text) {
+        return text == null ? "" : text.replaceAll("\\s+", " ").trim();
+    }
+
+    public String key(String model, String normalizedText) {
+        return KEY_PREFIX + model + ":" + HashUtil.hash(normalizedText);
+    }
+
+    /**
+     * 단건 조회 (L1 → L2). L2 적중 시 L1 에 승격
+     * @return 없으면 null
+     */
+    public float[] get(String key) {
+        float[] v = getLocal(key);
+        if (v != null) {
+            localHit.increment();
+            return v;
+        }
+        RedisTemplate<String, byte[]> redis = redisProvider.getIfAvailable();
+        if (redis != null) {
+            try {
+                byte[] blob = redis.opsForValue().get(key);
+                if (blob != null) {
+                    v = decode(blob);
+                    putLocal(key, v);
+                    redisHit.increment();
+                    return v;
+                }
+            } catch (DataAccessException e) {
+                log.debug("[EMB-CACHE] redis get failed: {}", e.toString());
+            }
+        }
+        miss.increment();
+        return null;
+    }
+
+    /**
+     * 다건 조회 (L1 확인 후 남은 키는 Redis MGET 한 번)
+     * @return key → vector (적중분만)
+     */
+    public Map<String, float[]> getAll(Collection<String> keys) {
+        Map<String, float[]> out = new HashMap<>(keys.size() * 2);
+        List<String> remote = new ArrayList<>();
+        for (String k : keys) {
+            if (out.containsKey(k)) continue;
+            float[] v = getLocal(k);
+            if (v != null) {
+                out.put(k, v);
+                localHit.increment();
+            } else {
+                remote.add(k);
+            }
+        }
+
+        RedisTemplate<String, byte[]> redis = redisProvider.getIfAvailable();
+        if (!remote.isEmpty() && redis != null) {
+            try {
+                List<byte[]> blobs = redis.opsForValue().multiGet(remote);
+                if (blobs != null) {
+                    for (int i = 0; i < remote.size() && i < blobs.size(); i++) {
+                        byte[] blob = blobs.get(i);
+                        if (blob == null) continue;
+                        float[] v = decode(blob);
+                        putLocal(remote.get(i), v);
+                        out.put(remote.get(i), v);
+                        redisHit.increment();
+                    }
+                }
+            } catch (DataAccessException e) {
+                log.debug("[EMB-CACHE] redis mget failed: {}", e.toString());
+            }
+        }
+        for (String k : remote) {
+            if (!out.containsKey(k)) miss.increment();
+        }
+        return out;
+    }
+
+    public void put(String key, float[] vec) {
+        putAll(Map.of(key, vec));
+    }
+
+    /**
+     * L1/L2 동시 저장. Redis 는 파이프라인 한 번으로 기록
+     */
+    public void putAll(Map<String, float[]> entries) {
+        if (entries.isEmpty()) return;
+        entries.forEach(this::putLocal);
+
+        RedisTemplate<String, byte[]> redis = redisProvider.getIfAvailable();
+        if (redis == null) return;
+        try {
+            redis.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, byte[]> ops = (RedisOperations<String, byte[]>) operations;
+                    entries.forEach((k, v) -> ops.opsForValue().set(k, encode(v), redisTtl));
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            log.debug("[EMB-CACHE] redis put failed: {}", e.toString());
+        }
+    }
+
+    private float[] getLocal(String key) {
+        LocalEntry e = local.get(key);
+        if (e == null) return null;
+        if (e.expiresAt() < System.currentTimeMillis()) {
+            local.remove(key);
+            return null;
+        }
+        return e.vec();
+    }
+
+    private void putLocal(String key, float[] vec) {
+        local.put(key, new LocalEntry(vec, System.currentTimeMillis() + localTtlMillis));
+    }
+
+    // float[] → little-endian blob (1536차원 = 6KB)
+    static byte[] encode(float[] vec) {
+        ByteBuffer buf = ByteBuffer.allocate(vec.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buf.asFloatBuffer().put(vec);
+        return buf.array();
+    }
+
+    static float[] decode(byte[] blob) {
+        float[] out = new float[blob.length / Float.BYTES];
+        ByteBuffer.wrap(blob).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(out);
+        return out;
+    }
+}
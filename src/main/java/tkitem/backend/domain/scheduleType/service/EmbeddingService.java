@@ -8,32 +8,44 @@ import org.springframework.ai.embedding.EmbeddingResponse;
 import org.springframework.ai.openai.OpenAiEmbeddingOptions;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmbeddingService {
 
+    public static final String MODEL = "text-embedding-3-small";
+
     private final EmbeddingModel embeddingModel;
+    private final EmbeddingCache embeddingCache;
 
     /**
-     * 임베딩 생성
+     * 임베딩 생성 (캐시 우선)
      * @param text
      * @return
      */
     public float[] embed(String text){
-        if(text == null) text = "";
+        String normalized = EmbeddingCache.normalize(text);
+        String key = embeddingCache.key(MODEL, normalized);
+
+        float[] cached = embeddingCache.get(key);
+        if (cached != null) return cached;
+
         EmbeddingRequest req = new EmbeddingRequest(
-                List.of(text),
-                OpenAiEmbeddingOptions.builder().model("text-embedding-3-small").build()
+                List.of(normalized),
+                OpenAiEmbeddingOptions.builder().model(MODEL).build()
         );
         EmbeddingResponse res = embeddingModel.call(req);
-        return res.getResults().get(0).getOutput();
+        float[] vec = res.getResults().get(0).getOutput();
+        embeddingCache.put(key, vec);
+        return vec;
     }
 
     /**
      * 임베딩 생성 (배치)
+     * - 캐시 적중분은 제외하고, 미적중 텍스트만 중복 제거 후 한 번에 요청
+     * - 반환 순서는 입력 순서와 동일
      * @param texts
      * @return
      */
@@ -41,15 +53,39 @@ public class EmbeddingService {
         if (texts == null || texts.isEmpty()) {
             return List.of();
         }
-        // API는 null 대신 빈 문자열을 선호
-        List<String> nonEmptyTexts = texts.stream().map(t -> t == null ? "" : t).toList();
+        // API는 null 대신 빈 문자열을 선호 (normalize 가 처리)
+        List<String> normalized = texts.stream().map(EmbeddingCache::normalize).toList();
+        List<String> keys = normalized.stream().map(t -> embeddingCache.key(MODEL, t)).toList();
 
-        EmbeddingRequest req = new EmbeddingRequest(
-                nonEmptyTexts,
-                OpenAiEmbeddingOptions.builder().model("text-embedding-3-small").build()
-        );
+        Map<String, float[]> found = new HashMap<>(embeddingCache.getAll(keys));
 
-        EmbeddingResponse res = embeddingModel.call(req);
-        return res.getResults().stream().map(r -> r.getOutput()).toList();
+        // 미적중 키 → 텍스트 (입력 순서 유지, 중복 제거)
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (!found.containsKey(keys.get(i))) missing.putIfAbsent(keys.get(i), normalized.get(i));
+        }
+
+        if (!missing.isEmpty()) {
+            EmbeddingRequest req = new EmbeddingRequest(
+                    new ArrayList<>(missing.values()),
+                    OpenAiEmbeddingOptions.builder().model(MODEL).build()
+            );
+            EmbeddingResponse res = embeddingModel.call(req);
+
+            Map<String, float[]> fresh = new HashMap<>(missing.size() * 2);
+            Iterator<String> it = missing.keySet().iterator();
+            for (var r : res.getResults()) {
+                if (!it.hasNext()) break;
+                fresh.put(it.next(), r.getOutput());
+            }
+            embeddingCache.putAll(fresh);
+            found.putAll(fresh);
+        }
+
+        log.debug("[EMB] batch={} requested={}", texts.size(), missing.size());
+
+        List<float[]> out = new ArrayList<>(keys.size());
+        for (String k : keys) out.add(found.get(k));
+        return out;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,263 @@
+package tkitem.backend.domain.scheduleType.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkListener;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 일정/라벨 인덱스 공용 비동기 bulk 색인기 (BulkIngester)
+ * - 건수(max-operations) 또는 크기(max-size-mb) 도달, flush-interval 경과 시 전송
+ * - 동시 전송 요청 수는 max-concurrent-requests 로 제한 (초과 시 add 가 대기 → 호출 단계 backpressure)
+ * - 429 / es_rejected_execution_exception 은 지터 백오프 후 재전송, 그 외 실패/재시도 초과는 dead-letter 로 보관
+ * - mark() 시점까지 추가한 문서는 awaitThrough(mark) 로 결과(성공/dead-letter) 확정까지 대기 가능
+ * - trackFailures() 로 연 범위는 닫을 때까지 확정된 dead-letter 를 빠짐없이 모음 (보관 목록 상한과 무관)
+ * 지표 (tag: index)
+ * - es.bulk.docs (outcome=success|dead) / es.bulk.rejections / es.bulk.retries
+ */
+@Component
+@Slf4j
+public class EsBulkWriter {
+
+    public record DeadLetter(String index, String id, int status, String reason, int attempts, LocalDateTime at) {}
+
+    public record Stats(long succeeded, long rejected, long deadLettered) {}
+
+    // 문서 1건 추적 정보 (재전송 시 attempt 만 증가)
+    private record Doc(long seq, String index, String id, BulkOperation op, int attempt) {}
+
+    private static final int DEAD_LETTER_CAP = 1000;
+
+    private final BulkIngester<Doc> ingester;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService retryScheduler;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    private final AtomicLong seq = new AtomicLong();
+    // seq 발급과 outstanding 등록을 한 번에 (mark 가 등록 전 번호를 보고 awaitThrough 가 먼저 끝나지 않게)
+    private final Object seqLock = new Object();
+    private final ConcurrentSkipListSet<Long> outstanding = new ConcurrentSkipListSet<>();
+    private final Object resolved = new Object();
+
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final Deque<DeadLetter> deadLetters = new ArrayDeque<>();
+    private final Set<FailureTracker> trackers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * dead-letter 수집 범위 (try-with-resources 로 사용)
+     * dead-letter 는 확정(resolve) 전에 기록되므로 awaitThrough(mark) 후 drain 하면 mark 이하 실패분이 모두 포함됨
+     */
+    public final class FailureTracker implements AutoCloseable {
+        private final Queue<DeadLetter> failed = new ConcurrentLinkedQueue<>();
+
+        // 지난 drain 이후 모인 dead-letter
+        public List<DeadLetter> drain() {
+            List<DeadLetter> out = new ArrayList<>();
+            for (DeadLetter d; (d = failed.poll()) != null; ) out.add(d);
+            return out;
+        }
+
+        @Override
+        public void close() {
+            trackers.remove(this);
+        }
+    }
+
+    public EsBulkWriter(ElasticsearchClient esClient, MeterRegistry meterRegistry,
+                        @Value("${es.bulk.max-operations:1000}") int maxOperations,
+                        @Value("${es.bulk.max-size-mb:5}") long maxSizeMb,
+                        @Value("${es.bulk.max-concurrent-requests:2}") int maxConcurrentRequests,
+                        @Value("${es.bulk.flush-interval-ms:1000}") long flushIntervalMs,
+                        @Value("${es.bulk.max-attempts:5}") int maxAttempts,
+                        @Value("${es.bulk.backoff-base-ms:200}") long backoffBaseMs,
+                        @Value("${es.bulk.backoff-max-ms:10000}") long backoffMaxMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBaseMs = Math.max(1, backoffBaseMs);
+        this.backoffMaxMs = Math.max(this.backoffBaseMs, backoffMaxMs);
+        // 재전송은 응답 콜백 스레드가 아닌 별도 스레드에서 add (콜백 안에서 add 가 대기하면 교착)
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "es-bulk-retry"));
+        this.ingester = BulkIngester.of(b -> b
+                .client(esClient)
+                .maxOperations(Math.max(1, maxOperations))
+                .maxSize(Math.max(1, maxSizeMb) * 1024 * 1024)
+                .maxConcurrentRequests(Math.max(1, maxConcurrentRequests))
+                .flushInterval(Math.max(100, flushIntervalMs), TimeUnit.MILLISECONDS)
+                .listener(new Listener()));
+    }
+
+    /**
+     * 문서 색인 요청 추가 (id 가 null 이면 ES 자동 생성: 요청 단위 실패 후 재전송되면 중복될 수 있으므로 재전송 가능한 문서는 id 지정)
+     */
+    public void index(String index, String id, Map<String, Object> doc) {
+        BulkOperation op = BulkOperation.of(o -> o.index(i -> {
+            i.index(index).document(doc);
+            if (id != null) i.id(id);
+            return i;
+        }));
+        add(index, id, op);
+    }
+
+    /**
+     * 문서 삭제 요청 추가 (없는 문서의 404 는 성공으로 처리)
+     */
+    public void delete(String index, String id) {
+        add(index, id, BulkOperation.of(o -> o.delete(d -> d.index(index).id(id))));
+    }
+
+    /**
+     * 지금까지 추가한 문서의 위치
+     */
+    public long mark() {
+        synchronized (seqLock) {
+            return seq.get();
+        }
+    }
+
+    /**
+     * mark 이하 문서가 모두 성공 또는 dead-letter 로 확정될 때까지 대기
+     */
+    public void awaitThrough(long mark) throws InterruptedException {
+        ingester.flush();
+        synchronized (resolved) {
+            while (!outstanding.isEmpty() && outstanding.first() <= mark) {
+                resolved.wait(500);
+                ingester.flush(); // 백오프 후 다시 들어온 재전송분
+            }
+        }
+    }
+
+    private void add(String index, String id, BulkOperation op) {
+        long s;
+        synchronized (seqLock) {
+            s = seq.incrementAndGet();
+            outstanding.add(s);
+        }
+        ingester.add(op, new Doc(s, index, id, op, 1)); // backpressure 대기는 락 밖에서
+    }
+
+    public Stats stats() {
+        return new Stats(succeeded.get(), rejected.get(), deadLettered.get());
+    }
+
+    public FailureTracker trackFailures() {
+        FailureTracker t = new FailureTracker();
+        trackers.add(t);
+        return t;
+    }
+
+    public List<DeadLetter> deadLetters() {
+        synchronized (deadLetters) {
+            return List.copyOf(deadLetters);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        ingester.close();
+        retryScheduler.shutdownNow();
+    }
+
+    private class Listener implements BulkListener<Doc> {
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request, List<Doc> contexts) {
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<Doc> contexts, BulkResponse response) {
+            List<BulkResponseItem> items = response.items();
+            for (int i = 0; i < contexts.size(); i++) {
+                Doc doc = contexts.get(i);
+                BulkResponseItem item = i < items.size() ? items.get(i) : null;
+                if (item == null) {
+                    retryOrDead(doc, 0, "missing response item");
+                } else if (item.error() == null || (item.operationType() == OperationType.Delete && item.status() == 404)) {
+                    succeeded.incrementAndGet();
+                    counter("es.bulk.docs", doc.index(), "success").increment();
+                    resolve(doc);
+                } else if (item.status() == 429 || "es_rejected_execution_exception".equals(item.error().type())) {
+                    rejected.incrementAndGet();
+                    meterRegistry.counter("es.bulk.rejections", "index", doc.index()).increment();
+                    retryOrDead(doc, item.status(), item.error().reason());
+                } else {
+                    dead(doc, item.status(), item.error().type() + ": " + item.error().reason());
+                }
+            }
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<Doc> contexts, Throwable failure) {
+            // 요청 전체 실패 (연결 오류, 429 응답 등) → 전부 재전송 대상
+            log.warn("[ES-BULK] request failed docs={} : {}", contexts.size(), failure.toString());
+            for (Doc doc : contexts) retryOrDead(doc, 0, failure.toString());
+        }
+    }
+
+    private void retryOrDead(Doc doc, int status, String reason) {
+        if (doc.attempt() >= maxAttempts) {
+            dead(doc, status, "retries exhausted: " + reason);
+            return;
+        }
+        long cap = Math.min(backoffMaxMs, backoffBaseMs << Math.min(doc.attempt() - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+        meterRegistry.counter("es.bulk.retries", "index", doc.index()).increment();
+        Doc next = new Doc(doc.seq(), doc.index(), doc.id(), doc.op(), doc.attempt() + 1);
+        try {
+            retryScheduler.schedule(() -> {
+                try {
+                    ingester.add(next.op(), next);
+                } catch (RuntimeException e) {
+                    // ingester 가 이미 닫힌 경우 등: 확정되지 않으면 awaitThrough 가 끝나지 않음
+                    dead(next, status, "retry add failed: " + e);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            dead(doc, status, "shutting down: " + reason);
+        }
+    }
+
+    private void dead(Doc doc, int status, String reason) {
+        deadLettered.incrementAndGet();
+        counter("es.bulk.docs", doc.index(), "dead").increment();
+        log.error("[ES-BULK] dead-letter index={} id={} status={} attempts={} reason={}",
+                doc.index(), doc.id(), status, doc.attempt(), reason);
+        DeadLetter dl = new DeadLetter(doc.index(), doc.id(), status, reason, doc.attempt(), LocalDateTime.now());
+        synchronized (deadLetters) {
+            if (deadLetters.size() >= DEAD_LETTER_CAP) deadLetters.pollFirst();
+            deadLetters.addLast(dl);
+        }
+        for (FailureTracker t : trackers) t.failed.add(dl);
+        resolve(doc);
+    }
+
+    private void resolve(Doc doc) {
+        outstanding.remove(doc.seq());
+        synchronized (resolved) {
+            resolved.notifyAll();
+        }
+    }
+
+    private Counter counter(String name, String index, String outcome) {
+        return meterRegistry.counter(name, "index", index, "outcome", outcome);
+    }
+}
@@ -7,26 +7,50 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import tkitem.backend.domain.scheduleType.classification.LabelVectorStore;
 import tkitem.backend.domain.scheduleType.dto.TourDetailScheduleRowDto;
+import tkitem.backend.global.util.TokenBucket;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
- * ES KNN Top-N 재정렬, LLM Top-3 폐쇄 라벨 보완
+ * KNN Top-N 재정렬, LLM Top-3 폐쇄 라벨 보완
+ * - KNN 은 LabelVectorStore(메모리 정확 검색) 우선, 미적재 시 ES KNN 으로 대체
+ * - LLM 은 llmExecutor(가상 스레드)에서 동시 호출. 동시 호출 수는 Semaphore, 호출 속도는 TokenBucket 으로 제한
+ *   429/5xx 는 지터 백오프 후 재시도
  */
 @Service
 @Slf4j
 public class GenerativeLabelService {
 
-    public GenerativeLabelService(@Qualifier("geminiChatClient") ChatClient chatClient, ObjectMapper objectMapper, EmbeddingService embeddingService, ElasticsearchClient esClient) {
+    public GenerativeLabelService(@Qualifier("geminiChatClient") ChatClient chatClient, ObjectMapper objectMapper, EmbeddingService embeddingService, ElasticsearchClient esClient, LabelVectorStore labelVectorStore,
+                                  @Qualifier("llmExecutor") ExecutorService llmExecutor,
+                                  @Value("${pipeline.tour-type.llm.concurrency:8}") int llmConcurrency,
+                                  @Value("${pipeline.tour-type.llm.requests-per-minute:300}") int requestsPerMinute,
+                                  @Value("${pipeline.tour-type.llm.burst:10}") int burst,
+                                  @Value("${pipeline.tour-type.llm.max-attempts:4}") int maxAttempts,
+                                  @Value("${pipeline.tour-type.llm.backoff-base-ms:500}") long backoffBaseMs,
+                                  @Value("${pipeline.tour-type.llm.backoff-max-ms:20000}") long backoffMaxMs) {
         this.chatClient = chatClient;
         this.objectMapper = objectMapper;
         this.embeddingService = embeddingService;
         this.esClient = esClient;
+        this.labelVectorStore = labelVectorStore;
+        this.llmExecutor = llmExecutor;
+        this.llmConcurrency = Math.max(1, llmConcurrency);
+        this.llmRateLimiter = new TokenBucket(Math.max(1, requestsPerMinute) / 60.0, burst);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBaseMs = Math.max(1, backoffBaseMs);
+        this.backoffMaxMs = Math.max(this.backoffBaseMs, backoffMaxMs);
     }
 
     public record Result(String typeName, double score) {}
@@ -37,9 +61,20 @@ public class GenerativeLabelService {
     private final ObjectMapper objectMapper;
     private final EmbeddingService embeddingService;
     private final ElasticsearchClient esClient;
+    private final LabelVectorStore labelVectorStore;
+
+    private final ExecutorService llmExecutor;
+    private final int llmConcurrency;        // classifyBatchByLLM 1회 안에서 동시 호출 상한
+    private final TokenBucket llmRateLimiter; // 프로바이더 쿼터 (모든 호출 공유)
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
 
     private final String GEMINI_MODEL = "gemini-2.0-flash";
+    // 프롬프트/허용 라벨/모델이 바뀌면 올릴 것 (LLM_LABEL_CACHE 키에 포함되어 이전 결과가 무효화됨)
+    static final String PROMPT_VERSION = "gemini-2.0-flash:p1";
     private static final String LABEL_INDEX = "schedule_type_labels_v1";
+    private static final int KNN_K = 5;
 
     /**
      * 코사인 유사도 분류가 애매할 때 LLM 호출/프롬프트 작성/스로틀링(동시성·쿼터) 처리
@@ -50,44 +85,134 @@ public class GenerativeLabelService {
         Map<Long, List<Result>> out = new ConcurrentHashMap<>();
         if(rows == null || rows.isEmpty()) return out;
 
-        for (TourDetailScheduleRowDto r : rows) {
-            try {
-                String text = (safe(r.getTitle()) + " " + safe(r.getDescription())).replaceAll("\\s+", " ").trim();
-                log.info("[LLM][TRY] tdsId={} model={} textLen={}", r.getTourDetailScheduleId(), GEMINI_MODEL, text.length());
+        long t0 = System.currentTimeMillis();
+        Semaphore permits = new Semaphore(llmConcurrency);
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger retries = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(rows.size());
+        try {
+            // 1) 동시 호출 상한만큼만 제출 (나머지는 permit 반환까지 대기)
+            for (TourDetailScheduleRowDto r : rows) {
+                permits.acquire();
+                try {
+                    futures.add(llmExecutor.submit(() -> {
+                        try {
+                            classifyOneByLLM(r, out, retries);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                            log.warn("classifyBatchTopK failed: tdsId={} err={}", r.getTourDetailScheduleId(), e.toString());
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+            // 2) 전체 완료 대기
+            for (Future<?> f : futures) f.get();
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // 작업 내부에서 모두 처리하므로 도달하지 않음
+            log.warn("classifyBatchTopK unexpected: {}", e.getCause().toString());
+        }
+
+        log.info("[LLM][BATCH] rows={} ok={} failed={} retries={} concurrency={} elapsedMs={}",
+                rows.size(), out.size(), failed.get(), retries.get(), llmConcurrency, System.currentTimeMillis() - t0);
+        return out;
+    }
 
+    // 단건 LLM 분류 (속도 제한 + 재시도)
+    private void classifyOneByLLM(TourDetailScheduleRowDto r, Map<Long, List<Result>> out, AtomicInteger retries) throws Exception {
+        String text = (safe(r.getTitle()) + " " + safe(r.getDescription())).replaceAll("\\s+", " ").trim();
+        log.info("[LLM][TRY] tdsId={} model={} textLen={}", r.getTourDetailScheduleId(), GEMINI_MODEL, text.length());
+
+        for (int attempt = 1; ; attempt++) {
+            llmRateLimiter.acquire();
+            try {
                 List<Result> res = classifyTopKByLLM(text, r); // LLM 호출
                 log.info("[LLM][RES] tdsId={} topK={}", r.getTourDetailScheduleId(), formatResults(res));
 
                 if (res != null && !res.isEmpty()) {
                     out.put(r.getTourDetailScheduleId(), res);
                 }
+                return;
             } catch (Exception e) {
-                log.warn("classifyBatchTopK failed: tdsId={} err={}", r.getTourDetailScheduleId(), e.toString());
+                if (attempt >= maxAttempts || !isRetryable(e)) throw e;
+                // full jitter: [0, min(max, base * 2^(attempt-1))]
+                long cap = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+                long sleep = ThreadLocalRandom.current().nextLong(cap + 1);
+                retries.incrementAndGet();
+                log.warn("[LLM][RETRY] tdsId={} attempt={}/{} backoffMs={} err={}",
+                        r.getTourDetailScheduleId(), attempt, maxAttempts, sleep, e.toString());
+                Thread.sleep(sleep);
             }
         }
-        return out;
+    }
+
+    // 429(쿼터 초과) / 5xx / 일시 오류만 재시도
+    private static boolean isRetryable(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TransientAiException) return true;
+            if (t instanceof NonTransientAiException && t.getMessage() != null && t.getMessage().startsWith("429")) return true;
+            if (t instanceof HttpStatusCodeException h) {
+                int code = h.getStatusCode().value();
+                return code == 429 || code >= 500;
+            }
+        }
+        return false;
     }
 
     /**
-     * 1차 필터링 값이 애매할 시 임베딩 유사도 기반 분류
+     * 1차 필터링 값이 애매할 시 임베딩 유사도 기반 분류 (임베딩 직접 생성)
      * @param rows
      * @return
      */
     public Map<Long, List<Result>> classifyBatchByKNN(List<TourDetailScheduleRowDto> rows){
+        if(rows == null || rows.isEmpty()) return new ConcurrentHashMap<>();
+        List<String> texts = rows.stream()
+                .map(r -> (safe(r.getTitle()) + " " + safe(r.getDescription())).replaceAll("\\s+", " ").trim())
+                .toList();
+        return classifyBatchByKNN(rows, embeddingService.embedAll(texts));
+    }
+
+    /**
+     * 임베딩이 이미 있는 경우의 KNN 분류 (파이프라인 embed 단계 벡터 재사용)
+     * @param rows
+     * @param vectors rows 와 같은 순서의 임베딩
+     * @return
+     */
+    public Map<Long, List<Result>> classifyBatchByKNN(List<TourDetailScheduleRowDto> rows, List<float[]> vectors){
         Map<Long, List<Result>> out = new ConcurrentHashMap<>();
         if(rows == null || rows.isEmpty()) return out;
 
-        for(TourDetailScheduleRowDto r : rows){
-            try{
-                String text = (safe(r.getTitle()) + " " + safe(r.getDescription())).replaceAll("\\s+", " ").trim();
+        // 1) 메모리 라벨 저장소: 배치 전체를 한 번에 정확 검색
+        if(labelVectorStore.ensureLoaded()){
+            List<List<LabelVectorStore.Neighbor>> neighbors = labelVectorStore.topK(vectors, KNN_K);
+            for(int i = 0; i < rows.size(); i++){
+                List<Result> topK = rank(neighbors.get(i));
+                log.debug("[KNN][RES] tdsId={} topK={}", rows.get(i).getTourDetailScheduleId(), formatResults(topK));
+                if(!topK.isEmpty()) out.put(rows.get(i).getTourDetailScheduleId(), topK);
+            }
+            return out;
+        }
 
-                log.info("[KNN][TRY] tdsId={} textLen={}", r.getTourDetailScheduleId(), text.length());
+        // 2) 저장소 사용 불가 → 건별 ES KNN
+        for(int i = 0; i < rows.size(); i++){
+            TourDetailScheduleRowDto r = rows.get(i);
+            try{
+                log.info("[KNN][TRY] tdsId={} (es)", r.getTourDetailScheduleId());
 
-                List<Result> topK = classifyTopKByKNN(text);
+                List<Result> topK = classifyTopKByEsKNN(vectors.get(i));
 
                 log.info("[KNN][RES] tdsId={} topK={}", r.getTourDetailScheduleId(), formatResults(topK));
 
-                if(topK != null && !topK.isEmpty()) out.put(r.getTourDetailScheduleId(), topK);
+                if(!topK.isEmpty()) out.put(r.getTourDetailScheduleId(), topK);
             } catch (Exception e) {
                 log.warn("classifyBatchByKnn failed: tdsId={} err={}", r.getTourDetailScheduleId(), e.toString());
             }
@@ -166,64 +291,64 @@ public class GenerativeLabelService {
     // 단건 KNN Top-3 출력 : 라벨 인덱스에서 임베딩 KNN -> (코사인 유사도 * 가중치) 정렬 상위 최대 3개까지 return
     public List<Result> classifyTopKByKNN(String text) throws Exception{
         String cleaned = (text == null ? "" : text).replaceAll("\\s+", " ").trim();
-
-        // 1. 임베딩 생성
         float[] qv = embeddingService.embed(cleaned);
+        if(labelVectorStore.ensureLoaded()){
+            return rank(labelVectorStore.topK(List.of(qv), KNN_K).getFirst());
+        }
+        return classifyTopKByEsKNN(qv);
+    }
+
+    // ES KNN 검색(라벨 인덱스) → 이웃별 코사인 재계산 후 rank
+    private List<Result> classifyTopKByEsKNN(float[] qv) throws Exception{
+        if(qv == null || qv.length == 0) return List.of();
         List<Float> q = new ArrayList<>(qv.length);
         for(float v : qv) q.add(v);
 
-        // 2. ES KNN 검색(라벨 인덱스)
         SearchRequest request = new SearchRequest.Builder()
                 .index(LABEL_INDEX)
                 .knn(kn -> kn
                         .field("embedding")
                         .queryVector(q)
-                        .k(5)
+                        .k(KNN_K)
                         .numCandidates(10))
                 .source(s -> s.filter(f->f.includes("label", "embedding")))
                 .build();
 
         SearchResponse<Map> resp = esClient.search(request, Map.class);
 
-        // 3. (코사인 유사도 * 가중치)로 최종 점수 계산
-        List<Result> out = new ArrayList<>();
+        List<LabelVectorStore.Neighbor> neighbors = new ArrayList<>();
         if(resp.hits() != null && resp.hits().hits() != null){
             for(var h : resp.hits().hits()){
                 Map<String, Object> src = h.source();
                 if(src == null) continue;
-
                 float[] ev = toFloatArray(src.get("embedding"));
-                double cos = cosine(qv, ev); // 쿼리 벡터와 문서 벡터 간의 유사도
-
-                Object labelObj = src.get("label");
-                if (labelObj instanceof List<?> labelList) {
-                    for (Object item : labelList) {
-                        if (item instanceof Map<?, ?> labelMap) {
-                            String name = (String) labelMap.get("name");
-                            double weight = (double) labelMap.get("weight");
-
-                            if (name != null && ALLOWED_TYPES.contains(name)) {
-                                double finalScore = cos * weight; // 최종 점수 = 유사도 * 가중치
-                                out.add(new Result(name, Math.max(0.0, Math.min(1.0, finalScore))));
-                            }
-                        }
-                    }
+                neighbors.add(new LabelVectorStore.Neighbor(cosine(qv, ev), LabelVectorStore.toLabels(src.get("label"))));
+            }
+        }
+        return rank(neighbors);
+    }
+
+    // (코사인 유사도 * 가중치)로 최종 점수 계산 → 정렬 → 타입 중복 제거 → 상위 3개
+    private static List<Result> rank(List<LabelVectorStore.Neighbor> neighbors){
+        List<Result> out = new ArrayList<>();
+        for(LabelVectorStore.Neighbor n : neighbors){
+            for(LabelVectorStore.Label l : n.labels()){
+                if(ALLOWED_TYPES.contains(l.name())){
+                    double finalScore = n.cosine() * l.weight(); // 최종 점수 = 유사도 * 가중치
+                    out.add(new Result(l.name(), Math.max(0.0, Math.min(1.0, finalScore))));
                 }
             }
         }
 
-        // 4. 최종 점수 기준 정렬 및 상위 3개 추출
         out.sort((a, b) -> Double.compare(b.score(), a.score()));
         LinkedHashMap<String, Result> dedup = new LinkedHashMap<>();
         for(Result r : out) dedup.putIfAbsent(r.typeName(), r); // 동일 타입이면 높은 점수 유지
-        List<Result> top3 = new ArrayList<>(dedup.values()).subList(0, Math.min(3, dedup.size()));
-        log.info("[KNN][TOPK] out top3={}", formatResults(top3));
-        return top3;
+        return new ArrayList<>(dedup.values()).subList(0, Math.min(3, dedup.size()));
     }
 
 
-    // 허용 타입
-    private static final Set<String> ALLOWED_TYPES = Set.of(
+    // 허용 타입 (SCHEDULE_TYPE 에 모두 있어야 함 - ScheduleTypeDictionary 에서 검사)
+    static final Set<String> ALLOWED_TYPES = Set.of(
             "FLIGHT","TRANSFER","GUIDE","HOTEL","HOTEL_STAY","SIGHTSEEING","LANDMARK",
             "MUSEUM_HERITAGE","PARK_NATURE","ACTIVITY","HIKING_TREKKING","SHOW",
             "SPA_MASSAGE","SHOPPING","MEAL","CAFE","FREE_TIME","SNORKELING", "SWIM", "REST"
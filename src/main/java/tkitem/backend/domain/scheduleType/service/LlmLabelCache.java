@@ -0,0 +1,87 @@
+package tkitem.backend.domain.scheduleType.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import tkitem.backend.domain.scheduleType.dto.LlmLabelCacheDto;
+import tkitem.backend.domain.scheduleType.mapper.LlmLabelCacheMapper;
+import tkitem.backend.global.util.HashUtil;
+
+import java.util.*;
+
+/**
+ * LLM 분류 결과 영구 캐시 (LLM_LABEL_CACHE)
+ * - 키: SHA-256(정규화 텍스트 + default_type + 프롬프트 버전)
+ * - 여러 투어에 같은 문구로 반복되는 일정(공항 이동, 호텔 조식 등)은 한 번만 LLM 호출
+ * - 캐시 장애는 분류를 막지 않음 (조회 실패 = 전부 미스, 기록 실패 = 로그만)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LlmLabelCache {
+
+    private static final int IN_CHUNK = 1000; // Oracle IN 목록 한도
+    private static final int UPSERT_CHUNK = 500;
+
+    private final LlmLabelCacheMapper cacheMapper;
+    private final ObjectMapper objectMapper;
+
+    public static String key(String text, String defaultType) {
+        String normalized = (text == null ? "" : text).replaceAll("\\s+", " ").trim().toLowerCase(Locale.ROOT);
+        return HashUtil.hash(String.join("\u001F",
+                normalized,
+                Objects.toString(defaultType, "").toUpperCase(Locale.ROOT),
+                GenerativeLabelService.PROMPT_VERSION));
+    }
+
+    /**
+     * @return 적중한 키만 담은 맵
+     */
+    public Map<String, List<GenerativeLabelService.Result>> getAll(Collection<String> keys) {
+        Map<String, List<GenerativeLabelService.Result>> out = new HashMap<>();
+        if (keys == null || keys.isEmpty()) return out;
+
+        List<String> list = new ArrayList<>(new LinkedHashSet<>(keys));
+        try {
+            for (int i = 0; i < list.size(); i += IN_CHUNK) {
+                for (LlmLabelCacheDto row : cacheMapper.selectByKeys(list.subList(i, Math.min(i + IN_CHUNK, list.size())))) {
+                    List<GenerativeLabelService.Result> results = parse(row.getLabelsJson());
+                    if (!results.isEmpty()) out.put(row.getCacheKey(), results);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("[LLM-CACHE] lookup failed, treating as miss: {}", e.toString());
+            return new HashMap<>();
+        }
+        return out;
+    }
+
+    public void putAll(Map<String, List<GenerativeLabelService.Result>> entries) {
+        if (entries == null || entries.isEmpty()) return;
+
+        List<LlmLabelCacheDto> rows = new ArrayList<>(entries.size());
+        try {
+            for (var e : entries.entrySet()) {
+                if (e.getValue() == null || e.getValue().isEmpty()) continue; // 빈 결과는 일시 실패일 수 있어 저장 안 함
+                rows.add(new LlmLabelCacheDto(e.getKey(), objectMapper.writeValueAsString(e.getValue())));
+            }
+            for (int i = 0; i < rows.size(); i += UPSERT_CHUNK) {
+                cacheMapper.upsertEntries(rows.subList(i, Math.min(i + UPSERT_CHUNK, rows.size())));
+            }
+        } catch (Exception e) {
+            log.warn("[LLM-CACHE] write failed size={} : {}", rows.size(), e.toString());
+        }
+    }
+
+    private List<GenerativeLabelService.Result> parse(String json) {
+        try {
+            List<GenerativeLabelService.Result> results = objectMapper.readValue(json, new TypeReference<>() {});
+            return results == null ? List.of() : results;
+        } catch (Exception e) {
+            log.debug("[LLM-CACHE] unreadable entry: {}", e.toString());
+            return List.of();
+        }
+    }
+}
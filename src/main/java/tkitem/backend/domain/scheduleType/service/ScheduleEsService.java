@@ -6,8 +6,11 @@ import co.elastic.clients.elasticsearch.core.BulkResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import tkitem.backend.domain.scheduleType.classification.LabelVectorStore;
+import tkitem.backend.global.util.HashUtil;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,6 +23,8 @@ public class ScheduleEsService {
     private static final String INDEX = "tour_detail_schedule_v1";
     private static final String LABEL_INDEX = "schedule_type_labels_v1";
     private final ElasticsearchClient esClient;
+    private final LabelVectorStore labelVectorStore;
+    private final EsBulkWriter esBulkWriter;
 
     /**
      * tour_detail_schedule_v1 에 대량 색인 진행
@@ -51,6 +56,28 @@ public class ScheduleEsService {
         }
     }
 
+    /**
+     * 투어 속성 비정규화 필드 매핑 추가 (이미 있으면 변경 없음)
+     * - country_names / city_names / country_groups : keyword 배열
+     * - packages : nested { departure_date, return_date, price } (같은 패키지 안에서 일정/가격 조건을 함께 평가)
+     * - min_price : long
+     * @throws IOException
+     */
+    public void ensureTourAttributeMapping() throws IOException {
+        esClient.indices().putMapping(m -> m
+                .index(INDEX)
+                .properties("country_names", p -> p.keyword(k -> k))
+                .properties("city_names", p -> p.keyword(k -> k))
+                .properties("country_groups", p -> p.keyword(k -> k))
+                .properties("min_price", p -> p.long_(l -> l))
+                .properties("packages", p -> p.nested(n -> n
+                        .properties("departure_date", q -> q.date(d -> d))
+                        .properties("return_date", q -> q.date(d -> d))
+                        .properties("price", q -> q.long_(l -> l))
+                ))
+        );
+    }
+
     /**
      * schedule_type_labels_v1 인덱스 존재 확인 (seeding 전용)
      * @return true if the index exists, false otherwise
@@ -63,7 +90,8 @@ public class ScheduleEsService {
     public record LearningData(List<Map<String, Object>> labels, String text, float[] embedding) {}
 
     /**
-     * 신뢰도 높은 분류 결과(학습 데이터)를 라벨 인덱스에 대량으로 저장합니다.
+     * 신뢰도 높은 분류 결과(학습 데이터)를 라벨 인덱스에 저장합니다. (EsBulkWriter 로 비동기 전송)
+     * 문서 id 는 문구 + 라벨로 정함: 요청 단위 실패 후 재전송되어도 같은 문서를 덮어써 중복되지 않음
      * @param learningDataList 저장할 학습 데이터 리스트
      */
     public void saveLabel(List<LearningData> learningDataList) {
@@ -71,28 +99,29 @@ public class ScheduleEsService {
             return;
         }
 
-        BulkRequest.Builder bulk = new BulkRequest.Builder();
+        List<float[]> vectors = new ArrayList<>(learningDataList.size());
+        List<List<LabelVectorStore.Label>> labels = new ArrayList<>(learningDataList.size());
         for (LearningData data : learningDataList) {
+            List<LabelVectorStore.Label> lb = LabelVectorStore.toLabels(data.labels());
             Map<String, Object> doc = new HashMap<>();
             doc.put("label", data.labels());
             doc.put("text", data.text());
             doc.put("embedding", data.embedding());
+            esBulkWriter.index(LABEL_INDEX, labelDocId(data.text(), lb), doc);
 
-            bulk.operations(op -> op.index(idx -> idx
-                    .index(LABEL_INDEX)
-                    .document(doc)
-            ));
+            vectors.add(data.embedding());
+            labels.add(lb);
         }
+        log.info("[LEARN] Queued {} learning data items to ES.", learningDataList.size());
 
-        try {
-            BulkResponse response = esClient.bulk(bulk.build());
-            if (response.errors()) {
-                log.error("Bulk saving labels failed for some items.");
-            } else {
-                log.info("[LEARN] Bulk saved {} learning data items to ES.", learningDataList.size());
-            }
-        } catch (IOException e) {
-            log.error("Failed to bulk save labels to Elasticsearch", e);
-        }
+        // 메모리 KNN 저장소에도 반영 (다음 배치부터 바로 이웃으로 사용, 전송 실패분은 다음 reload 때 정리됨)
+        labelVectorStore.append(vectors, labels);
+    }
+
+    // 라벨은 (이름, 가중치) 순서 그대로 (원본 Map 구현의 키 순서와 무관하게 같은 값이면 같은 id)
+    private static String labelDocId(String text, List<LabelVectorStore.Label> labels) {
+        StringBuilder sb = new StringBuilder(text == null ? "" : text);
+        for (LabelVectorStore.Label l : labels) sb.append('\u001F').append(l.name()).append('=').append(l.weight());
+        return HashUtil.hash(sb.toString());
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package tkitem.backend.domain.scheduleType.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import tkitem.backend.domain.scheduleType.mapper.ScheduleTypeMapper;
+import tkitem.backend.domain.scheduleType.vo.ScheduleType;
+import tkitem.backend.global.error.ErrorCode;
+import tkitem.backend.global.error.exception.BusinessException;
+
+import java.util.*;
+
+/**
+ * SCHEDULE_TYPE 이름 → ID 사전 (약 20행)
+ * - 기동 시 한 번 적재, 분류 루프에서는 DB 조회 없이 사용
+ * - 분류 결과로 나올 수 있는 유형(ALLOWED_TYPES)이 테이블에 없으면 기동/재적재 실패
+ * - reload() 는 새 불변 맵으로 교체 (조회 중인 스레드는 이전 맵을 계속 사용)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleTypeDictionary {
+
+    private final ScheduleTypeMapper scheduleTypeMapper;
+
+    private volatile Map<String, Long> idByName = Map.of();
+
+    @PostConstruct
+    public void reload() {
+        Map<String, Long> loaded = new HashMap<>();
+        for (ScheduleType t : scheduleTypeMapper.selectAll()) {
+            if (t.getName() != null && t.getScheduleTypeId() != null) {
+                loaded.put(t.getName(), t.getScheduleTypeId());
+            }
+        }
+
+        Set<String> missing = new TreeSet<>(GenerativeLabelService.ALLOWED_TYPES);
+        missing.removeAll(loaded.keySet());
+        if (!missing.isEmpty()) {
+            throw new BusinessException("SCHEDULE_TYPE missing allowed types: " + missing, ErrorCode.CONFIG_INVALID);
+        }
+
+        idByName = Map.copyOf(loaded);
+        log.info("[SCHEDULE-TYPE] loaded {} types", loaded.size());
+    }
+
+    /**
+     * @return 없는 이름이면 null
+     */
+    public Long idOf(String name) {
+        return name == null ? null : idByName.get(name);
+    }
+}
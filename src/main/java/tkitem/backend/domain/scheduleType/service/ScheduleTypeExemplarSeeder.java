@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
+import tkitem.backend.domain.scheduleType.classification.LabelVectorStore;
 import tkitem.backend.domain.scheduleType.dto.ExemplarDto;
 
 import java.io.InputStream;
@@ -26,6 +27,7 @@ public class ScheduleTypeExemplarSeeder {
     private final EmbeddingService embeddingService;
     private final ObjectMapper objectMapper;
     private final ScheduleEsService esService;
+    private final LabelVectorStore labelVectorStore;
 
     private static final String LABEL_INDEX = "schedule_type_labels_v1";
     private static final String EXEMPLARS_PATH = "dummy/schedule_type_exemplars.json";
@@ -86,6 +88,7 @@ public class ScheduleTypeExemplarSeeder {
             log.info("Indexing {} documents into {}...", count, LABEL_INDEX);
             esService.bulk(bulk.build());
             log.info("Successfully indexed {} documents.", count);
+            labelVectorStore.reload(); // in-memory KNN store follows the reseeded index
         } else {
             log.warn("No valid exemplars found to index.");
         }
@@ -4,23 +4,41 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import tkitem.backend.domain.scheduleType.dto.LabelRow;
 import tkitem.backend.domain.scheduleType.mapper.TourScheduleTypeMapper;
+import tkitem.backend.domain.tour.service.TourScoreFeatureService;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class TourLabelWriter {
     private final TourScheduleTypeMapper tstMapper;
+    private final TourScoreFeatureService tourScoreFeatureService;
 
+    /**
+     * 라벨 청크 저장: (일정, 유형) 중복은 나중 값으로 합친 뒤 MERGE 한 문장
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void saveLabelsChunk(List<Map<String, Object>> labelsToSave) {
-        for (var m : labelsToSave) {
-            Long tdsId  = (Long)  m.get("tdsId");
-            Long typeId = (Long)  m.get("typeId");
-            Double score= (Double) m.get("score");
-            tstMapper.upsertTourScheduleType(tdsId, typeId, score);
+    public void saveLabelsChunk(List<LabelRow> labelsToSave) {
+        if (labelsToSave.isEmpty()) return;
+
+        Map<Long, Map<Long, LabelRow>> byTds = new LinkedHashMap<>();
+        for (LabelRow l : labelsToSave) {
+            byTds.computeIfAbsent(l.tdsId(), k -> new LinkedHashMap<>()).put(l.typeId(), l);
         }
+        List<LabelRow> rows = new ArrayList<>(labelsToSave.size());
+        byTds.values().forEach(m -> rows.addAll(m.values()));
+        tstMapper.upsertTourScheduleTypes(rows);
+
+        // 같은 트랜잭션에서 해당 투어의 점수 feature 재계산
+        Set<Long> tdsIds = new HashSet<>(byTds.keySet());
+        tourScoreFeatureService.refreshForSchedules(tdsIds);
+        // 메모리 점수 엔진은 청크마다가 아니라 파이프라인 실행 종료 시 1회 재적재 (TourScoreEngine.onPipelineFinished)
     }
 }
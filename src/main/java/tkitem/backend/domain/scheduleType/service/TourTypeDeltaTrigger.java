@@ -0,0 +1,74 @@
+package tkitem.backend.domain.scheduleType.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import tkitem.backend.domain.scheduleType.event.TourTypePipelineFinishedEvent;
+import tkitem.backend.domain.tour.event.TourCatalogChangedEvent;
+import tkitem.backend.global.error.ErrorCode;
+import tkitem.backend.global.error.exception.BusinessException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 투어 데이터 적재 후 신규/변경 일정만 분류하는 delta 실행을 백그라운드로 시작
+ * - 적재에서 일정이 추가/변경/삭제된 경우에만 실행 (패키지만 바뀐 적재는 건너뜀)
+ * - 전체/수동 실행이 돌고 있으면 pending 으로 표시해 두고, 그 실행이 끝나면 delta 를 다시 실행
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TourTypeDeltaTrigger {
+
+    private final TourTypePipelineService pipeline;
+
+    // 실행 중이던 파이프라인 때문에 미뤄진 delta 실행이 있는지
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    @Value("${pipeline.tour-type.delta-after-load:true}")
+    private boolean enabled;
+
+    @Value("${pipeline.tour-type.delta-batch-size:1000}")
+    private int batchSize;
+
+    @Async("pipelineTriggerExecutor")
+    @EventListener
+    public void onCatalogChanged(TourCatalogChangedEvent event) {
+        if (event.scheduleIds().isEmpty() && event.deletedScheduleIds().isEmpty()) return;
+        runDelta();
+    }
+
+    @Async("pipelineTriggerExecutor")
+    @EventListener
+    public void onPipelineFinished(TourTypePipelineFinishedEvent event) {
+        if (pending.compareAndSet(true, false)) {
+            log.info("[PIPELINE] running deferred delta run");
+            runDelta();
+        }
+    }
+
+    // 리스너(이미 pipelineTriggerExecutor 스레드)에서만 호출
+    private void runDelta() {
+        if (!enabled) return;
+        do {
+            try {
+                pipeline.runOnce(batchSize, false, true);
+                return;
+            } catch (BusinessException e) {
+                if (e.getErrorCode() != ErrorCode.PIPELINE_ALREADY_RUNNING) {
+                    log.error("[PIPELINE] delta run failed", e);
+                    return;
+                }
+                pending.set(true);
+                log.info("[PIPELINE] delta run deferred until the active run finishes");
+            } catch (Exception e) {
+                log.error("[PIPELINE] delta run failed", e);
+                return;
+            }
+            // pending 표시 전에 실행이 끝나 종료 이벤트를 놓친 경우 바로 재시도
+        } while (!pipeline.isRunning() && pending.compareAndSet(true, false));
+    }
+}
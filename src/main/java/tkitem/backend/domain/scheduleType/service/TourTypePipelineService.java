@@ -1,17 +1,33 @@
 package tkitem.backend.domain.scheduleType.service;
 
-import co.elastic.clients.elasticsearch.core.BulkRequest;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import tkitem.backend.domain.scheduleType.classification.RuleClassifier;
+import tkitem.backend.domain.scheduleType.dto.LabelRow;
+import tkitem.backend.domain.scheduleType.dto.PipelineCheckpointDto;
+import tkitem.backend.domain.scheduleType.dto.TdsContentHashDto;
 import tkitem.backend.domain.scheduleType.dto.TourDetailScheduleRowDto;
+import tkitem.backend.domain.scheduleType.dto.TourEsAttributeRowDto;
+import tkitem.backend.domain.scheduleType.event.TourTypePipelineFinishedEvent;
+import tkitem.backend.domain.scheduleType.mapper.PipelineCheckpointMapper;
 import tkitem.backend.domain.scheduleType.mapper.TourDetailScheduleMapper;
-import tkitem.backend.domain.scheduleType.mapper.TourScheduleTypeMapper;
+import tkitem.backend.domain.scheduleType.pipeline.PipelineWatermark;
+import tkitem.backend.domain.scheduleType.pipeline.StagedPipeline;
 import tkitem.backend.domain.scheduleType.service.ScheduleEsService.LearningData;
+import tkitem.backend.domain.tour.event.TourCatalogChangedEvent;
+import tkitem.backend.domain.tour.service.TourKeywordCache;
+import tkitem.backend.global.error.ErrorCode;
+import tkitem.backend.global.error.exception.BusinessException;
+import tkitem.backend.global.util.HashUtil;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -23,244 +39,477 @@ public class TourTypePipelineService {
     private final ScheduleEsService esService;
     private final EmbeddingService embeddingService;
     private final RuleClassifier rule;
-    private final TourScheduleTypeMapper tstMapper;
+    private final ScheduleTypeDictionary scheduleTypes;
     private final GenerativeLabelService genSvc;
     private final TourLabelWriter tourLabelWriter;
+    private final TourKeywordCache tourKeywordCache;
+    private final MeterRegistry meterRegistry;
+    private final PipelineCheckpointMapper checkpointMapper;
+    private final LlmLabelCache llmLabelCache;
+    private final EsBulkWriter esBulkWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final double MIN_SCORE = 0.65;
     private static final double MIN_MARGIN = 0.10;
     private static final double CONFIDENCE_THRESHOLD = 0.80; // 학습 데이터 축적을 위한 신뢰도 임계값 (KNN, LLM용)
     private static final int PENDING_FLUSH = 500;
     private static final String ES_INDEX = "tour_detail_schedule_v1";
+    private static final String PIPELINE_NAME = "tour_type";
+    private static final String DELTA_PIPELINE_NAME = "tour_type_delta";
+    // 내용 해시에 포함되는 모델/분류 버전. 임베딩 모델이나 분류 규칙이 바뀌면 올려서 delta 실행이 전체를 다시 처리하게 함
+    private static final String CONTENT_VERSION = EmbeddingService.MODEL + ":v1";
+    private static final int IN_CHUNK = 1000; // Oracle IN 목록 한도
 
     private static final Set<String> MOVE = Set.of("FLIGHT", "TRANSFER");
     private static final Set<String> VIEW = Set.of("SIGHTSEEING","LANDMARK", "MUSEUM_HERITAGE","PARK_NATURE","SHOW");
 
     private static final int DB_UPSERT_FLUSH = 500; // 필요 시 조정
 
-    // 한번만 돌리는 메인 엔트리
-    public void runOnce(int batchSize) throws Exception {
-        esService.ensureIndexExistsOrThrow();
+    // 단계별 동시성 / 단계 사이 큐 크기 (배치 단위)
+    @Value("${pipeline.tour-type.embed-threads:2}")
+    private int embedThreads;
+    @Value("${pipeline.tour-type.index-threads:1}")
+    private int indexThreads;
+    @Value("${pipeline.tour-type.queue-capacity:2}")
+    private int queueCapacity;
+
+    // 동시 실행 방지 (전체/delta 실행이 같은 라벨 테이블을 갱신)
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // 단계 간 전달 단위. seq 는 read 순서 (= ID 오름차순), lastId 는 건너뛴 행 포함 조회 구간의 끝
+    private record Item(TourDetailScheduleRowDto row, String text, float[] vec, String hash) {}
+    private record Batch(long seq, long lastId, List<TourDetailScheduleRowDto> rows, List<Item> items) {}
+    private record LabelWork(long seq, int rows, long lastId, long minPendingId,
+                             List<LearningData> learningData, List<LabelRow> dbUpserts,
+                             List<TdsContentHashDto> hashes) {}
+
+    // 1회 실행 동안의 분류 상태/통계 (classify 단계 단일 스레드에서만 변경, 통계는 write 단계에서 읽음)
+    private static class RunState {
+        final List<Item> llmPending = new ArrayList<>();
+        // ES 일정 문서가 dead-letter 된 행 (write 단계에서만 변경): 내용 해시 기록/체크포인트 전진에서 제외
+        final EsBulkWriter.FailureTracker esFailures;
+        final Set<Long> esFailed = new HashSet<>();
+        long minEsFailedId = PipelineWatermark.NO_PENDING;
+        volatile int ruleTried, ruleSuccess;
+        volatile int knnNeeded, knnSuccess;
+        volatile int llmNeeded, llmSuccess;
+        volatile int llmCacheHit; // llmNeeded 중 LLM_LABEL_CACHE 적중 (llmSuccess 에도 포함)
+        volatile long deltaSkipped; // read 단계에서만 변경
+
+        long minPendingId() {
+            long min = PipelineWatermark.NO_PENDING;
+            for (Item it : llmPending) min = Math.min(min, it.row().getTourDetailScheduleId());
+            return min;
+        }
 
-        int offset = 0;
-        List<TourDetailScheduleRowDto> knnTargets = new ArrayList<>();
-        List<TourDetailScheduleRowDto> llmPending = new ArrayList<>();
-        long lastProcessedId = -1;
-
-        // 분류 통계 카운터
-        int ruleTried = 0, ruleSuccess = 0;
-        int knnNeeded = 0, knnSuccess = 0;
-        int llmNeeded = 0, llmSuccess = 0;
-
-        // [ADD] DB upsert 버퍼
-        List<Map<String, Object>> dbUpserts = new ArrayList<>();
-
-        while (true) {
-            // 1) DB 배치 조회
-            List<TourDetailScheduleRowDto> rows = tdsMapper.selectBatchForIndexing(offset, batchSize);
-            if (rows == null || rows.isEmpty()) break;
-
-            // 2) 임베딩 일괄 생성
-            List<String> textsToEmbed = rows.stream()
-                    .map(r -> (r.getTitle() == null ? "" : r.getTitle()) + " " + (r.getDescription() == null ? "" : r.getDescription()))
-                    .map(s -> s.replaceAll("\\s+", " ").trim())
-                    .toList();
-            List<float[]> embeddings = embeddingService.embedAll(textsToEmbed);
-
-            List<LearningData> learningDataToSave = new ArrayList<>();
-            BulkRequest.Builder bulk = new BulkRequest.Builder();
-            for (int i = 0; i < rows.size(); i++) {
-                var r = rows.get(i);
-                String combined = textsToEmbed.get(i);
-                float[] vec = embeddings.get(i);
-
-                // ES 문서 전송 (대상 인덱스/별칭은 설정값)
-                Map<String, Object> d = toEsDoc(r, r.getTitle(), r.getDescription(), combined, vec);
-                bulk.operations(op -> op.index(idx -> idx
-                        .index(ES_INDEX)
-                        .id(String.valueOf(r.getTourDetailScheduleId()))
-                        .document(d)
-                ));
-
-                // defaultType 기반 분류 제어: PLACE는 분류 생략
-                String dt = r.getDefaultType();
-                if (dt != null && dt.equalsIgnoreCase("PLACE")) {
-                    continue;
-                }
+        RunState(EsBulkWriter.FailureTracker esFailures) {
+            this.esFailures = esFailures;
+        }
 
-                // 3) 룰 1차 분류 → 확신 낮으면 pending
-                var scores = rule.score(r.getTitle(), r.getDescription(), r.getDefaultType());
-                var top = rule.top2(scores);
+        // awaitThrough 이후 호출: 그 시점까지 추가한 문서의 실패분이 모두 모여 있음
+        void collectEsFailures() {
+            for (EsBulkWriter.DeadLetter d : esFailures.drain()) {
+                if (!ES_INDEX.equals(d.index()) || d.id() == null) continue;
+                long id = Long.parseLong(d.id());
+                esFailed.add(id);
+                minEsFailedId = Math.min(minEsFailedId, id);
+            }
+        }
+    }
 
-                if (top.top1Type == null) {
-                    log.warn("[RULE-FAIL] No rule match for tdsId={}. Adding to KNN queue. Title='{}', Desc='{}', DefaultType='{}'",
-                            r.getTourDetailScheduleId(), r.getTitle(), r.getDescription(), r.getDefaultType());
-                    knnTargets.add(r);
-                    knnNeeded++;
-                } else {
-                    ruleTried++;
+    /**
+     * 한번만 돌리는 메인 엔트리
+     * DB 조회 → 임베딩 → ES 색인 → 룰/KNN/LLM 분류 → 라벨 저장을 bounded 큐로 연결해
+     * 다음 배치의 임베딩이 이전 배치의 색인/분류와 겹쳐서 진행되도록 실행
+     * @param resume true 면 PIPELINE_CHECKPOINT 의 마지막 ID 이후부터 (직전 실행이 COMPLETED 면 처음부터)
+     * @param delta  true 면 TDS_CONTENT_HASH 와 내용 해시가 같은(이미 분류된, 변경 없는) 일정은 건너뜀
+     */
+    public void runOnce(int batchSize, boolean resume, boolean delta) throws Exception {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("tour type pipeline is already running", ErrorCode.PIPELINE_ALREADY_RUNNING);
+        }
+        try {
+            run(batchSize, resume, delta);
+        } finally {
+            running.set(false);
+            publishFinished(delta);
+        }
+    }
 
-                    if (dt != null && dt.equalsIgnoreCase("MEAL") && top.top1Score == 0.0) {
-                        Long typeId = tstMapper.findScheduleTypeIdByName("MEAL");
-                        if (typeId != null) {
-                            enqueueDbUpsert(dbUpserts, r.getTourDetailScheduleId(), typeId, 0.0);
-                            ruleSuccess++;
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    // 실행 중이라 미뤄진 delta 실행을 이어서 처리하도록 알림 (리스너 오류가 실행 결과를 가리지 않게)
+    private void publishFinished(boolean delta) {
+        try {
+            eventPublisher.publishEvent(new TourTypePipelineFinishedEvent(delta));
+        } catch (RuntimeException e) {
+            log.error("[PIPELINE] finished event publish failed", e);
+        }
+    }
+
+    private void run(int batchSize, boolean resume, boolean delta) throws Exception {
+        esService.ensureIndexExistsOrThrow();
+        esService.ensureTourAttributeMapping();
+        scheduleTypes.reload(); // 실행마다 SCHEDULE_TYPE 변경 반영 (허용 유형 누락 시 시작 전에 실패)
+
+        // 0) 시작 지점 (전체/delta 실행은 체크포인트를 따로 관리)
+        String name = delta ? DELTA_PIPELINE_NAME : PIPELINE_NAME;
+        PipelineCheckpointDto prev = resume ? checkpointMapper.selectCheckpoint(name) : null;
+        boolean resumed = prev != null && !"COMPLETED".equals(prev.getStatus());
+        long startId = resumed ? prev.getLastId() : 0L;
+        Date startedAt = resumed ? prev.getStartedAt() : new Date();
+        PipelineWatermark wm = new PipelineWatermark(startId, resumed ? prev.getProcessedRows() : 0L);
+        long[] base = resumed
+                ? new long[]{prev.getRuleSuccess(), prev.getKnnSuccess(), prev.getLlmSuccess()}
+                : new long[]{0, 0, 0};
+        log.info("[PIPELINE] start name={} lastId={} resumed={}", name, startId, resumed);
+
+        // 실행 동안 확정된 dead-letter 수집 (write 단계에서 실패 행을 해시/체크포인트에서 제외)
+        try (EsBulkWriter.FailureTracker esFailures = esBulkWriter.trackFailures()) {
+            RunState st = new RunState(esFailures);
+            saveCheckpoint(name, wm, st, base, startedAt, "RUNNING");
+            EsBulkWriter.Stats esBefore = esBulkWriter.stats();
+            long runStartedAt = System.currentTimeMillis();
+
+            long[] cursor = {startId, 0}; // {lastId, seq}
+            try {
+                StagedPipeline
+                    // 1) DB 배치 조회 (keyset). delta 면 변경 없는 행을 빼고, 모두 빠진 배치는 다음 구간으로 계속
+                    .from(PIPELINE_NAME, meterRegistry, "read", () -> {
+                        while (true) {
+                            List<TourDetailScheduleRowDto> rows = tdsMapper.selectBatchAfterId(cursor[0], batchSize);
+                            if (rows == null || rows.isEmpty()) return null;
+                            cursor[0] = rows.getLast().getTourDetailScheduleId();
+                            if (delta) rows = changedOnly(rows, st);
+                            if (!rows.isEmpty()) return new Batch(cursor[1]++, cursor[0], rows, null);
                         }
-                        continue;
+                    })
+                    // 2) 임베딩 일괄 생성
+                    .then("embed", embedThreads, queueCapacity, this::embed)
+                    // 3) ES 색인 (투어 속성 비정규화 포함)
+                    .then("index", indexThreads, queueCapacity, this::index)
+                    // 4) 룰 → KNN → (임계치 도달 시) LLM 분류. 남은 LLM pending 은 입력 종료 후 처리
+                    .then("classify", 1, queueCapacity, (Batch b) -> classify(b, st), () -> flushPending(st))
+                    // 5) 라벨 학습 데이터 ES 저장 + DB UPSERT → 체크포인트 전진
+                    .then("write", 1, queueCapacity, (LabelWork w) -> {
+                        write(w, st);
+                        if (wm.complete(w.seq(), w.rows(), w.lastId(), Math.min(w.minPendingId(), st.minEsFailedId))) saveCheckpoint(name, wm, st, base, startedAt, "RUNNING");
+                        return null;
+                    })
+                    .run();
+            } catch (Exception e) {
+                // 다음 resume 실행은 마지막으로 저장된 연속 구간 이후부터
+                try {
+                    saveCheckpoint(name, wm, st, base, startedAt, "FAILED");
+                } catch (Exception ce) {
+                    log.warn("[PIPELINE] checkpoint save failed: {}", ce.toString());
+                }
+                throw e;
+            }
+            esBulkWriter.awaitThrough(esBulkWriter.mark());
+            st.collectEsFailures();
+            // ES 색인 실패가 있으면 resume 실행이 가장 작은 실패 ID 직전부터 다시 처리하도록 COMPLETED 로 닫지 않음
+            saveCheckpoint(name, wm, st, base, startedAt, st.esFailed.isEmpty() ? "COMPLETED" : "FAILED");
+
+            log.info("[SUMMARY] RULE: tried={} success={} rate={}%", st.ruleTried, st.ruleSuccess, st.ruleTried == 0 ? 0.0 : Math.round((st.ruleSuccess * 10000.0 / st.ruleTried)) / 100.0);
+            log.info("[SUMMARY] KNN : needed={} success={} rate={}%", st.knnNeeded, st.knnSuccess, st.knnNeeded == 0 ? 0.0 : Math.round((st.knnSuccess * 10000.0 / st.knnNeeded)) / 100.0);
+            log.info("[SUMMARY] LLM : needed={} success={}", st.llmNeeded, st.llmSuccess);
+            log.info("[SUMMARY] LLM-CACHE: hit={} miss={} hitRate={}%", st.llmCacheHit, st.llmNeeded - st.llmCacheHit, st.llmNeeded == 0 ? 0.0 : Math.round((st.llmCacheHit * 10000.0 / st.llmNeeded)) / 100.0);
+            if (delta) log.info("[SUMMARY] DELTA: unchanged skipped={}", st.deltaSkipped);
+            EsBulkWriter.Stats esAfter = esBulkWriter.stats();
+            long esDocs = esAfter.succeeded() - esBefore.succeeded();
+            double sec = Math.max(1, System.currentTimeMillis() - runStartedAt) / 1000.0;
+            log.info("[SUMMARY] ES  : docs={} docs/sec={} rejected={} deadLetter={} failedSchedules={}", esDocs, Math.round(esDocs / sec),
+                    esAfter.rejected() - esBefore.rejected(), esAfter.deadLettered() - esBefore.deadLettered(), st.esFailed.size());
+            log.info("pipeline completed");
+
+            // 임베딩/라벨이 갱신되었으므로 키워드 Top1 재계산
+            tourKeywordCache.invalidateAll();
+        }
+    }
+
+    /**
+     * 적재에서 삭제된 일정의 ES 문서 삭제 (라벨/내용 해시는 적재 트랜잭션에서 이미 삭제됨)
+     */
+    @EventListener
+    public void onCatalogChanged(TourCatalogChangedEvent event) {
+        if (event.deletedScheduleIds().isEmpty()) return;
+        for (Long tdsId : event.deletedScheduleIds()) {
+            esBulkWriter.delete(ES_INDEX, String.valueOf(tdsId));
+        }
+        log.info("[PIPELINE] ES delete requested for removed schedules={}", event.deletedScheduleIds().size());
+    }
+
+    private Batch embed(Batch b) {
+        List<TourDetailScheduleRowDto> rows = b.rows();
+        List<String> texts = rows.stream()
+                .map(r -> (r.getTitle() == null ? "" : r.getTitle()) + " " + (r.getDescription() == null ? "" : r.getDescription()))
+                .map(s -> s.replaceAll("\\s+", " ").trim())
+                .toList();
+        List<float[]> embeddings = embeddingService.embedAll(texts);
+
+        List<Item> items = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            items.add(new Item(rows.get(i), texts.get(i), embeddings.get(i), contentHash(rows.get(i))));
+        }
+        return new Batch(b.seq(), b.lastId(), rows, items);
+    }
+
+    private Batch index(Batch b) throws Exception {
+        // 투어 속성(지역/패키지) 비정규화 값: 배치 내 투어 단위로 한 번만 조회
+        Map<Long, Map<String, Object>> tourAttrs = loadTourAttributes(b.rows());
+
+        for (Item it : b.items()) {
+            var r = it.row();
+            // ES 문서 전송 (비동기 bulk, 결과 확정은 write 단계에서 대기)
+            Map<String, Object> d = toEsDoc(r, r.getTitle(), r.getDescription(), it.text(), it.vec());
+            d.putAll(tourAttrs.getOrDefault(r.getTourId(), Map.of()));
+            esBulkWriter.index(ES_INDEX, String.valueOf(r.getTourDetailScheduleId()), d);
+        }
+        return b;
+    }
+
+    private LabelWork classify(Batch b, RunState st) throws Exception {
+        List<LearningData> learningDataToSave = new ArrayList<>();
+        List<LabelRow> dbUpserts = new ArrayList<>();
+        List<Item> knnTargets = new ArrayList<>();
+        List<Item> llmTargets = new ArrayList<>();
+
+        for (Item it : b.items()) {
+            var r = it.row();
+            String combined = it.text();
+            float[] vec = it.vec();
+
+            // defaultType 기반 분류 제어: PLACE는 분류 생략
+            String dt = r.getDefaultType();
+            if (dt != null && dt.equalsIgnoreCase("PLACE")) {
+                continue;
+            }
+
+            // 룰 1차 분류 → 확신 낮으면 pending
+            var scores = rule.score(r.getTitle(), r.getDescription(), r.getDefaultType());
+            var top = rule.top2(scores);
+
+            if (top.top1Type == null) {
+                log.warn("[RULE-FAIL] No rule match for tdsId={}. Adding to KNN queue. Title='{}', Desc='{}', DefaultType='{}'",
+                        r.getTourDetailScheduleId(), r.getTitle(), r.getDescription(), r.getDefaultType());
+                knnTargets.add(it);
+                st.knnNeeded++;
+            } else {
+                st.ruleTried++;
+
+                if (dt != null && dt.equalsIgnoreCase("MEAL") && top.top1Score == 0.0) {
+                    Long typeId = scheduleTypes.idOf("MEAL");
+                    if (typeId != null) {
+                        enqueueDbUpsert(dbUpserts, r.getTourDetailScheduleId(), typeId, 0.0);
+                        st.ruleSuccess++;
                     }
+                    continue;
+                }
 
-                    if (dt != null && (dt.equalsIgnoreCase("MEAL") || dt.equalsIgnoreCase("ACCOMMODATION"))) {
-                        Long typeId = tstMapper.findScheduleTypeIdByName(top.top1Type);
-                        if (typeId != null) {
-                            enqueueDbUpsert(dbUpserts, r.getTourDetailScheduleId(), typeId, top.top1Score);
-                            ruleSuccess++;
-                            var result = List.of(new GenerativeLabelService.Result(top.top1Type, top.top1Score));
-                            accumulateLearningData(learningDataToSave, result, combined, vec, false); // 룰 기반은 항상 저장
-                        }
-                        continue;
+                if (dt != null && (dt.equalsIgnoreCase("MEAL") || dt.equalsIgnoreCase("ACCOMMODATION"))) {
+                    Long typeId = scheduleTypes.idOf(top.top1Type);
+                    if (typeId != null) {
+                        enqueueDbUpsert(dbUpserts, r.getTourDetailScheduleId(), typeId, top.top1Score);
+                        st.ruleSuccess++;
+                        var result = List.of(new GenerativeLabelService.Result(top.top1Type, top.top1Score));
+                        accumulateLearningData(learningDataToSave, result, combined, vec, false); // 룰 기반은 항상 저장
                     }
+                    continue;
+                }
 
-                    double top1 = top.top1Score;
-                    double top2 = top.top2Type == null ? 0.0 : top.top2Score;
-                    double margin = top1 - top2;
+                double top1 = top.top1Score;
+                double top2 = top.top2Type == null ? 0.0 : top.top2Score;
+                double margin = top1 - top2;
 
-                    if (top1 >= MIN_SCORE) {
-                        if(margin >= MIN_MARGIN) {
-                            // 4) 확신 충분 → DB UPSERT + ES 업데이트 예약
-                            Long typeId = tstMapper.findScheduleTypeIdByName(top.top1Type);
+                if (top1 >= MIN_SCORE) {
+                    if(margin >= MIN_MARGIN) {
+                        // 확신 충분 → DB UPSERT + ES 업데이트 예약
+                        Long typeId = scheduleTypes.idOf(top.top1Type);
+                        if (typeId != null) {
+                            enqueueDbUpsert(dbUpserts, r.getTourDetailScheduleId(), typeId, top1);
+                            st.ruleSuccess++;
+                            var result = List.of(new GenerativeLabelService.Result(top.top1Type, top1));
+                            accumulateLearningData(learningDataToSave, result, combined, vec, false); // 룰 기반은 항상 저장
+                        }
+                    } else {
+                        // 근소차이 : 상충 계열이면 KNN/LLM
+                        if(isConflict(top.top1Type, top.top2Type)) {
+                            log.warn("[RULE-FAIL] Conflict detected for tdsId={}. Top1='{}', Top2='{}'. Adding to KNN queue. Title='{}', Desc='{}', DefaultType='{}'",
+                                    r.getTourDetailScheduleId(), top.top1Type, top.top2Type, r.getTitle(), r.getDescription(), r.getDefaultType());
+                            knnTargets.add(it);
+                            st.knnNeeded++;
+                        } else { // 동일 계열이면 채택
+                            Long typeId = scheduleTypes.idOf(top.top1Type);
                             if (typeId != null) {
                                 enqueueDbUpsert(dbUpserts, r.getTourDetailScheduleId(), typeId, top1);
-                                ruleSuccess++;
+                                st.ruleSuccess++;
                                 var result = List.of(new GenerativeLabelService.Result(top.top1Type, top1));
                                 accumulateLearningData(learningDataToSave, result, combined, vec, false); // 룰 기반은 항상 저장
                             }
-                        } else {
-                            // 근소차이 : 상충 계열이면 KNN/LLM
-                            if(isConflict(top.top1Type, top.top2Type)) {
-                                log.warn("[RULE-FAIL] Conflict detected for tdsId={}. Top1='{}', Top2='{}'. Adding to KNN queue. Title='{}', Desc='{}', DefaultType='{}'",
-                                        r.getTourDetailScheduleId(), top.top1Type, top.top2Type, r.getTitle(), r.getDescription(), r.getDefaultType());
-                                knnTargets.add(r);
-                                knnNeeded++;
-                            } else { // 동일 계열이면 채택
-                                Long typeId = tstMapper.findScheduleTypeIdByName(top.top1Type);
-                                if (typeId != null) {
-                                    enqueueDbUpsert(dbUpserts, r.getTourDetailScheduleId(), typeId, top1);
-                                    ruleSuccess++;
-                                    var result = List.of(new GenerativeLabelService.Result(top.top1Type, top1));
-                                    accumulateLearningData(learningDataToSave, result, combined, vec, false); // 룰 기반은 항상 저장
-                                }
-                            }
                         }
-                    } else {
-                        // top1 자체가 낮으면 생성형으로 보완
-                        log.warn("[RULE-FAIL] Low score for tdsId={}. Top1='{}'({}), Score < {}. Adding to KNN queue. Title='{}', Desc='{}', DefaultType='{}'",
-                                r.getTourDetailScheduleId(), top.top1Type, String.format("%.2f", top.top1Score), MIN_SCORE, r.getTitle(), r.getDescription(), r.getDefaultType());
-                        knnTargets.add(r);
-                        knnNeeded++;
                     }
+                } else {
+                    // top1 자체가 낮으면 생성형으로 보완
+                    log.warn("[RULE-FAIL] Low score for tdsId={}. Top1='{}'({}), Score < {}. Adding to KNN queue. Title='{}', Desc='{}', DefaultType='{}'",
+                            r.getTourDetailScheduleId(), top.top1Type, String.format("%.2f", top.top1Score), MIN_SCORE, r.getTitle(), r.getDescription(), r.getDefaultType());
+                    knnTargets.add(it);
+                    st.knnNeeded++;
                 }
-                lastProcessedId = r.getTourDetailScheduleId();
-
             }
+        }
 
-            esService.bulk(bulk.build());
-            esService.saveLabel(learningDataToSave); // 룰 기반 학습 데이터 일괄 저장
-            learningDataToSave.clear();
-
-            // 4) KNN Top-3 저장 -> 미달 항목은 LLM 보완 대상으로 이동
-            if(!knnTargets.isEmpty()){
-                Map<Long, List<GenerativeLabelService.Result>> knnMap = genSvc.classifyBatchByKNN(knnTargets);
-
-                // KNN 성공 건에 대한 임베딩도 일괄 생성
-                List<TourDetailScheduleRowDto> knnSuccessRows = new ArrayList<>();
-                Map<Long, List<GenerativeLabelService.Result>> knnSuccessResults = new HashMap<>();
+        // KNN Top-3 저장 -> 미달 항목은 LLM 보완 대상으로 이동
+        // 학습 데이터 임베딩은 embed 단계 결과를 그대로 사용 (같은 정규화 텍스트)
+        if (!knnTargets.isEmpty()) {
+            Map<Long, List<GenerativeLabelService.Result>> knnMap =
+                    genSvc.classifyBatchByKNN(knnTargets.stream().map(Item::row).toList(),
+                            knnTargets.stream().map(Item::vec).toList());
 
-                for (var r : knnTargets) {
-                    Long tdsId = r.getTourDetailScheduleId();
-                    var list = knnMap.getOrDefault(tdsId, List.of());
+            for (Item it : knnTargets) {
+                Long tdsId = it.row().getTourDetailScheduleId();
+                var list = knnMap.getOrDefault(tdsId, List.of());
 
-                    if (list.isEmpty() || list.get(0).score() < MIN_SCORE) {
-                        llmPending.add(r);
-                        llmNeeded++;
-                    } else {
-                        knnSuccess++;
-                        knnSuccessRows.add(r);
-                        knnSuccessResults.put(tdsId, list);
-                        for (var res : list) {
-                            Long typeId = tstMapper.findScheduleTypeIdByName(res.typeName());
-                            if (typeId != null) {
-                                enqueueDbUpsert(dbUpserts, tdsId, typeId, res.score());
-                            }
+                if (list.isEmpty() || list.get(0).score() < MIN_SCORE) {
+                    llmTargets.add(it);
+                    st.llmNeeded++;
+                } else {
+                    st.knnSuccess++;
+                    for (var res : list) {
+                        Long typeId = scheduleTypes.idOf(res.typeName());
+                        if (typeId != null) {
+                            enqueueDbUpsert(dbUpserts, tdsId, typeId, res.score());
                         }
                     }
+                    accumulateLearningData(learningDataToSave, list, it.text(), it.vec(), true);
                 }
+            }
+        }
 
-                if (!knnSuccessRows.isEmpty()) {
-                    List<String> knnTextsToEmbed = knnSuccessRows.stream()
-                            .map(r -> (r.getTitle() == null ? "" : r.getTitle()) + " " + (r.getDescription() == null ? "" : r.getDescription()))
-                            .map(s -> s.replaceAll("\\s+", " ").trim())
-                            .toList();
-                    List<float[]> knnEmbeddings = embeddingService.embedAll(knnTextsToEmbed);
-
-                    for (int i = 0; i < knnSuccessRows.size(); i++) {
-                        var r = knnSuccessRows.get(i);
-                        var list = knnSuccessResults.get(r.getTourDetailScheduleId());
-                        accumulateLearningData(learningDataToSave, list, knnTextsToEmbed.get(i), knnEmbeddings.get(i), true);
-                    }
-
-                    if (!learningDataToSave.isEmpty()) { // [ADDED] 132685 이상만 저장
-                        esService.saveLabel(learningDataToSave);
+        // LLM 대상은 결과 캐시 먼저 확인 → 미스만 pending
+        if (!llmTargets.isEmpty()) {
+            Map<String, List<GenerativeLabelService.Result>> cached = llmLabelCache.getAll(
+                    llmTargets.stream().map(TourTypePipelineService::llmCacheKey).toList());
+            for (Item it : llmTargets) {
+                var list = cached.get(llmCacheKey(it));
+                if (list == null) {
+                    st.llmPending.add(it);
+                    continue;
+                }
+                st.llmCacheHit++;
+                st.llmSuccess++;
+                // 같은 문구는 이미 학습 데이터로 저장됐거나 임계값 미달이었으므로 학습 데이터는 추가하지 않음
+                for (var res : list) {
+                    Long typeId = scheduleTypes.idOf(res.typeName());
+                    if (typeId != null) {
+                        enqueueDbUpsert(dbUpserts, it.row().getTourDetailScheduleId(), typeId, res.score());
                     }
-                    learningDataToSave.clear();
                 }
-
-                knnTargets.clear();
             }
+        }
 
-            // 5) pending 임계치 도달 시 즉시 생성형 분류 -> DB/ES 반영
-            if (llmPending.size() >= PENDING_FLUSH) {
-                int added = flushPendingWithGen(llmPending, learningDataToSave, dbUpserts);
-                if (!learningDataToSave.isEmpty()) {
-                    esService.saveLabel(learningDataToSave);
-                    learningDataToSave.clear();
-                }
-                llmSuccess += added;
-                llmPending.clear();
-            }
+        // pending 임계치 도달 시 즉시 생성형 분류
+        List<Item> finished = new ArrayList<>(b.items());
+        if (st.llmPending.size() >= PENDING_FLUSH) {
+            st.llmSuccess += classifyPendingWithGen(st.llmPending, learningDataToSave, dbUpserts);
+            finished.addAll(st.llmPending);
+            st.llmPending.clear();
+        }
 
-            if (!dbUpserts.isEmpty()) {
-                tourLabelWriter.saveLabelsChunk(dbUpserts);
-                dbUpserts.clear();
-            }
+        return new LabelWork(b.seq(), b.rows().size(), b.lastId(), st.minPendingId(),
+                learningDataToSave, dbUpserts, labeledHashes(finished, dbUpserts));
+    }
 
-            offset += rows.size();
+    // 입력 종료 후 남은 LLM pending 처리
+    private LabelWork flushPending(RunState st) throws Exception {
+        if (st.llmPending.isEmpty()) return null;
+        List<LearningData> learningDataToSave = new ArrayList<>();
+        List<LabelRow> dbUpserts = new ArrayList<>();
+        st.llmSuccess += classifyPendingWithGen(st.llmPending, learningDataToSave, dbUpserts);
+        List<TdsContentHashDto> hashes = labeledHashes(st.llmPending, dbUpserts);
+        st.llmPending.clear();
+        return new LabelWork(-1, 0, -1, PipelineWatermark.NO_PENDING, learningDataToSave, dbUpserts, hashes);
+    }
 
-            log.info("[BATCH] rows={}, lastId={}", rows.size(), lastProcessedId);
-            log.info("[RULE] tried={} success={} rate={}%", ruleTried, ruleSuccess, ruleTried == 0 ? 0.0 : Math.round((ruleSuccess * 10000.0 / ruleTried)) / 100.0);
-            log.info("[KNN ] needed={} success={} rate={}%", knnNeeded, knnSuccess, knnNeeded == 0 ? 0.0 : Math.round((knnSuccess * 10000.0 / knnNeeded)) / 100.0);
-            log.info("[LLM ] needed={} success={} (flushed on threshold)", llmNeeded, llmSuccess);
+    private void write(LabelWork w, RunState st) throws Exception {
+        if (!w.learningData().isEmpty()) {
+            esService.saveLabel(w.learningData());
+        }
+        // REQUIRES_NEW 커밋 단위
+        List<LabelRow> upserts = w.dbUpserts();
+        for (int i = 0; i < upserts.size(); i += DB_UPSERT_FLUSH) {
+            tourLabelWriter.saveLabelsChunk(upserts.subList(i, Math.min(i + DB_UPSERT_FLUSH, upserts.size())));
+        }
+        // 이 배치까지의 ES 문서(일정/라벨) 결과 확정 후 해시/체크포인트 전진 (dead-letter 된 일정은 제외)
+        esBulkWriter.awaitThrough(esBulkWriter.mark());
+        st.collectEsFailures();
+
+        // 라벨 커밋 이후 해시 기록 (사이에서 중단되거나 ES 색인이 실패한 행은 다음 delta 에서 다시 처리될 뿐)
+        List<TdsContentHashDto> hashes = st.esFailed.isEmpty() ? w.hashes()
+                : w.hashes().stream().filter(h -> !st.esFailed.contains(h.getTourDetailScheduleId())).toList();
+        for (int i = 0; i < hashes.size(); i += DB_UPSERT_FLUSH) {
+            tdsMapper.upsertContentHashes(hashes.subList(i, Math.min(i + DB_UPSERT_FLUSH, hashes.size())));
         }
 
-        if (!llmPending.isEmpty()) {
-            List<LearningData> leftoverLearningData = new ArrayList<>();
-            int added = flushPendingWithGen(llmPending, leftoverLearningData, dbUpserts);
-            if (!leftoverLearningData.isEmpty()) {
-                esService.saveLabel(leftoverLearningData);
-            }
+        if (w.rows() == 0) return; // LLM 잔여분
+        log.info("[BATCH] rows={}, lastId={}", w.rows(), w.lastId());
+        log.info("[RULE] tried={} success={} rate={}%", st.ruleTried, st.ruleSuccess, st.ruleTried == 0 ? 0.0 : Math.round((st.ruleSuccess * 10000.0 / st.ruleTried)) / 100.0);
+        log.info("[KNN ] needed={} success={} rate={}%", st.knnNeeded, st.knnSuccess, st.knnNeeded == 0 ? 0.0 : Math.round((st.knnSuccess * 10000.0 / st.knnNeeded)) / 100.0);
+        log.info("[LLM ] needed={} success={} cacheHit={} (flushed on threshold)", st.llmNeeded, st.llmSuccess, st.llmCacheHit);
+    }
 
-            llmSuccess += added;
-            llmPending.clear();
+    // 일정 내용 해시: 분류 입력(제목/설명/기본 유형) + 모델/분류 버전
+    private static String contentHash(TourDetailScheduleRowDto r) {
+        return HashUtil.hash(String.join("\u001F",
+                Objects.toString(r.getTitle(), ""),
+                Objects.toString(r.getDescription(), ""),
+                Objects.toString(r.getDefaultType(), ""),
+                CONTENT_VERSION));
+    }
+
+    // 저장된 해시와 다른(신규/변경) 행만 남김
+    private List<TourDetailScheduleRowDto> changedOnly(List<TourDetailScheduleRowDto> rows, RunState st) {
+        Map<Long, String> stored = new HashMap<>(rows.size() * 2);
+        List<Long> ids = rows.stream().map(TourDetailScheduleRowDto::getTourDetailScheduleId).toList();
+        for (int i = 0; i < ids.size(); i += IN_CHUNK) {
+            for (TdsContentHashDto h : tdsMapper.selectContentHashes(ids.subList(i, Math.min(i + IN_CHUNK, ids.size())))) {
+                stored.put(h.getTourDetailScheduleId(), h.getContentHash());
+            }
+        }
+        List<TourDetailScheduleRowDto> changed = new ArrayList<>();
+        for (TourDetailScheduleRowDto r : rows) {
+            if (!contentHash(r).equals(stored.get(r.getTourDetailScheduleId()))) changed.add(r);
         }
+        st.deltaSkipped += rows.size() - changed.size();
+        return changed;
+    }
 
-        if (!dbUpserts.isEmpty()) {
-            tourLabelWriter.saveLabelsChunk(dbUpserts);
-            dbUpserts.clear();
+    // 라벨이 하나라도 저장된 행만 해시 기록 (분류 실패 행은 다음 delta 에서 재시도)
+    private List<TdsContentHashDto> labeledHashes(List<Item> items, List<LabelRow> dbUpserts) {
+        Set<Long> labeled = new HashSet<>();
+        for (LabelRow l : dbUpserts) labeled.add(l.tdsId());
+        List<TdsContentHashDto> out = new ArrayList<>();
+        for (Item it : items) {
+            if (labeled.contains(it.row().getTourDetailScheduleId())) {
+                out.add(new TdsContentHashDto(it.row().getTourDetailScheduleId(), it.hash()));
+            }
         }
+        return out;
+    }
 
-        log.info("[SUMMARY] RULE: tried={} success={} rate={}%", ruleTried, ruleSuccess, ruleTried == 0 ? 0.0 : Math.round((ruleSuccess * 10000.0 / ruleTried)) / 100.0);
-        log.info("[SUMMARY] KNN : needed={} success={} rate={}%", knnNeeded, knnSuccess, knnNeeded == 0 ? 0.0 : Math.round((knnSuccess * 10000.0 / knnNeeded)) / 100.0);
-        log.info("[SUMMARY] LLM : needed={} success={}", llmNeeded, llmSuccess);
-        log.info("pipeline completed");
+    private void saveCheckpoint(String name, PipelineWatermark wm, RunState st, long[] base, Date startedAt, String status) {
+        checkpointMapper.upsertCheckpoint(PipelineCheckpointDto.builder()
+                .pipelineName(name)
+                .lastId(wm.safeId())
+                .processedRows(wm.processedRows())
+                .ruleSuccess(base[0] + st.ruleSuccess)
+                .knnSuccess(base[1] + st.knnSuccess)
+                .llmSuccess(base[2] + st.llmSuccess)
+                .status(status)
+                .startedAt(startedAt)
+                .build());
     }
 
     private Map<String, Object> toEsDoc(TourDetailScheduleRowDto r, String title, String desc, String combined, float[] vec) {
@@ -278,43 +527,102 @@ public class TourTypePipelineService {
         return doc;
     }
 
-    // KNN 분류 -> 부족 시 LLM 분류 -> 라벨 임베딩 → DB 반영
-    private int flushPendingWithGen(List<TourDetailScheduleRowDto> pending,
-                                    List<LearningData> learningDataToSave,
-                                    List<Map<String, Object>> dbUpserts)
+    /**
+     * 배치에 포함된 투어들의 지역/패키지 속성을 ES 필드 형태로 변환
+     * - country_names / city_names / country_groups : 중복 제거 배열
+     * - packages : [{departure_date, return_date, price}] (epoch millis)
+     * - min_price : 패키지 최저가 (패키지 없으면 생략)
+     */
+    private Map<Long, Map<String, Object>> loadTourAttributes(List<TourDetailScheduleRowDto> rows) {
+        List<Long> tourIds = rows.stream().map(TourDetailScheduleRowDto::getTourId)
+                .filter(Objects::nonNull).distinct().toList();
+
+        Map<Long, Set<String>> countries = new HashMap<>(), cities = new HashMap<>(), groups = new HashMap<>();
+        Map<Long, List<Map<String, Object>>> packages = new HashMap<>();
+        Map<Long, Long> minPrice = new HashMap<>();
+
+        // Oracle IN 목록 1000개 제한
+        for (int from = 0; from < tourIds.size(); from += 1000) {
+            List<Long> chunk = tourIds.subList(from, Math.min(from + 1000, tourIds.size()));
+            for (TourEsAttributeRowDto a : tdsMapper.selectTourAttributesForIndexing(chunk)) {
+                Long id = a.getTourId();
+                if ("CITY".equals(a.getKind())) {
+                    if (a.getCountryName() != null) countries.computeIfAbsent(id, k -> new LinkedHashSet<>()).add(a.getCountryName());
+                    if (a.getCityName() != null) cities.computeIfAbsent(id, k -> new LinkedHashSet<>()).add(a.getCityName());
+                    if (a.getCountryGroupName() != null) groups.computeIfAbsent(id, k -> new LinkedHashSet<>()).add(a.getCountryGroupName());
+                } else {
+                    Map<String, Object> pkg = new HashMap<>();
+                    if (a.getDepartureDate() != null) pkg.put("departure_date", a.getDepartureDate().getTime());
+                    if (a.getReturnDate() != null) pkg.put("return_date", a.getReturnDate().getTime());
+                    if (a.getPrice() != null) {
+                        pkg.put("price", a.getPrice());
+                        minPrice.merge(id, a.getPrice(), Math::min);
+                    }
+                    packages.computeIfAbsent(id, k -> new ArrayList<>()).add(pkg);
+                }
+            }
+        }
+
+        Map<Long, Map<String, Object>> out = new HashMap<>();
+        for (Long id : tourIds) {
+            Map<String, Object> f = new HashMap<>();
+            f.put("country_names", new ArrayList<>(countries.getOrDefault(id, Set.of())));
+            f.put("city_names", new ArrayList<>(cities.getOrDefault(id, Set.of())));
+            f.put("country_groups", new ArrayList<>(groups.getOrDefault(id, Set.of())));
+            f.put("packages", packages.getOrDefault(id, List.of()));
+            if (minPrice.containsKey(id)) f.put("min_price", minPrice.get(id));
+            out.put(id, f);
+        }
+        return out;
+    }
+
+    // LLM 분류 → 학습 데이터/DB 반영 목록 적재 (임베딩은 embed 단계 결과 재사용)
+    // 같은 캐시 키(문구+기본 유형)는 대표 1건만 호출하고 결과를 공유, 결과는 LLM_LABEL_CACHE 에 기록
+    private int classifyPendingWithGen(List<Item> pending,
+                                       List<LearningData> learningDataToSave,
+                                       List<LabelRow> dbUpserts)
             throws Exception {
         if (pending == null || pending.isEmpty()) return 0;
 
+        Map<String, List<Item>> byKey = new LinkedHashMap<>();
+        for (Item it : pending) byKey.computeIfAbsent(llmCacheKey(it), k -> new ArrayList<>()).add(it);
+
         // LLM 보조 분류 (배치 호출)
-        Map<Long, List<GenerativeLabelService.Result>> results = genSvc.classifyBatchByLLM(pending);
+        List<TourDetailScheduleRowDto> representatives = byKey.values().stream().map(g -> g.getFirst().row()).toList();
+        Map<Long, List<GenerativeLabelService.Result>> results = genSvc.classifyBatchByLLM(representatives);
         int successCount = 0;
 
-        // LLM 분류 건에 대한 임베딩 일괄 생성
-        List<String> llmTextsToEmbed = pending.stream()
-                .map(r -> (r.getTitle() == null ? "" : r.getTitle()) + " " + (r.getDescription() == null ? "" : r.getDescription()))
-                .map(s -> s.replaceAll("\\s+", " ").trim())
-                .toList();
-        List<float[]> llmEmbeddings = embeddingService.embedAll(llmTextsToEmbed);
-
-        for (int i = 0; i < pending.size(); i++) {
-            var r = pending.get(i);
-            Long tdsId = r.getTourDetailScheduleId();
-            var list = results.getOrDefault(tdsId, List.of());
+        Map<String, List<GenerativeLabelService.Result>> toCache = new HashMap<>();
+        for (var e : byKey.entrySet()) {
+            Item rep = e.getValue().getFirst();
+            var list = results.getOrDefault(rep.row().getTourDetailScheduleId(), List.of());
             if (list.isEmpty()) continue;
+            toCache.put(e.getKey(), list);
 
-            successCount++;
-            accumulateLearningData(learningDataToSave, list, llmTextsToEmbed.get(i), llmEmbeddings.get(i), true);
+            for (Item it : e.getValue()) {
+                Long tdsId = it.row().getTourDetailScheduleId();
+                successCount++;
+                if (it == rep) accumulateLearningData(learningDataToSave, list, it.text(), it.vec(), true);
 
-            for (var res : list) {
-                Long typeId = tstMapper.findScheduleTypeIdByName(res.typeName());
-                if (typeId != null) {
-                    enqueueDbUpsert(dbUpserts, tdsId, typeId, res.score());
+                for (var res : list) {
+                    Long typeId = scheduleTypes.idOf(res.typeName());
+                    if (typeId != null) {
+                        enqueueDbUpsert(dbUpserts, tdsId, typeId, res.score());
+                    }
                 }
             }
         }
+        llmLabelCache.putAll(toCache);
+        if (pending.size() > byKey.size()) {
+            log.info("[LLM ] pending={} distinct={} (duplicates share one call)", pending.size(), byKey.size());
+        }
         return successCount;
     }
 
+    private static String llmCacheKey(Item it) {
+        return LlmLabelCache.key(it.text(), it.row().getDefaultType());
+    }
+
     private void accumulateLearningData(List<LearningData> learningDataList, List<GenerativeLabelService.Result> results, String text, float[] embedding, boolean applyThreshold) {
         if (results == null || results.isEmpty()) {
             return;
@@ -344,16 +652,8 @@ public class TourTypePipelineService {
         return (MOVE.contains(a) && VIEW.contains(b)) || (MOVE.contains(b) && VIEW.contains(a));
     }
 
-    //DB upsert 버퍼에 적재 + 임계치 도달 시 REQUIRES_NEW로 커밋
-    private void enqueueDbUpsert(List<Map<String, Object>> buf, Long tdsId, Long typeId, double score) {
-        Map<String, Object> m = new HashMap<>();
-        m.put("tdsId", tdsId);
-        m.put("typeId", typeId);
-        m.put("score", score);
-        buf.add(m);
-        if (buf.size() >= DB_UPSERT_FLUSH) {
-            tourLabelWriter.saveLabelsChunk(buf);
-            buf.clear();
-        }
+    // DB upsert 목록에 적재 (write 단계에서 DB_UPSERT_FLUSH 단위 REQUIRES_NEW 커밋)
+    private void enqueueDbUpsert(List<LabelRow> buf, Long tdsId, Long typeId, double score) {
+        buf.add(new LabelRow(tdsId, typeId, score));
     }
 }
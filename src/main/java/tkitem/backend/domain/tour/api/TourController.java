@@ -1,21 +1,26 @@
 package tkitem.backend.domain.tour.api;
 
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import tkitem.backend.domain.member.vo.Member;
+import tkitem.backend.domain.tour.dto.TourImportJobDto;
 import tkitem.backend.domain.tour.dto.request.TourRecommendationRequestDto;
 import tkitem.backend.domain.tour.dto.response.TourCommonRecommendDto;
 import tkitem.backend.domain.tour.dto.response.TourPackageDetailDto;
 import tkitem.backend.domain.tour.dto.response.TourPackageDto;
 import tkitem.backend.domain.tour.dto.response.TourRecommendationResponseDto;
-import tkitem.backend.domain.tour.service.DataLoadService;
+import tkitem.backend.domain.tour.service.TourImportJobService;
 import tkitem.backend.domain.tour.service.TourRecommendFacadeService;
 import tkitem.backend.domain.tour.service.TourService;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -24,21 +29,53 @@ import java.util.Map;
 @RequiredArgsConstructor
 @Slf4j
 public class TourController {
-    private final DataLoadService dataLoadService;
+    private final TourImportJobService tourImportJobService;
     private final TourRecommendFacadeService tourFacadeService;
     private final TourService tourService;
 
     @PostMapping("/init")
-    public ResponseEntity<String> initTour(){
-        try{
-            // 외부 CSV 파일의 절대 경로를 지정합니다.
-            String csvFilePath = "C:\\Users\\pch\\git\\TeamProject\\3st_team\\data\\trip_data.json";
-            dataLoadService.loadDataFromCsv(csvFilePath);
-            return ResponseEntity.ok("투어 데이터 초기화에 성공했습니다.");
-        } catch (Exception e){
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().body("투어 데이터 초기화 중 오류가 발생했습니다: " + e.getMessage());
-        }
+    @Operation(
+            summary = "투어 데이터 초기 적재",
+            description = "tour.import.base-dir 의 기본 파일(default-file)로 적재 작업을 제출합니다. 진행 상황은 /import/jobs/{jobId} 로 조회합니다."
+    )
+    public ResponseEntity<TourImportJobDto> initTour(){
+        return ResponseEntity.accepted().body(tourImportJobService.submitPath(null));
+    }
+
+    @PostMapping("/import/jobs")
+    @Operation(
+            summary = "투어 적재 작업 제출 (서버 경로)",
+            description = "tour.import.base-dir 기준 상대 경로의 JSON 파일을 백그라운드로 적재합니다. 같은 파일이 적재 중이면 409."
+    )
+    public ResponseEntity<TourImportJobDto> submitImport(@RequestParam(name = "path", required = false) String path) {
+        return ResponseEntity.accepted().body(tourImportJobService.submitPath(path));
+    }
+
+    @PostMapping(value = "/import/jobs/upload", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(
+            summary = "투어 적재 작업 제출 (파일 업로드)",
+            description = "요청 본문의 JSON 파일을 저장한 뒤 백그라운드로 적재합니다. tour.import.max-upload-bytes 초과는 400, 같은 내용의 파일이 적재 중이면 409."
+    )
+    public ResponseEntity<TourImportJobDto> uploadImport(HttpServletRequest request) throws IOException {
+        return ResponseEntity.accepted().body(tourImportJobService.submitUpload(request.getInputStream(), request.getContentLengthLong()));
+    }
+
+    @GetMapping("/import/jobs/{jobId}")
+    @Operation(summary = "투어 적재 작업 조회", description = "상태, 읽은 바이트, 파싱/저장 건수, 처리 속도, 남은 시간(초), 끝난 작업은 적재 결과")
+    public ResponseEntity<TourImportJobDto> getImport(@PathVariable String jobId) {
+        return ResponseEntity.ok(tourImportJobService.get(jobId));
+    }
+
+    @GetMapping(value = "/import/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "투어 적재 진행 상황 스트림", description = "SSE. progress 이벤트를 주기적으로 보내고 끝나면 done 이벤트 후 종료")
+    public SseEmitter streamImport(@PathVariable String jobId) {
+        return tourImportJobService.subscribe(jobId);
+    }
+
+    @PostMapping("/import/jobs/{jobId}/cancel")
+    @Operation(summary = "투어 적재 작업 취소", description = "대기 중이면 시작하지 않고, 실행 중이면 파싱을 멈춥니다 (이미 넘긴 파티션은 커밋)")
+    public ResponseEntity<TourImportJobDto> cancelImport(@PathVariable String jobId) {
+        return ResponseEntity.ok(tourImportJobService.cancel(jobId));
     }
 
     @PostMapping("/recommend")
@@ -15,8 +15,8 @@ public class TourCandidateRowDto {
     private Long tourId;
     private Double sDbRaw; // tour_style 가중치 점수
     private Integer tdsCnt;
-//    private Long minPrice;
-//    private Date latestDeparture;
+    private Long minPrice;
+    private Date latestDeparture;
 
     private Long repTourPackageId;
     private Long repPrice;
@@ -0,0 +1,31 @@
+package tkitem.backend.domain.tour.dto;
+
+import tkitem.backend.domain.tour.dto.request.TourRecommendationRequestDto;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * tour_detail_schedule_v1 의 비정규화 속성(country_names/city_names/country_groups/packages)으로
+ * ES 에서 직접 거르는 조건. selectTourIdsByFilters 와 같은 의미
+ * @param locations 지역 OR 조건
+ * @param depStart 출발일 시작
+ * @param retEnd 출발일 종료
+ * @param priceMin 최소 가격
+ * @param priceMax 최대 가격
+ * @param excludeTourIds 이미 추천된 투어 (must_not)
+ */
+public record TourEsFilter(
+        List<LocationInfo> locations,
+        Date depStart,
+        Date retEnd,
+        Long priceMin,
+        Long priceMax,
+        Collection<Long> excludeTourIds
+) {
+    public static TourEsFilter of(TourRecommendationRequestDto req, Collection<Long> excludeTourIds) {
+        return new TourEsFilter(req.getLocations(), req.getDepartureDate(), req.getReturnDate(),
+                req.getPriceMin(), req.getPriceMax(), excludeTourIds);
+    }
+}
@@ -0,0 +1,43 @@
+package tkitem.backend.domain.tour.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * 투어 적재 작업 (TOUR_IMPORT_JOB 행 / 조회·SSE 응답)
+ * - datasetKey : PATH 는 SHA-256(정규화 경로), UPLOAD 는 SHA-256(파일 내용). 같은 키는 동시에 하나만 대기/실행
+ * - status     : QUEUED / RUNNING / SUCCEEDED / CANCELLED / FAILED
+ * - 진행 수치는 실행 중에는 메모리 값, 끝났거나 다른 인스턴스 작업이면 마지막으로 기록된 값
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class TourImportJobDto {
+    private String jobId;
+    private String datasetKey;
+    private String sourceType;   // PATH / UPLOAD
+    private String sourcePath;
+    private String status;
+    private Long bytesTotal;
+    private Long bytesRead;
+    private Long tripsParsed;
+    private Long tripsSkipped;
+    private Long tripsWritten;
+    private Long tripsFailed;
+    private Long partitionsDone;
+    private Double ratePerSec;   // 처리 trip/초
+    private Long etaSeconds;     // 추정 불가면 null
+    private String errorMessage;
+    @JsonRawValue
+    private String reportJson;   // 끝난 작업의 TourImportReportDto
+    private Date createdAt;
+    private Date startedAt;
+    private Date finishedAt;
+    private Date updatedAt;
+}
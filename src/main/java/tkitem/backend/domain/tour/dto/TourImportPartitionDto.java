@@ -0,0 +1,35 @@
+package tkitem.backend.domain.tour.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 투어 적재 파티션 1개의 결과 (TOUR_IMPORT_MANIFEST 행)
+ * - datasetKey   : 적재 작업의 데이터셋 키 (TOUR_IMPORT_JOB.dataset_key), 재개는 같은 데이터셋 안에서만
+ * - partitionKey : SHA-256(파티션에 속한 trip 원본 JSON), 같은 내용이면 재실행해도 같은 키
+ * - status       : COMMITTED (전부 저장) / PARTIAL (일부 실패·보류) / FAILED / RESUMED (이전 실행에서 COMMITTED, 이번엔 건너뜀)
+ *                  / CANCELLED (시작 전에 적재가 취소됨, 매니페스트에 기록하지 않음)
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TourImportPartitionDto {
+    private String datasetKey;
+    private String partitionKey;
+    private String sourcePath;
+    private Integer partitionNo;
+    private Integer tripCount;
+    private String status;
+    private Integer tours;
+    private Integer schedules;
+    private Integer packages;
+    private Integer updated;   // 지문이 달라 갱신된 기존 투어/일정/패키지 행
+    private Integer deleted;   // 원본에서 빠져 삭제된 일정 행
+    private Integer failed;
+    private Integer quarantined;
+    private Long elapsedMs;
+    private String errorMessage;
+}
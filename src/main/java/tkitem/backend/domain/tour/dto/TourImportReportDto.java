@@ -0,0 +1,36 @@
+package tkitem.backend.domain.tour.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 투어 적재 1회 결과 (파티션별 결과 포함)
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TourImportReportDto {
+    private String sourcePath;
+    private int trips;
+    private int skipped;
+    private int failed;
+    private int quarantined;
+    private int tours;
+    private int schedules;
+    private int packages;
+    private int updated;
+    private int deleted;
+    private int committedPartitions;
+    private int partialPartitions;
+    private int failedPartitions;
+    private int resumedPartitions;
+    private int cancelledPartitions;
+    private boolean cancelled; // 중간에 취소됨 (취소 전에 넘긴 파티션은 커밋됨)
+    private long elapsedMs;
+    private List<TourImportPartitionDto> partitions;
+}
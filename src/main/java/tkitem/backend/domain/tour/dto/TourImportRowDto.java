@@ -0,0 +1,27 @@
+package tkitem.backend.domain.tour.dto;
+
+import tkitem.backend.domain.tour.vo.Tour;
+import tkitem.backend.domain.tour.vo.TourDetailSchedule;
+import tkitem.backend.domain.tour.vo.TourPackage;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 투어 적재 청크의 tripCode 1건 (각 행의 fingerprint 는 채워서 넘김)
+ * - 신규 (tourId == null): tour 와 일정/도시/패키지 전체
+ * - 기존, 투어 지문 변경: tourId + tour 와 일정/도시/패키지 전체 (저장 시 현재 행과 비교)
+ * - 기존, 투어 지문 동일 (tour == null): 패키지만 비교
+ */
+public record TourImportRowDto(
+        String tripCode,
+        Long tourId,
+        Tour tour,
+        List<TourDetailSchedule> schedules,
+        Set<Long> cityIds,
+        List<TourPackage> packages
+) {
+    public boolean isNew() {
+        return tourId == null;
+    }
+}
@@ -0,0 +1,22 @@
+package tkitem.backend.domain.tour.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 투어별 방문 도시 행 (selectLocationsByTourIds)
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TourLocationRowDto {
+    private Long tourId;
+    private String countryGroup;
+    private String country;
+    private String city;
+
+    public LocationInfo toLocationInfo() {
+        return new LocationInfo(countryGroup, country, city);
+    }
+}
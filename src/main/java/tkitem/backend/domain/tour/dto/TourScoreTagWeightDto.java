@@ -0,0 +1,17 @@
+package tkitem.backend.domain.tour.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * SCHEDULE_TYPE_TAG 가중치 행
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TourScoreTagWeightDto {
+    private Long tagId;
+    private Long scheduleTypeId;
+    private Double weight;
+}
@@ -0,0 +1,19 @@
+package tkitem.backend.domain.tour.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 점수 엔진 적재용 (투어, 일자, 유닛, 일정유형) 점수 행. 숙소 REST 는 unitId = -1
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TourScoreUnitRowDto {
+    private Long tourId;
+    private Long scheduleDate;
+    private Long unitId;
+    private Long scheduleTypeId;
+    private Double baseScore;
+}
@@ -0,0 +1,16 @@
+package tkitem.backend.domain.tour.event;
+
+import java.util.Set;
+
+/**
+ * 투어 적재로 실제 바뀐 대상 (적재 완료 후 한 번 발행)
+ * - tourIds            : 투어/일정/도시/패키지 중 하나라도 추가·변경·삭제된 투어
+ * - scheduleIds        : 추가되었거나 내용이 바뀐 일정 (재색인/재분류 대상)
+ * - deletedScheduleIds : 삭제된 일정 (라벨/내용 해시는 적재 트랜잭션에서 함께 삭제, ES 문서는 리스너에서 삭제)
+ */
+public record TourCatalogChangedEvent(Set<Long> tourIds, Set<Long> scheduleIds, Set<Long> deletedScheduleIds) {
+
+    public boolean isEmpty() {
+        return tourIds.isEmpty() && scheduleIds.isEmpty() && deletedScheduleIds.isEmpty();
+    }
+}
@@ -60,6 +60,11 @@ public class KeywordRuleLoader {
         return r;
     }
 
+    // 등록된 전체 키워드 (사전 계산 대상)
+    public Set<String> keywords() {
+        return Collections.unmodifiableSet(byKeyword.keySet());
+    }
+
     private static String optText(JsonNode n, String field) {
         return n.has(field) && !n.get(field).isNull() ? n.get(field).asText() : null;
     }
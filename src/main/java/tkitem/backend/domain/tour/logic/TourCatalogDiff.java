@@ -0,0 +1,140 @@
+package tkitem.backend.domain.tour.logic;
+
+import lombok.Getter;
+import tkitem.backend.domain.tour.vo.Tour;
+import tkitem.backend.domain.tour.vo.TourCity;
+import tkitem.backend.domain.tour.vo.TourDetailSchedule;
+import tkitem.backend.domain.tour.vo.TourPackage;
+
+import java.util.*;
+
+/**
+ * 투어 적재 비교 결과 (문장별 목록, DB 접근 없음 → TourCatalogWriter 가 반영)
+ * - 일정: (일자, 순서, 같은 키 안의 순번) 으로 짝지음, 원본에서 빠진 일정은 삭제 + 라벨/내용 해시 삭제 대상
+ * - 패키지: package_date_code 로 짝지음, 원본에서 빠진 패키지는 남김 (주문/장바구니가 참조할 수 있음)
+ * - 지문이 비어 있는 기존 행은 컬럼 값으로 지문을 계산해 비교하고, 같으면 지문만 채움 (수정 건수에는 미포함)
+ * - 원본 행에는 짝지은 기존 행의 id / tour_id 를 채워 둠
+ */
+@Getter
+public final class TourCatalogDiff {
+    private final List<Tour> tourUpdates = new ArrayList<>();
+    private final List<TourDetailSchedule> scheduleInserts = new ArrayList<>();
+    private final List<TourDetailSchedule> scheduleUpdates = new ArrayList<>(); // 지문만 채우는 행 포함
+    private final List<Long> scheduleDeletes = new ArrayList<>();
+    private final List<Long> labelClears = new ArrayList<>(); // 삭제 + 내용 변경 일정
+    private final List<TourCity> cityInserts = new ArrayList<>();
+    private final List<TourCity> cityDeletes = new ArrayList<>();
+    private final List<TourPackage> packageInserts = new ArrayList<>();
+    private final List<TourPackage> packageUpdates = new ArrayList<>(); // 지문만 채우는 행 포함
+    private final Set<Long> changedTours = new LinkedHashSet<>();
+    private final Set<Long> changedSchedules = new LinkedHashSet<>();
+    private final Set<Long> toursWithInserts = new LinkedHashSet<>();
+    private final Set<Long> labelClearedTours = new LinkedHashSet<>();
+    private int updated;
+
+    public void tourInserted(Long tourId) {
+        changedTours.add(tourId);
+    }
+
+    public void tourUpdated(Long tourId, Tour tour) {
+        tour.setTourId(tourId);
+        tourUpdates.add(tour);
+        changedTours.add(tourId);
+        updated++;
+    }
+
+    /**
+     * @param current 기존 일정 (tour_detail_schedule_id 오름차순, 같은 키 안의 순번 기준)
+     */
+    public void schedules(Long tourId, List<TourDetailSchedule> desired, List<TourDetailSchedule> current) {
+        Map<String, TourDetailSchedule> byKey = keyed(current);
+        Map<String, Integer> seen = new HashMap<>();
+        for (TourDetailSchedule s : desired) {
+            s.setTourId(tourId);
+            TourDetailSchedule cur = byKey.remove(key(s, seen));
+            if (cur == null) {
+                scheduleInserts.add(s);
+                toursWithInserts.add(tourId);
+                changedTours.add(tourId);
+                continue;
+            }
+            s.setTourDetailScheduleId(cur.getTourDetailScheduleId());
+            String curFp = cur.getFingerprint() != null ? cur.getFingerprint() : TourFingerprint.of(cur);
+            if (!curFp.equals(s.getFingerprint())) {
+                scheduleUpdates.add(s);
+                labelClears.add(cur.getTourDetailScheduleId());
+                labelClearedTours.add(tourId);
+                changedSchedules.add(cur.getTourDetailScheduleId());
+                changedTours.add(tourId);
+                updated++;
+            } else if (cur.getFingerprint() == null) {
+                scheduleUpdates.add(s); // 내용 같음, 지문만 채움
+            }
+        }
+        for (TourDetailSchedule gone : byKey.values()) {
+            scheduleDeletes.add(gone.getTourDetailScheduleId());
+            labelClears.add(gone.getTourDetailScheduleId());
+            labelClearedTours.add(tourId);
+            changedTours.add(tourId);
+        }
+    }
+
+    public void cities(Long tourId, Set<Long> desired, Set<Long> current) {
+        for (Long cityId : desired) {
+            if (!current.contains(cityId)) {
+                cityInserts.add(TourCity.builder().cityId(cityId).tourId(tourId).build());
+                changedTours.add(tourId);
+            }
+        }
+        for (Long cityId : current) {
+            if (!desired.contains(cityId)) {
+                cityDeletes.add(TourCity.builder().cityId(cityId).tourId(tourId).build());
+                changedTours.add(tourId);
+            }
+        }
+    }
+
+    public void packages(Long tourId, List<TourPackage> desired, List<TourPackage> current) {
+        Map<String, TourPackage> byCode = new HashMap<>();
+        for (TourPackage p : current) byCode.putIfAbsent(p.getPackageDateCode(), p); // 중복 코드는 먼저 생긴 행 기준
+
+        // 원본에 같은 코드가 여러 번 나오면 마지막 값
+        Map<String, TourPackage> wanted = new LinkedHashMap<>();
+        for (TourPackage p : desired) {
+            if (p.getPackageDateCode() != null) wanted.put(p.getPackageDateCode(), p);
+        }
+
+        for (TourPackage p : wanted.values()) {
+            p.setTourId(tourId);
+            TourPackage cur = byCode.get(p.getPackageDateCode());
+            if (cur == null) {
+                packageInserts.add(p);
+                changedTours.add(tourId);
+                continue;
+            }
+            p.setTourPackageId(cur.getTourPackageId());
+            String curFp = cur.getFingerprint() != null ? cur.getFingerprint() : TourFingerprint.of(cur);
+            if (!curFp.equals(p.getFingerprint())) {
+                packageUpdates.add(p);
+                changedTours.add(tourId);
+                updated++;
+            } else if (cur.getFingerprint() == null) {
+                packageUpdates.add(p); // 내용 같음, 지문만 채움
+            }
+        }
+    }
+
+    // DB 일정: id 순으로 같은 (일자, 순서) 안의 순번 부여
+    private static Map<String, TourDetailSchedule> keyed(List<TourDetailSchedule> schedules) {
+        Map<String, TourDetailSchedule> out = new LinkedHashMap<>();
+        Map<String, Integer> seen = new HashMap<>();
+        for (TourDetailSchedule s : schedules) out.put(key(s, seen), s);
+        return out;
+    }
+
+    private static String key(TourDetailSchedule s, Map<String, Integer> seen) {
+        String base = s.getScheduleDate() + ":" + s.getSortOrder();
+        int n = seen.merge(base, 1, Integer::sum);
+        return base + "#" + n;
+    }
+}
@@ -0,0 +1,394 @@
+package tkitem.backend.domain.tour.logic;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import tkitem.backend.domain.tour.dto.LocationInfo;
+import tkitem.backend.domain.tour.dto.TourEsFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * tour_detail_schedule_v1 검색 요청 본문을 Jackson 스트리밍으로 바로 byte[] 로 직렬화
+ * - 1536차원 벡터/수천개 tour_id 를 중간 문자열 없이 기록 (String.format, join 미사용)
+ * - 벡터는 기존과 동일하게 소수점 6자리 고정 표기
+ */
+public final class TourEsQueryWriter {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final String[] PHRASE_FIELDS = {"title", "description", "combined_text"};
+    private static final int[] PHRASE_BOOSTS = {4, 3, 2};
+    private static final long ONE_DAY_MILLIS = 86_400_000L;
+
+    private TourEsQueryWriter() {}
+
+    /**
+     * BM25 요청: combined_text AND 매치 + allow 필터 + 제외어, tour_id collapse
+     */
+    public static byte[] bm25Body(String queryText, List<String> excludes, Collection<Long> allowIds,
+                                  TourEsFilter filter, int size) {
+        return write(estimate(0, allowIds), g -> {
+            writeHeader(g, size);
+            g.writeObjectFieldStart("collapse"); g.writeStringField("field", "tour_id"); g.writeEndObject();
+            g.writeObjectFieldStart("query");
+            g.writeObjectFieldStart("bool");
+            writeAllowAndExclude(g, allowIds, filter, excludes);
+            writeAndMatch(g, queryText);
+            g.writeEndObject();
+            g.writeEndObject();
+        });
+    }
+
+    /**
+     * kNN 요청: 필터(allow/제외어)는 knn.filter 에 한 번만 기록
+     */
+    public static byte[] knnBody(float[] vec, List<String> excludes, Collection<Long> allowIds, TourEsFilter filter,
+                                 int size, int k, int numCandidates) {
+        return write(estimate(vec.length, allowIds), g -> {
+            writeHeader(g, size);
+            g.writeObjectFieldStart("collapse"); g.writeStringField("field", "tour_id"); g.writeEndObject();
+            g.writeObjectFieldStart("knn");
+            writeKnnFields(g, vec, k, numCandidates, allowIds, filter, excludes);
+            g.writeEndObject();
+        });
+    }
+
+    /**
+     * RRF 요청: retriever.rrf { standard(BM25), knn }. rrf 는 collapse 미지원이라 문서 단위로 요청
+     */
+    public static byte[] rrfBody(String queryText, float[] vec, List<String> excludes, Collection<Long> allowIds,
+                                 TourEsFilter filter, int size, int k, int numCandidates, int rankConstant, int rankWindowSize) {
+        return write(estimate(vec.length, allowIds) * 2, g -> {
+            writeHeader(g, size);
+            g.writeObjectFieldStart("retriever");
+            g.writeObjectFieldStart("rrf");
+            g.writeArrayFieldStart("retrievers");
+
+            g.writeStartObject();
+            g.writeObjectFieldStart("standard");
+            g.writeObjectFieldStart("query");
+            g.writeObjectFieldStart("bool");
+            writeAllowAndExclude(g, allowIds, filter, excludes);
+            writeAndMatch(g, queryText);
+            g.writeEndObject();
+            g.writeEndObject();
+            g.writeEndObject();
+            g.writeEndObject();
+
+            g.writeStartObject();
+            g.writeObjectFieldStart("knn");
+            writeKnnFields(g, vec, k, numCandidates, allowIds, filter, excludes);
+            g.writeEndObject();
+            g.writeEndObject();
+
+            g.writeEndArray();
+            g.writeNumberField("rank_constant", rankConstant);
+            g.writeNumberField("rank_window_size", rankWindowSize);
+            g.writeEndObject();
+            g.writeEndObject();
+        });
+    }
+
+    /**
+     * 키워드 Top1 요청: kNN 점수 + should(match_phrase 가산) / must_not(match_phrase 배제)
+     * query.bool 과 knn.filter.bool 은 같은 조건이며, 같은 writer 로 두 번 기록(문자열 복제 없음)
+     */
+    public static byte[] top1ByVectorBody(float[] vec, List<String> shouldList, List<String> excludes,
+                                          Collection<Long> allowIds, int k, int numCandidates) {
+        return write(estimate(vec.length, allowIds) * 2, g -> {
+            g.writeStartObject();
+            g.writeNumberField("size", 1);
+            g.writeBooleanField("track_total_hits", false);
+            g.writeArrayFieldStart("_source"); g.writeString("tour_id"); g.writeEndArray();
+            g.writeObjectFieldStart("collapse"); g.writeStringField("field", "tour_id"); g.writeEndObject();
+
+            g.writeObjectFieldStart("query");
+            writeKeywordBool(g, shouldList, excludes, allowIds);
+            g.writeEndObject();
+
+            g.writeObjectFieldStart("knn");
+            g.writeStringField("field", "embedding");
+            g.writeFieldName("query_vector");
+            writeVector(g, vec);
+            g.writeNumberField("k", k);
+            g.writeNumberField("num_candidates", numCandidates);
+            g.writeObjectFieldStart("filter");
+            writeKeywordBool(g, shouldList, excludes, allowIds);
+            g.writeEndObject();
+            g.writeEndObject();
+        });
+    }
+
+    /* ---------- 공통 조각 ---------- */
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        void write(JsonGenerator g) throws IOException;
+    }
+
+    // 마지막 루트 객체 닫기는 여기서 일괄 처리
+    private static byte[] write(int initialCapacity, BodyWriter body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(initialCapacity);
+        try (JsonGenerator g = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            body.write(g);
+            g.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("ES 쿼리 직렬화 실패", e);
+        }
+        return out.toByteArray();
+    }
+
+    // 벡터 1차원 ≈ 10바이트, id ≈ 8바이트 + 고정부
+    private static int estimate(int dims, Collection<Long> allowIds) {
+        int ids = allowIds == null ? 0 : allowIds.size();
+        return 512 + dims * 10 + ids * 8;
+    }
+
+    // _source 는 배열이 아닌 오브젝트 형태 (Java 클라이언트 역직렬화 호환 유지)
+    private static void writeHeader(JsonGenerator g, int size) throws IOException {
+        g.writeStartObject();
+        g.writeBooleanField("track_total_hits", false);
+        g.writeObjectFieldStart("_source");
+        g.writeArrayFieldStart("includes"); g.writeString("tour_id"); g.writeEndArray();
+        g.writeEndObject();
+        g.writeNumberField("size", size);
+    }
+
+    private static void writeKnnFields(JsonGenerator g, float[] vec, int k, int numCandidates,
+                                       Collection<Long> allowIds, TourEsFilter filter, List<String> excludes) throws IOException {
+        g.writeStringField("field", "embedding");
+        g.writeFieldName("query_vector");
+        writeVector(g, vec);
+        g.writeNumberField("k", k);
+        g.writeNumberField("num_candidates", numCandidates);
+        g.writeObjectFieldStart("filter");
+        g.writeObjectFieldStart("bool");
+        writeAllowAndExclude(g, allowIds, filter, excludes);
+        g.writeEndObject();
+        g.writeEndObject();
+    }
+
+    // "filter":[{"terms":{"tour_id":[...]}} | 비정규화 속성 조건], "must_not":[{"terms":{"tour_id":[추천됨]}}, {"match":{"combined_text":{..., "operator":"or"}}}...]
+    private static void writeAllowAndExclude(JsonGenerator g, Collection<Long> allowIds, TourEsFilter filter,
+                                             List<String> excludes) throws IOException {
+        boolean hasAllow = allowIds != null && !allowIds.isEmpty();
+        if (hasAllow || filter != null) {
+            g.writeArrayFieldStart("filter");
+            if (hasAllow) writeTourIdTerms(g, allowIds);
+            if (filter != null) writeNativeFilter(g, filter);
+            g.writeEndArray();
+        }
+
+        boolean hasExcludedIds = filter != null && filter.excludeTourIds() != null && !filter.excludeTourIds().isEmpty();
+        if (hasExcludedIds || hasText(excludes)) {
+            g.writeArrayFieldStart("must_not");
+            if (hasExcludedIds) writeTourIdTerms(g, filter.excludeTourIds());
+            if (excludes != null) {
+                for (String x : excludes) {
+                    if (x == null || x.isBlank()) continue;
+                    g.writeStartObject();
+                    g.writeObjectFieldStart("match");
+                    g.writeObjectFieldStart("combined_text");
+                    g.writeStringField("query", x.trim());
+                    g.writeStringField("operator", "or");
+                    g.writeEndObject();
+                    g.writeEndObject();
+                    g.writeEndObject();
+                }
+            }
+            g.writeEndArray();
+        }
+    }
+
+    /*
+     * selectTourIdsByFilters 와 같은 조건을 비정규화 필드로 기록
+     * - 지역: location 별 (city → +country/+group | country → +group | group) 조건을 OR
+     * - 일정/가격: 조건을 모두 만족하는 패키지가 하나 이상 존재 (nested)
+     */
+    private static void writeNativeFilter(JsonGenerator g, TourEsFilter f) throws IOException {
+        List<LocationInfo> locs = f.locations() == null ? List.of()
+                : f.locations().stream().filter(l -> l != null && (notBlank(l.getCity()) || notBlank(l.getCountry()) || notBlank(l.getCountryGroup()))).toList();
+        if (!locs.isEmpty()) {
+            g.writeStartObject();
+            g.writeObjectFieldStart("bool");
+            g.writeArrayFieldStart("should");
+            for (LocationInfo l : locs) {
+                g.writeStartObject();
+                g.writeObjectFieldStart("bool");
+                g.writeArrayFieldStart("filter");
+                if (notBlank(l.getCity())) writeTerm(g, "city_names", l.getCity());
+                if (notBlank(l.getCountry())) writeTerm(g, "country_names", l.getCountry());
+                if (notBlank(l.getCountryGroup())) writeTerm(g, "country_groups", l.getCountryGroup());
+                g.writeEndArray();
+                g.writeEndObject();
+                g.writeEndObject();
+            }
+            g.writeEndArray();
+            g.writeNumberField("minimum_should_match", 1);
+            g.writeEndObject();
+            g.writeEndObject();
+        }
+
+        // 패키지 존재 조건 (일정/가격 없으면 패키지 존재만 확인)
+        boolean hasPkgCond = f.depStart() != null || f.retEnd() != null || f.priceMin() != null || f.priceMax() != null;
+        g.writeStartObject();
+        g.writeObjectFieldStart("nested");
+        g.writeStringField("path", "packages");
+        g.writeObjectFieldStart("query");
+        if (!hasPkgCond) {
+            g.writeObjectFieldStart("match_all"); g.writeEndObject();
+        } else {
+            g.writeObjectFieldStart("bool");
+            g.writeArrayFieldStart("filter");
+            if (f.depStart() != null && f.retEnd() != null) {
+                writeRange(g, "packages.departure_date", "gte", f.depStart().getTime());
+                writeRange(g, "packages.return_date", "lt", f.retEnd().getTime() + ONE_DAY_MILLIS);
+            } else if (f.depStart() != null) {
+                writeRange(g, "packages.return_date", "gte", f.depStart().getTime());
+            } else if (f.retEnd() != null) {
+                writeRange(g, "packages.departure_date", "lte", f.retEnd().getTime());
+            }
+            if (f.priceMin() != null) writeRange(g, "packages.price", "gte", f.priceMin());
+            if (f.priceMax() != null) writeRange(g, "packages.price", "lte", f.priceMax());
+            g.writeEndArray();
+            g.writeEndObject();
+        }
+        g.writeEndObject();
+        g.writeEndObject();
+        g.writeEndObject();
+    }
+
+    private static void writeTerm(JsonGenerator g, String field, String value) throws IOException {
+        g.writeStartObject();
+        g.writeObjectFieldStart("term");
+        g.writeStringField(field, value.trim());
+        g.writeEndObject();
+        g.writeEndObject();
+    }
+
+    private static void writeRange(JsonGenerator g, String field, String op, long value) throws IOException {
+        g.writeStartObject();
+        g.writeObjectFieldStart("range");
+        g.writeObjectFieldStart(field);
+        g.writeNumberField(op, value);
+        g.writeEndObject();
+        g.writeEndObject();
+        g.writeEndObject();
+    }
+
+    private static boolean notBlank(String s) {
+        return s != null && !s.isBlank();
+    }
+
+    private static void writeTourIdTerms(JsonGenerator g, Collection<Long> ids) throws IOException {
+        g.writeStartObject();
+        g.writeObjectFieldStart("terms");
+        g.writeArrayFieldStart("tour_id");
+        for (Long id : ids) {
+            if (id != null) g.writeNumber(id.longValue());
+        }
+        g.writeEndArray();
+        g.writeEndObject();
+        g.writeEndObject();
+    }
+
+    private static void writeAndMatch(JsonGenerator g, String queryText) throws IOException {
+        g.writeObjectFieldStart("must");
+        g.writeObjectFieldStart("match");
+        g.writeObjectFieldStart("combined_text");
+        g.writeStringField("query", queryText == null ? "" : queryText.trim());
+        g.writeStringField("operator", "and");
+        g.writeEndObject();
+        g.writeEndObject();
+        g.writeEndObject();
+    }
+
+    // 키워드 룰 bool: allow 필터 + should(title/description/combined_text 가산 match_phrase, 최소 1개) + must_not(match_phrase)
+    private static void writeKeywordBool(JsonGenerator g, List<String> shouldList, List<String> excludes,
+                                         Collection<Long> allowIds) throws IOException {
+        g.writeObjectFieldStart("bool");
+        if (allowIds != null && !allowIds.isEmpty()) {
+            g.writeArrayFieldStart("filter");
+            writeTourIdTerms(g, allowIds);
+            g.writeEndArray();
+        }
+        if (hasText(shouldList)) {
+            g.writeArrayFieldStart("should");
+            for (String s : shouldList) {
+                if (s == null || s.isBlank()) continue;
+                for (int i = 0; i < PHRASE_FIELDS.length; i++) {
+                    writeMatchPhrase(g, PHRASE_FIELDS[i], s, PHRASE_BOOSTS[i]);
+                }
+            }
+            g.writeEndArray();
+            g.writeNumberField("minimum_should_match", 1);
+        }
+        if (hasText(excludes)) {
+            g.writeArrayFieldStart("must_not");
+            for (String x : excludes) {
+                if (x == null || x.isBlank()) continue;
+                for (String f : PHRASE_FIELDS) writeMatchPhrase(g, f, x, 0);
+            }
+            g.writeEndArray();
+        }
+        g.writeEndObject();
+    }
+
+    private static void writeMatchPhrase(JsonGenerator g, String field, String term, int boost) throws IOException {
+        g.writeStartObject();
+        g.writeObjectFieldStart("match_phrase");
+        g.writeObjectFieldStart(field);
+        g.writeStringField("query", term);
+        g.writeNumberField("slop", 0);
+        if (boost > 0) g.writeNumberField("boost", boost);
+        g.writeEndObject();
+        g.writeEndObject();
+        g.writeEndObject();
+    }
+
+    // float → 소수점 6자리 고정 표기를 char 버퍼에 직접 기록 (String.format / Float.toString 미사용)
+    private static void writeVector(JsonGenerator g, float[] vec) throws IOException {
+        g.writeStartArray();
+        if (vec != null) {
+            char[] buf = new char[32];
+            for (float v : vec) {
+                int len = formatFixed6(v, buf);
+                g.writeRawValue(buf, 0, len);
+            }
+        }
+        g.writeEndArray();
+    }
+
+    static int formatFixed6(float v, char[] buf) {
+        if (Float.isNaN(v) || Float.isInfinite(v)) v = 0f;
+        long scaled = Math.round(Math.abs((double) v) * 1_000_000d);
+        int pos = buf.length;
+
+        // 소수부 6자리
+        for (int i = 0; i < 6; i++) {
+            buf[--pos] = (char) ('0' + (scaled % 10));
+            scaled /= 10;
+        }
+        buf[--pos] = '.';
+        // 정수부
+        do {
+            buf[--pos] = (char) ('0' + (scaled % 10));
+            scaled /= 10;
+        } while (scaled > 0);
+        if (v < 0) buf[--pos] = '-';
+
+        int len = buf.length - pos;
+        System.arraycopy(buf, pos, buf, 0, len);
+        return len;
+    }
+
+    private static boolean hasText(List<String> list) {
+        if (list == null) return false;
+        for (String s : list) if (s != null && !s.isBlank()) return true;
+        return false;
+    }
+}
@@ -0,0 +1,41 @@
+package tkitem.backend.domain.tour.logic;
+
+import tkitem.backend.domain.tour.vo.Tour;
+import tkitem.backend.domain.tour.vo.TourDetailSchedule;
+import tkitem.backend.domain.tour.vo.TourPackage;
+import tkitem.backend.global.util.HashUtil;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * 투어 적재 변경 감지용 내용 지문 (SHA-256)
+ * - 원본 데이터와 DB 행에 같은 함수를 적용 (지문 컬럼이 비어 있는 기존 일정/패키지도 컬럼 값으로 비교)
+ * - id, tour_id, 생성/수정 시각은 제외. null 과 "" 는 같게 취급 (Oracle 은 빈 문자열을 NULL 로 저장)
+ */
+public final class TourFingerprint {
+
+    private TourFingerprint() {}
+
+    // 일정/도시는 itinerary_json 에서 만들어지므로 투어 지문이 같으면 일정도 그대로
+    public static String of(Tour t) {
+        return hash(t.getTitle(), t.getProvider(), t.getDurationDays(), t.getNights(),
+                t.getFeature(), t.getImgUrl(), t.getItineraryJson());
+    }
+
+    public static String of(TourDetailSchedule s) {
+        return hash(s.getCityId(), s.getTitle(), s.getDescription(), s.getScheduleDate(),
+                s.getSortOrder(), s.getDefaultType());
+    }
+
+    public static String of(TourPackage p) {
+        return hash(p.getPrice(), p.getDepartureDate(), p.getReturnDate(), p.getDepartureAirline(),
+                p.getReturnAirline(), p.getBookingUrl(), p.getSourceUrl());
+    }
+
+    private static String hash(Object... parts) {
+        StringJoiner sj = new StringJoiner("\u001F");
+        for (Object p : parts) sj.add(Objects.toString(p, ""));
+        return HashUtil.hash(sj.toString());
+    }
+}
@@ -0,0 +1,88 @@
+package tkitem.backend.domain.tour.logic;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import tkitem.backend.domain.tour.dto.LocationInfo;
+import tkitem.backend.domain.tour.dto.TourLocationRowDto;
+import tkitem.backend.domain.tour.dto.response.TourCommonRecommendDto;
+import tkitem.backend.domain.tour.event.TourCatalogChangedEvent;
+import tkitem.backend.domain.tour.mapper.TourMapper;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TourCommonRecommendDto.locations 일괄 적재
+ * - 캐시에 없는 tour_id 만 IN 쿼리 한 번(1000개 단위)으로 조회 후 Java 에서 그룹핑
+ * - 투어-도시 관계는 데이터 적재 때만 바뀌므로 적재 완료 이벤트에서 바뀐 투어만 제거
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TourLocationLoader {
+
+    private static final int IN_CHUNK = 1000; // Oracle IN 목록 한도
+
+    private final TourMapper tourMapper;
+
+    // tour_id → 방문 도시 (불변 리스트, 도시 없는 투어는 빈 리스트)
+    private final Map<Long, List<LocationInfo>> byTourId = new ConcurrentHashMap<>();
+
+    public void fill(Collection<TourCommonRecommendDto> dtos) {
+        if (dtos == null || dtos.isEmpty()) return;
+
+        // 1) 캐시 미스 tour_id 수집
+        Set<Long> missing = new LinkedHashSet<>();
+        for (TourCommonRecommendDto dto : dtos) {
+            if (dto.getTourId() != null && !byTourId.containsKey(dto.getTourId())) {
+                missing.add(dto.getTourId());
+            }
+        }
+
+        // 2) 미스분만 일괄 조회
+        if (!missing.isEmpty()) {
+            load(new ArrayList<>(missing));
+        }
+
+        // 3) DTO 에 연결
+        for (TourCommonRecommendDto dto : dtos) {
+            dto.setLocations(dto.getTourId() == null ? List.of() : byTourId.getOrDefault(dto.getTourId(), List.of()));
+        }
+    }
+
+    /**
+     * 적재에서 바뀐 투어만 캐시에서 제거 (다음 조회 때 다시 적재)
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE) // 키워드 캐시 재계산보다 먼저 비움
+    public void onCatalogChanged(TourCatalogChangedEvent event) {
+        if (event.tourIds().isEmpty()) return;
+        event.tourIds().forEach(byTourId::remove);
+        log.info("[TOUR-LOCATION] evicted tours={}", event.tourIds().size());
+    }
+
+    /**
+     * 투어/도시 데이터 전체가 바뀐 경우 호출
+     */
+    public void invalidateAll() {
+        byTourId.clear();
+        log.info("[TOUR-LOCATION] cache cleared");
+    }
+
+    private void load(List<Long> tourIds) {
+        Map<Long, List<LocationInfo>> grouped = new HashMap<>(tourIds.size() * 2);
+        for (int i = 0; i < tourIds.size(); i += IN_CHUNK) {
+            List<TourLocationRowDto> rows = tourMapper.selectLocationsByTourIds(tourIds.subList(i, Math.min(i + IN_CHUNK, tourIds.size())));
+            for (TourLocationRowDto r : rows) {
+                grouped.computeIfAbsent(r.getTourId(), k -> new ArrayList<>()).add(r.toLocationInfo());
+            }
+        }
+        for (Long id : tourIds) {
+            byTourId.put(id, List.copyOf(grouped.getOrDefault(id, List.of())));
+        }
+    }
+}
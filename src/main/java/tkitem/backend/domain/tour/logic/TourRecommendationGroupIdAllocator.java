@@ -0,0 +1,39 @@
+package tkitem.backend.domain.tour.logic;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tkitem.backend.domain.tour.mapper.TourMapper;
+
+/**
+ * 추천 groupId hi/lo 할당기
+ * - TOUR_RECOMMENDATION_GROUP_SEQ.NEXTVAL 한 번으로 blockSize 개 구간을 받아 메모리에서 순차 발급
+ * - 시퀀스 INCREMENT BY 와 blockSize 가 같아야 인스턴스 간 구간이 겹치지 않음
+ * - 재기동 시 남은 구간은 버려지므로 groupId 에 빈 번호가 생길 수 있음 (유일성만 보장)
+ */
+@Component
+@Slf4j
+public class TourRecommendationGroupIdAllocator {
+
+    private final TourMapper tourMapper;
+    private final int blockSize;
+
+    private long next;
+    private long limit; // 현재 블록의 끝 (미포함)
+
+    public TourRecommendationGroupIdAllocator(TourMapper tourMapper,
+                                              @Value("${tour.recommend.group-id.block-size:20}") int blockSize) {
+        this.tourMapper = tourMapper;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public synchronized long next() {
+        if (next >= limit) {
+            long hi = tourMapper.selectNextGroupIdBlock();
+            next = hi;
+            limit = hi + blockSize;
+            log.debug("[RECOMMEND] groupId block [{}, {})", next, limit);
+        }
+        return next++;
+    }
+}
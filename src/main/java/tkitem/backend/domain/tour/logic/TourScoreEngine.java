@@ -0,0 +1,333 @@
+package tkitem.backend.domain.tour.logic;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tkitem.backend.domain.scheduleType.event.TourTypePipelineFinishedEvent;
+import tkitem.backend.domain.tour.dto.TourCandidateRowDto;
+import tkitem.backend.domain.tour.dto.TourScoreTagWeightDto;
+import tkitem.backend.domain.tour.dto.TourScoreUnitRowDto;
+import tkitem.backend.domain.tour.event.TourCatalogChangedEvent;
+import tkitem.backend.domain.tour.mapper.TourMapper;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * scoreByIdsInline 의 메모리 구현 (DB 왕복 없이 DB-only 추천 점수 계산)
+ * - 유닛(일정 1건, 숙소 REST 는 일자별 1건) × 일정유형 점수를 유형별 float[] 열로 보관
+ * - 투어 → 일자 → 유닛 구간은 오프셋 배열로 표현 (투어 ordinal 순으로 연속 배치)
+ * - 요청 시: 유닛 점수 = Σ(유형 가중치 × 열 값) → 일자별 상위 nPerDay 합 → 일자 평균
+ * 기동 시 / 분류 파이프라인 실행 종료 시 / 투어 적재 변경 이벤트 시 백그라운드 재적재 (연속 요청은 1회로 합침)
+ */
+@Component
+@Slf4j
+public class TourScoreEngine {
+
+    private final TourMapper tourMapper;
+    private final Executor executor;
+
+    @Value("${tour.recommend.engine.enabled:false}")
+    private boolean enabled;
+
+    private volatile Snapshot snapshot;
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+
+    public TourScoreEngine(TourMapper tourMapper, @Qualifier("scoreEngineExecutor") Executor executor) {
+        this.tourMapper = tourMapper;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        requestReload();
+    }
+
+    // 투어 적재로 일정/투어가 바뀌면 재적재 (라벨 삭제·feature 재계산은 적재 트랜잭션에서 커밋됨)
+    @EventListener
+    public void onCatalogChanged(TourCatalogChangedEvent event) {
+        if (!event.isEmpty()) requestReload();
+    }
+
+    // 분류 파이프라인 실행이 끝나면 1회 재적재 (라벨은 청크마다 커밋되지만 재적재는 전체를 다시 읽으므로 실행 단위로)
+    @EventListener
+    public void onPipelineFinished(TourTypePipelineFinishedEvent event) {
+        requestReload();
+    }
+
+    // 활성화 + 적재 완료 상태에서만 사용
+    public boolean isReady() {
+        return enabled && snapshot != null;
+    }
+
+    /**
+     * 재적재 요청. 트랜잭션 안이면 커밋 후 실행, 이미 대기 중인 요청이 있으면 합침
+     */
+    public void requestReload() {
+        if (!enabled) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submitReload();
+                }
+            });
+        } else {
+            submitReload();
+        }
+    }
+
+    private void submitReload() {
+        if (!reloadQueued.compareAndSet(false, true)) return;
+        executor.execute(() -> {
+            reloadQueued.set(false);
+            try {
+                reload();
+            } catch (Exception e) {
+                log.error("[SCORE-ENGINE] reload failed, keep previous snapshot", e);
+            }
+        });
+    }
+
+    private void reload() {
+        long t0 = System.currentTimeMillis();
+        List<TourScoreUnitRowDto> rows = tourMapper.selectScoreUnitRows(null);
+        List<TourScoreTagWeightDto> tagWeights = tourMapper.selectScheduleTypeTagWeights();
+        List<TourCandidateRowDto> packages = tourMapper.selectTourPackageSummaries();
+
+        Snapshot s = Snapshot.build(rows, tagWeights, packages);
+        snapshot = s;
+        log.info("[SCORE-ENGINE] loaded tours={} days={} units={} types={} ({}ms)",
+                s.tourIds.length, s.dayUnitStart.length - 1, s.unitCount, s.cols.length, System.currentTimeMillis() - t0);
+    }
+
+    /**
+     * scoreByIdsInline 과 같은 점수/정렬 (finalScore DESC, minPrice ASC, latestDeparture ASC, 0점 제외)
+     * @param allowIds 허용 투어
+     * @param nPerDay 일자별 상위 유닛 수
+     * @param tagIdList 태그 (없으면 모든 유형 가중치 1)
+     * @return tourId, sDbRaw 만 채운 후보 목록
+     */
+    public List<TourCandidateRowDto> score(Collection<Long> allowIds, int nPerDay, List<Long> tagIdList) {
+        Snapshot s = snapshot;
+        if (s == null) throw new IllegalStateException("score engine not loaded");
+        if (allowIds == null || allowIds.isEmpty()) return List.of();
+
+        float[] w = s.weights(tagIdList);
+        float[] scratch = new float[s.maxUnitsPerTour];
+        float[] top = new float[Math.max(1, nPerDay)];
+
+        int[] hitOrd = new int[allowIds.size()];
+        double[] hitScore = new double[allowIds.size()];
+        int hits = 0;
+
+        for (Long id : allowIds) {
+            Integer ord = id == null ? null : s.ordinalByTourId.get(id);
+            if (ord == null) continue;
+            double v = s.scoreTour(ord, w, nPerDay, scratch, top);
+            if (v > 0) {
+                hitOrd[hits] = ord;
+                hitScore[hits] = v;
+                hits++;
+            }
+        }
+
+        Integer[] order = new Integer[hits];
+        for (int i = 0; i < hits; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> {
+            int c = Double.compare(hitScore[b], hitScore[a]);
+            if (c != 0) return c;
+            c = Long.compare(s.minPrice[hitOrd[a]], s.minPrice[hitOrd[b]]);
+            if (c != 0) return c;
+            return Long.compare(s.latestDeparture[hitOrd[a]], s.latestDeparture[hitOrd[b]]);
+        });
+
+        List<TourCandidateRowDto> out = new ArrayList<>(hits);
+        for (Integer i : order) {
+            TourCandidateRowDto r = new TourCandidateRowDto();
+            r.setTourId(s.tourIds[hitOrd[i]]);
+            r.setSDbRaw(hitScore[i]);
+            out.add(r);
+        }
+        return out;
+    }
+
+    /* ---------- 불변 스냅샷 ---------- */
+
+    static final class Snapshot {
+        final long[] tourIds;                 // ordinal → tourId
+        final Map<Long, Integer> ordinalByTourId;
+        final int[] tourDayStart;             // ordinal → 일자 구간 [t, t+1)
+        final int[] dayUnitStart;             // 일자 → 유닛 구간 [d, d+1)
+        final int unitCount;
+        final int maxUnitsPerTour;
+        final float[][] cols;                 // 유형 ordinal → 유닛별 점수
+        final Map<Long, Integer> typeOrd;
+        final Map<Long, float[]> tagWeights;  // tagId → 유형별 가중치 (행 없으면 NaN)
+        final long[] minPrice;                // 없으면 MAX (NULLS LAST)
+        final long[] latestDeparture;
+
+        private Snapshot(long[] tourIds, Map<Long, Integer> ordinalByTourId, int[] tourDayStart, int[] dayUnitStart,
+                         int unitCount, int maxUnitsPerTour, float[][] cols, Map<Long, Integer> typeOrd,
+                         Map<Long, float[]> tagWeights, long[] minPrice, long[] latestDeparture) {
+            this.tourIds = tourIds;
+            this.ordinalByTourId = ordinalByTourId;
+            this.tourDayStart = tourDayStart;
+            this.dayUnitStart = dayUnitStart;
+            this.unitCount = unitCount;
+            this.maxUnitsPerTour = maxUnitsPerTour;
+            this.cols = cols;
+            this.typeOrd = typeOrd;
+            this.tagWeights = tagWeights;
+            this.minPrice = minPrice;
+            this.latestDeparture = latestDeparture;
+        }
+
+        // rows 는 (tourId, scheduleDate, unitId) 순 정렬 전제
+        static Snapshot build(List<TourScoreUnitRowDto> rows, List<TourScoreTagWeightDto> tagRows,
+                              List<TourCandidateRowDto> packages) {
+            // 1) 유형 ordinal + 투어/일자/유닛 개수
+            Map<Long, Integer> typeOrd = new HashMap<>();
+            int tours = 0, days = 0, units = 0;
+            TourScoreUnitRowDto prev = null;
+            for (TourScoreUnitRowDto r : rows) {
+                typeOrd.putIfAbsent(r.getScheduleTypeId(), typeOrd.size());
+                boolean newTour = prev == null || !Objects.equals(prev.getTourId(), r.getTourId());
+                boolean newDay = newTour || !Objects.equals(prev.getScheduleDate(), r.getScheduleDate());
+                boolean newUnit = newDay || !Objects.equals(prev.getUnitId(), r.getUnitId());
+                if (newTour) tours++;
+                if (newDay) days++;
+                if (newUnit) units++;
+                prev = r;
+            }
+
+            // 2) 오프셋 + 열 채우기
+            long[] tourIds = new long[tours];
+            int[] tourDayStart = new int[tours + 1];
+            int[] dayUnitStart = new int[days + 1];
+            float[][] cols = new float[typeOrd.size()][units];
+            int t = -1, d = -1, u = -1, maxUnits = 0;
+            prev = null;
+            for (TourScoreUnitRowDto r : rows) {
+                boolean newTour = prev == null || !Objects.equals(prev.getTourId(), r.getTourId());
+                boolean newDay = newTour || !Objects.equals(prev.getScheduleDate(), r.getScheduleDate());
+                boolean newUnit = newDay || !Objects.equals(prev.getUnitId(), r.getUnitId());
+                if (newTour) {
+                    if (t >= 0) maxUnits = Math.max(maxUnits, u + 1 - dayUnitStart[tourDayStart[t]]);
+                    tourIds[++t] = r.getTourId();
+                    tourDayStart[t] = d + 1;
+                }
+                if (newDay) dayUnitStart[++d] = u + 1;
+                if (newUnit) u++;
+                if (r.getBaseScore() != null) cols[typeOrd.get(r.getScheduleTypeId())][u] += r.getBaseScore().floatValue();
+                prev = r;
+            }
+            if (t >= 0) maxUnits = Math.max(maxUnits, u + 1 - dayUnitStart[tourDayStart[t]]);
+            tourDayStart[tours] = days;
+            dayUnitStart[days] = units;
+
+            Map<Long, Integer> ordinalByTourId = new HashMap<>(tours * 2);
+            for (int i = 0; i < tours; i++) ordinalByTourId.put(tourIds[i], i);
+
+            // 3) 태그 가중치 (SCHEDULE_TYPE_TAG 에 없는 유형은 NaN → 평균에서 제외)
+            Map<Long, float[]> tagWeights = new HashMap<>();
+            for (TourScoreTagWeightDto tw : tagRows) {
+                Integer k = typeOrd.get(tw.getScheduleTypeId());
+                if (k == null || tw.getWeight() == null) continue;
+                float[] arr = tagWeights.computeIfAbsent(tw.getTagId(), x -> {
+                    float[] a = new float[typeOrd.size()];
+                    Arrays.fill(a, Float.NaN);
+                    return a;
+                });
+                arr[k] = tw.getWeight().floatValue();
+            }
+
+            // 4) 동점 정렬용 패키지 요약
+            long[] minPrice = new long[tours];
+            long[] latestDeparture = new long[tours];
+            Arrays.fill(minPrice, Long.MAX_VALUE);
+            Arrays.fill(latestDeparture, Long.MAX_VALUE);
+            for (TourCandidateRowDto p : packages) {
+                Integer ord = ordinalByTourId.get(p.getTourId());
+                if (ord == null) continue;
+                if (p.getMinPrice() != null) minPrice[ord] = p.getMinPrice();
+                if (p.getLatestDeparture() != null) latestDeparture[ord] = p.getLatestDeparture().getTime();
+            }
+
+            return new Snapshot(tourIds, ordinalByTourId, tourDayStart, dayUnitStart, units, maxUnits,
+                    cols, typeOrd, tagWeights, minPrice, latestDeparture);
+        }
+
+        // sel_tag 와 동일: 선택 태그들의 유형별 AVG(weight), 행이 없으면 0. 태그 미지정이면 전부 1
+        float[] weights(List<Long> tagIdList) {
+            float[] w = new float[cols.length];
+            if (tagIdList == null || tagIdList.isEmpty()) {
+                Arrays.fill(w, 1f);
+                return w;
+            }
+            int[] cnt = new int[cols.length];
+            for (Long tagId : new HashSet<>(tagIdList)) {
+                float[] tw = tagWeights.get(tagId);
+                if (tw == null) continue;
+                for (int k = 0; k < tw.length; k++) {
+                    if (Float.isNaN(tw[k])) continue;
+                    w[k] += tw[k];
+                    cnt[k]++;
+                }
+            }
+            for (int k = 0; k < w.length; k++) w[k] = cnt[k] == 0 ? 0f : w[k] / cnt[k];
+            return w;
+        }
+
+        double scoreTour(int ord, float[] w, int nPerDay, float[] scratch, float[] top) {
+            int d0 = tourDayStart[ord], d1 = tourDayStart[ord + 1];
+            int u0 = dayUnitStart[d0], u1 = dayUnitStart[d1];
+            int len = u1 - u0;
+            if (len == 0) return 0.0;
+
+            // 유닛 점수: 유형별 연속 구간 누적 (분기 없는 단순 루프 → JIT 자동 벡터화 대상)
+            Arrays.fill(scratch, 0, len, 0f);
+            for (int k = 0; k < cols.length; k++) {
+                float wk = w[k];
+                if (wk == 0f) continue;
+                float[] col = cols[k];
+                for (int i = 0; i < len; i++) {
+                    scratch[i] += wk * col[u0 + i];
+                }
+            }
+
+            // 일자별 상위 nPerDay 합 → 평균
+            double sum = 0.0;
+            for (int d = d0; d < d1; d++) {
+                sum += topNSum(scratch, dayUnitStart[d] - u0, dayUnitStart[d + 1] - u0, nPerDay, top);
+            }
+            return sum / (d1 - d0);
+        }
+
+        private static double topNSum(float[] v, int from, int to, int n, float[] top) {
+            if (n <= 0) return 0.0;
+            int size = 0;
+            for (int i = from; i < to; i++) {
+                float x = v[i];
+                if (size < n) {
+                    int j = size++;
+                    while (j > 0 && top[j - 1] < x) { top[j] = top[j - 1]; j--; }
+                    top[j] = x;
+                } else if (x > top[n - 1]) {
+                    int j = n - 1;
+                    while (j > 0 && top[j - 1] < x) { top[j] = top[j - 1]; j--; }
+                    top[j] = x;
+                }
+            }
+            double s = 0.0;
+            for (int i = 0; i < size; i++) s += top[i];
+            return s;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package tkitem.backend.domain.tour.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import tkitem.backend.domain.tour.dto.TourImportJobDto;
+
+@Mapper
+public interface TourImportJobMapper {
+
+    /**
+     * QUEUED 로 등록. 같은 datasetKey 의 QUEUED/RUNNING 작업이 있으면 고유 인덱스 위반 (DuplicateKeyException)
+     */
+    void insertJob(@Param("job") TourImportJobDto job);
+
+    TourImportJobDto selectJob(@Param("jobId") String jobId);
+
+    void markRunning(@Param("jobId") String jobId);
+
+    // 진행 수치 기록 + 하트비트 (updated_at)
+    void updateProgress(@Param("job") TourImportJobDto job);
+
+    void finishJob(@Param("job") TourImportJobDto job);
+
+    /**
+     * 하트비트가 staleSeconds 넘게 끊긴 대기/실행 작업을 FAILED 로 (실행하던 인스턴스가 죽은 경우)
+     */
+    void failStaleJobs(@Param("datasetKey") String datasetKey, @Param("staleSeconds") long staleSeconds);
+}
@@ -0,0 +1,23 @@
+package tkitem.backend.domain.tour.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import tkitem.backend.domain.tour.dto.TourImportPartitionDto;
+
+@Mapper
+public interface TourImportManifestMapper {
+
+    /**
+     * 같은 데이터셋의 끝나지 않은 이전 실행에서 COMMITTED 로 끝난 파티션인지 (재실행 시 건너뜀)
+     */
+    int countCommitted(@Param("datasetKey") String datasetKey, @Param("partitionKey") String partitionKey);
+
+    // 적재가 끝까지 완료된 데이터셋의 기록 삭제 (다음 적재는 처음부터)
+    int deleteDataset(@Param("datasetKey") String datasetKey);
+
+    // 다른 데이터셋 기록 삭제: 그 사이 다른 원본이 같은 투어를 덮었을 수 있으므로 이후 재개 대상이 아님
+    int deleteOtherDatasets(@Param("datasetKey") String datasetKey);
+
+    // 파티션 결과 기록 (같은 키면 최근 결과로 갱신)
+    void upsertPartition(@Param("p") TourImportPartitionDto partition);
+}
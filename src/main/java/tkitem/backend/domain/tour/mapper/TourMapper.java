@@ -1,7 +1,9 @@
 package tkitem.backend.domain.tour.mapper;
 
+import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.executor.BatchResult;
 import org.springframework.security.core.parameters.P;
 import tkitem.backend.domain.tour.dto.LocationInfo;
 import tkitem.backend.domain.tour.dto.TourCandidateRowDto;
@@ -9,6 +11,9 @@ import tkitem.backend.domain.tour.dto.TourDetailScheduleDto;
 import tkitem.backend.domain.tour.dto.request.TourRecommendationRequestDto;
 
 import tkitem.backend.domain.tour.dto.TourPackageInfo;
+import tkitem.backend.domain.tour.dto.TourLocationRowDto;
+import tkitem.backend.domain.tour.dto.TourScoreTagWeightDto;
+import tkitem.backend.domain.tour.dto.TourScoreUnitRowDto;
 import tkitem.backend.domain.tour.dto.response.TourCommonRecommendDto;
 import tkitem.backend.domain.tour.dto.response.TourPackageDetailDto;
 import tkitem.backend.domain.tour.dto.response.TourPackageDto;
@@ -62,6 +67,61 @@ public interface TourMapper {
 
     Set<String> findPackageDateCodesByTourId(Long tourId);
 
+    /**
+     * Tour 를 생성 키 회수 없이 삽입 (BATCH executor 에서 JDBC batch 로 묶임, tour_id 는 flush 후 tripCode 로 조회)
+     * @param tour
+     */
+    void insertTourRow(Tour tour);
+
+    /**
+     * tripCode 목록의 (tour_id, trip_code, fingerprint) 조회
+     * @param tripCodes 1000건 이하
+     */
+    List<Tour> selectToursByTripCodes(@Param("tripCodes") List<String> tripCodes);
+
+    /**
+     * 적재용: 내용이 바뀐 투어 갱신 (summary, hotel_rating 은 유지)
+     * @param tour
+     */
+    void updateTourRow(Tour tour);
+
+    /**
+     * 적재 비교용 일정 (tour_id, tour_detail_schedule_id 순)
+     * @param tourIds 1000건 이하
+     */
+    List<TourDetailSchedule> selectSchedulesByTourIds(@Param("tourIds") List<Long> tourIds);
+
+    /**
+     * 일정 (id, tour_id, schedule_date, sort_order) 만 조회
+     * @param tourIds 1000건 이하
+     */
+    List<TourDetailSchedule> selectScheduleKeysByTourIds(@Param("tourIds") List<Long> tourIds);
+
+    void updateTourDetailSchedule(TourDetailSchedule schedule);
+
+    /**
+     * @param ids 1000건 이하. 라벨(TOUR_SCHEDULE_TYPE)은 먼저 지울 것
+     */
+    void deleteTourDetailSchedules(@Param("ids") List<Long> ids);
+
+    List<TourCity> selectTourCitiesByTourIds(@Param("tourIds") List<Long> tourIds);
+
+    void deleteTourCity(TourCity tourCity);
+
+    /**
+     * 적재 비교용 패키지
+     * @param tourIds 1000건 이하
+     */
+    List<TourPackage> selectPackagesByTourIds(@Param("tourIds") List<Long> tourIds);
+
+    void updateTourPackage(TourPackage tourPackage);
+
+    /**
+     * 지금까지 쌓인 batch 문장 전송
+     */
+    @Flush
+    List<BatchResult> flush();
+
     List<TourCandidateRowDto> selectTourCandidates(
             @Param("req") TourRecommendationRequestDto tourRecommendationRequestDto,
             @Param("kTop") Integer kTop,
@@ -77,13 +137,15 @@ public interface TourMapper {
 
     List<Map<String, Object>> selectTdsByTourIds(List<Long> tourIds);
 
-    void insertTourRecommendation(@Param("item") TourRecommendationResponseDto item, @Param("memberId") Long memberId);
+    void insertTourRecommendations(@Param("items") List<TourRecommendationResponseDto> items, @Param("memberId") Long memberId);
 
     Optional<TourPackageDetailDto> selectTourPackageDetail(@Param("tourPackageId") Long tourPackageId);
 
     List<TourDetailScheduleDto> selectTourDetailScheduleListByTourId(@Param("tourId") Long tourId);
 
-    Long selectNextGroupId();
+    Long selectNextGroupIdBlock();
+
+    List<TourLocationRowDto> selectLocationsByTourIds(List<Long> tourIds);
 
     List<TourCommonRecommendDto> selectTourMetaByMemberId(@Param("memberId") Long memberId);
 
@@ -105,7 +167,27 @@ public interface TourMapper {
             @Param("groupId") Long groupId
     );
 
+    List<Long> selectRecommendedTourIds(@Param("memberId") Long memberId, @Param("groupId") Long groupId);
+
     List<TourCandidateRowDto> scoreByIdsInline(@Param("allowIdsJson") String allowIdsJson,
                                                @Param("nPerDay") Integer nPerDay,
                                                @Param("tagIdList") List<Long> tagIdList);
-}
\ No newline at end of file
+
+    // TOUR_SCORE_FEATURE (scoreByIdsInline 사전 계산)
+    List<Long> selectTourIdsByTdsIds(@Param("tdsIdsJson") String tdsIdsJson);
+
+    void deleteTourScoreFeature(@Param("tourIdsJson") String tourIdsJson, @Param("nPerDay") Integer nPerDay);
+
+    void insertTourScoreFeature(@Param("tourIdsJson") String tourIdsJson, @Param("nPerDay") Integer nPerDay);
+
+    List<TourCandidateRowDto> scoreByFeatureTable(@Param("allowIdsJson") String allowIdsJson,
+                                                  @Param("nPerDay") Integer nPerDay,
+                                                  @Param("tagIdList") List<Long> tagIdList);
+
+    // 메모리 점수 엔진 적재 (TourScoreEngine)
+    List<TourScoreUnitRowDto> selectScoreUnitRows(@Param("tourIdsJson") String tourIdsJson);
+
+    List<TourScoreTagWeightDto> selectScheduleTypeTagWeights();
+
+    List<TourCandidateRowDto> selectTourPackageSummaries();
+}
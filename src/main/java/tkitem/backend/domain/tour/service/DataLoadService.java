@@ -1,13 +1,19 @@
 package tkitem.backend.domain.tour.service;
 
+import tkitem.backend.domain.tour.dto.TourImportReportDto;
+
 import java.io.FileNotFoundException;
 
 public interface DataLoadService {
 
     /**
      * 지정된 경로의 CSV 파일을 읽어 Tour 관련 데이터를 데이터베이스에 적재합니다.
+     * tripCode 파티션 단위로 작업 풀에서 병렬 처리하며, 같은 데이터셋의 끝나지 않은 이전 실행에서 커밋된 파티션은 건너뜁니다.
      * @param filePath CSV 파일의 전체 경로
+     * @param datasetKey 재개 범위 (같은 원본의 적재 작업끼리 같은 키)
+     * @param progress 진행 상황 갱신 대상, 취소 요청 시 파싱을 멈추고 이미 넘긴 파티션만 마무리
+     * @return 파티션별 결과를 포함한 적재 결과
      * @throws FileNotFoundException 파일이 존재하지 않을 경우 발생
      */
-    void loadDataFromCsv(String filePath) throws Exception;
+    TourImportReportDto loadDataFromCsv(String filePath, String datasetKey, TourImportProgress progress) throws Exception;
 }
\ No newline at end of file
@@ -1,36 +1,83 @@
 package tkitem.backend.domain.tour.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.DuplicateKeyException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import tkitem.backend.domain.city.dto.CityReviewDto;
 import tkitem.backend.domain.city.mapper.CityMapper;
+import tkitem.backend.domain.city.service.CityDictionary;
 import tkitem.backend.domain.city.vo.City;
+import tkitem.backend.domain.tour.dto.TourImportPartitionDto;
+import tkitem.backend.domain.tour.dto.TourImportReportDto;
+import tkitem.backend.domain.tour.dto.TourImportRowDto;
+import tkitem.backend.domain.tour.event.TourCatalogChangedEvent;
+import tkitem.backend.domain.tour.logic.TourFingerprint;
+import tkitem.backend.domain.tour.mapper.TourImportManifestMapper;
 import tkitem.backend.domain.tour.mapper.TourMapper;
 import tkitem.backend.domain.tour.vo.Tour;
-import tkitem.backend.domain.tour.vo.TourCity;
 import tkitem.backend.domain.tour.vo.TourDetailSchedule;
 import tkitem.backend.domain.tour.vo.TourPackage;
+import tkitem.backend.global.util.HashUtil;
 
-import java.io.FileReader;
+import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.regex.Pattern;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class DataLoadServiceImpl implements DataLoadService {
 
     private final TourMapper tourMapper;
     private final CityMapper cityMapper;
     private final ObjectMapper objectMapper; // JSON 파싱을 위한 ObjectMapper
+    private final TourCatalogWriter tourCatalogWriter;
+    private final CityDictionary cityDictionary;
+    private final TourImportManifestMapper manifestMapper;
+    private final Executor tourImportExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${tour.load.chunk-size:200}")
+    private int chunkSize; // 청크 1개 = 트랜잭션 1개, tripCode IN 목록 (1000 이하)
+
+    @Value("${tour.load.workers:4}")
+    private int workers; // tourImportExecutor 스레드 수와 같게
+
+    @Value("${tour.load.unknown-city:CREATE}")
+    private UnknownCityPolicy unknownCityPolicy;
+
+    /**
+     * 도시 사전/별칭에 없는 도시 처리
+     * CREATE: CITY 에 추가 / SKIP: 해당 일정은 city_id 없이 적재 / QUARANTINE: 투어를 적재하지 않고 CITY_REVIEW 에 기록
+     */
+    public enum UnknownCityPolicy { CREATE, SKIP, QUARANTINE }
+
+    public DataLoadServiceImpl(TourMapper tourMapper, CityMapper cityMapper, ObjectMapper objectMapper,
+                               TourCatalogWriter tourCatalogWriter, CityDictionary cityDictionary,
+                               TourImportManifestMapper manifestMapper, ApplicationEventPublisher eventPublisher,
+                               @Qualifier("tourImportExecutor") Executor tourImportExecutor) {
+        this.tourMapper = tourMapper;
+        this.cityMapper = cityMapper;
+        this.objectMapper = objectMapper;
+        this.tourCatalogWriter = tourCatalogWriter;
+        this.cityDictionary = cityDictionary;
+        this.manifestMapper = manifestMapper;
+        this.tourImportExecutor = tourImportExecutor;
+        this.eventPublisher = eventPublisher;
+    }
 
     // tripCode 유효성 검사를 위한 정규식 (영대문자, 숫자로만 이루어진 12~17자)
     private static final Pattern TRIP_CODE_PATTERN = Pattern.compile("^[A-Z0-9]{12,17}$");
@@ -43,139 +90,388 @@ public class DataLoadServiceImpl implements DataLoadService {
     }
 
     @Override
-    public void loadDataFromCsv(String filePath) throws Exception {
-        log.info("JSON 데이터 적재를 시작합니다. 파일 경로: {}", filePath);
-
-        try (FileReader reader = new FileReader(filePath)) {
-            JsonNode rootNode = objectMapper.readTree(reader);
-
-            if (rootNode.isArray()) {
-                int processedCount = 0;
-                for (JsonNode tripNode : rootNode) {
-                    // 테스트를 위해 100개 항목만 처리
-//                    if (processedCount >= 30) {
-//                        log.info("30개 항목만 테스트하고 종료합니다.");
-//                        break;
-//                    }
-
-                    String tripCode = tripNode.path("tripCode").asText(null);
-                    if (!isValidTripCode(tripCode)) {
-                        log.warn("유효하지 않은 tripCode 형식입니다. 건너뜁니다: {}", tripCode);
-                        continue;
+    public TourImportReportDto loadDataFromCsv(String filePath, String datasetKey, TourImportProgress progress) throws Exception {
+        log.info("JSON 데이터 적재를 시작합니다. 파일 경로: {}, chunkSize={}, workers={}", filePath, chunkSize, workers);
+        long startedAt = System.currentTimeMillis();
+        int trips = 0;
+        int skipped = 0;
+        List<CompletableFuture<TourImportPartitionDto>> partitions = new ArrayList<>();
+        Map<String, CompletableFuture<TourImportPartitionDto>> inFlightByCode = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(Math.max(1, workers) * 2); // 대기 파티션 상한 (파싱이 저장보다 앞서 나가 힙이 커지지 않게)
+        ChangeCollector changes = new ChangeCollector();
+        cityDictionary.reload();
+        clearManifest(() -> manifestMapper.deleteOtherDatasets(datasetKey));
+
+        // 최상위 배열을 스트리밍으로 읽고 항목 1개씩만 트리로 만든 뒤 파티션(청크)으로 모아 작업 풀에 넘김 (파일 크기와 무관하게 힙 사용 일정)
+        try (JsonParser parser = objectMapper.createParser(new File(filePath))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                log.warn("JSON 최상위가 배열이 아닙니다. 적재할 항목이 없습니다.");
+            } else {
+                List<JsonNode> chunk = new ArrayList<>(chunkSize);
+                Set<String> chunkCodes = new HashSet<>();
+                JsonToken token;
+                while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                    // 취소: 이후 항목은 읽지 않음 (이미 넘긴 파티션은 각자 끝까지 처리 후 커밋, 재실행 시 RESUMED)
+                    if (progress.isCancelled()) {
+                        log.info("JSON 데이터 적재 취소 요청, 파싱을 중단합니다. trips={}", trips);
+                        chunk.clear();
+                        break;
                     }
-
-                    JsonNode detailJsonNode = tripNode.path("detail_json");
-                    if (detailJsonNode.isMissingNode() || detailJsonNode.isEmpty()) {
-                        log.warn("detail_json이 비어있습니다. tripCode: {}. 건너뜁니다.", tripCode);
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
                         continue;
                     }
+                    JsonNode tripNode = objectMapper.readTree(parser);
+                    trips++;
+                    progress.parsed(parser.currentLocation().getByteOffset());
 
-                    JsonNode tourPackageNode = tripNode.path("tourPackage");
-                    if (!tourPackageNode.isArray() || tourPackageNode.isEmpty()) {
-                        log.warn("tourPackage 배열이 비어있거나 없습니다. tripCode: {}. 건너뜁니다.", tripCode);
+                    String tripCode = tripNode.path("tripCode").asText(null);
+                    if (!isLoadable(tripCode, tripNode)) {
+                        skipped++;
+                        progress.skipped();
                         continue;
                     }
 
-                    processTripCodeGroup(tripCode, detailJsonNode, tourPackageNode);
-                    processedCount++;
+                    // 같은 tripCode 가 파티션 안에 다시 나오면 파티션을 먼저 넘김 (뒤의 것은 기존 투어로 처리)
+                    if (!chunkCodes.add(tripCode)) {
+                        partitions.add(submitPartition(chunk, partitions.size(), filePath, datasetKey, inFlightByCode, inFlight, changes, progress));
+                        chunk = new ArrayList<>(chunkSize);
+                        chunkCodes.clear();
+                        chunkCodes.add(tripCode);
+                    }
+                    chunk.add(tripNode);
+                    if (chunk.size() >= chunkSize) {
+                        partitions.add(submitPartition(chunk, partitions.size(), filePath, datasetKey, inFlightByCode, inFlight, changes, progress));
+                        chunk = new ArrayList<>(chunkSize);
+                        chunkCodes.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    partitions.add(submitPartition(chunk, partitions.size(), filePath, datasetKey, inFlightByCode, inFlight, changes, progress));
                 }
             }
         } catch (IOException e) {
             log.error("JSON 파일을 읽는 중 오류가 발생했습니다.", e);
             throw e;
+        } finally {
+            // 파싱이 중간에 실패해도 이미 넘긴 파티션은 끝까지 처리 (각자 커밋/기록)
+            progress.parsingDone();
+            CompletableFuture.allOf(partitions.toArray(CompletableFuture[]::new)).join();
+            // 파싱 실패로 끝나도 커밋된 파티션의 변경은 알림
+            publishChanges(changes);
         }
 
-        log.info("JSON 데이터 적재를 완료했습니다.");
+        TourImportReportDto report = buildReport(filePath, trips, skipped, progress.isCancelled(),
+                partitions.stream().map(CompletableFuture::join).toList(), System.currentTimeMillis() - startedAt);
+        // 모든 파티션이 반영된 채 끝났으면 재개할 것이 없음 (같은 원본을 다시 넣으면 처음부터 비교)
+        if (!report.isCancelled() && report.getFailedPartitions() == 0 && report.getPartialPartitions() == 0) {
+            clearManifest(() -> manifestMapper.deleteDataset(datasetKey));
+        }
+        log.info("JSON 데이터 적재를 완료했습니다. trips={} skipped={} failed={} quarantined={} newTours={} schedules={} packages={} "
+                        + "updated={} deleted={} partitions(committed={} partial={} failed={} resumed={} cancelled={}) elapsedMs={}",
+                report.getTrips(), report.getSkipped(), report.getFailed(), report.getQuarantined(),
+                report.getTours(), report.getSchedules(), report.getPackages(), report.getUpdated(), report.getDeleted(),
+                report.getCommittedPartitions(), report.getPartialPartitions(), report.getFailedPartitions(),
+                report.getResumedPartitions(), report.getCancelledPartitions(), report.getElapsedMs());
+        return report;
     }
 
-    @Transactional
-    public void processTripCodeGroup(String tripCode, JsonNode detailJsonNode, JsonNode tourPackageNode) {
+    /**
+     * 매니페스트 정리 실패는 적재를 막지 않음 (남은 기록은 다음 정리 때 삭제, 그 사이 재개는 같은 데이터셋에서만)
+     */
+    private void clearManifest(Runnable delete) {
         try {
-            Tour existingTour = tourMapper.findTourByTripCode(tripCode);
+            delete.run();
+        } catch (Exception e) {
+            log.warn("[LOAD] 매니페스트 정리 실패: {}", e.toString());
+        }
+    }
 
-            if (existingTour == null) {
-                // 신규 Tour: Tour, TourCity, TourDetailSchedule, 모든 TourPackage 삽입
-                log.info("신규 tripCode='{}' 입니다. 전체 데이터를 삽입합니다.", tripCode);
+    /**
+     * 바뀐 투어/일정만 알림 (도시/키워드 캐시, 점수 엔진, 일정 임베딩/색인/분류가 각자 반영)
+     * 리스너 오류가 적재 결과(또는 파싱 오류)를 덮지 않도록 로그만 남김
+     */
+    private void publishChanges(ChangeCollector changes) {
+        TourCatalogChangedEvent event = changes.toEvent();
+        if (event.isEmpty()) return;
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.error("[LOAD] 변경 이벤트 처리 실패 tours={} schedules={} deletedSchedules={}",
+                    event.tourIds().size(), event.scheduleIds().size(), event.deletedScheduleIds().size(), e);
+        }
+    }
 
-                String detailJsonStr = objectMapper.writeValueAsString(detailJsonNode);
+    /**
+     * 파티션을 작업 풀에 넘김
+     * - 같은 tripCode 가 들어 있는 파티션이 처리 중이면 끝날 때까지 기다린 뒤 넘김 (기존/신규 판단이 겹치지 않게)
+     * - 처리 중 파티션이 상한이면 자리가 날 때까지 파싱을 멈춤
+     */
+    private CompletableFuture<TourImportPartitionDto> submitPartition(List<JsonNode> chunk, int partitionNo, String sourcePath,
+                                                                      String datasetKey,
+                                                                      Map<String, CompletableFuture<TourImportPartitionDto>> inFlightByCode,
+                                                                      Semaphore inFlight, ChangeCollector changes,
+                                                                      TourImportProgress progress) throws InterruptedException {
+        List<String> tripCodes = chunk.stream().map(n -> n.path("tripCode").asText()).toList();
+        for (String code : tripCodes) {
+            CompletableFuture<TourImportPartitionDto> prev = inFlightByCode.get(code);
+            if (prev != null) prev.join();
+        }
 
-                // 도시 이름 수집
-                Map<String, Long> cityNames = collectCityNames(detailJsonNode);
+        inFlight.acquire();
+        CompletableFuture<TourImportPartitionDto> future = new CompletableFuture<>();
+        tripCodes.forEach(code -> inFlightByCode.put(code, future));
+        future.whenComplete((r, e) -> {
+            tripCodes.forEach(code -> inFlightByCode.remove(code, future));
+            inFlight.release();
+            if (r != null) progress.partitionDone(r);
+        });
+        progress.partitionSubmitted();
+        try {
+            tourImportExecutor.execute(() -> future.complete(runPartition(chunk, partitionNo, sourcePath, datasetKey, changes, progress)));
+        } catch (RuntimeException e) {
+            future.complete(partitionResult(datasetKey, partitionKey(chunk), sourcePath, partitionNo, chunk.size(), "FAILED",
+                    new LoadStats(), 0L, e.toString()));
+        }
+        return future;
+    }
 
-                // 첫 도시, 나라이름 수집
-                JsonNode placeNode = detailJsonNode.path("place");
-                String startCity = "";
-                String startCountry = "";
-                if (placeNode.isArray() && placeNode.size() > 0) {
-                    startCity = placeNode.get(0).get("name").asText("NONE");
-                    startCountry = placeNode.get(0).get("country").get("name").asText("NONE");
-                }
+    /**
+     * 파티션 1개 처리 (작업 스레드)
+     * 같은 데이터셋의 이전 실행에서 COMMITTED 로 기록된 같은 내용의 파티션이면 건너뛰고, 아니면 저장 후 결과를 매니페스트에 기록
+     * 시작 전에 적재가 취소되었으면 저장/기록 없이 CANCELLED
+     */
+    private TourImportPartitionDto runPartition(List<JsonNode> chunk, int partitionNo, String sourcePath, String datasetKey,
+                                                ChangeCollector changes,
+                                                TourImportProgress progress) {
+        long t0 = System.currentTimeMillis();
+        int tripCount = chunk.size();
+        String key = partitionKey(chunk);
+        LoadStats stats = new LoadStats();
+
+        if (progress.isCancelled()) {
+            return partitionResult(datasetKey, key, sourcePath, partitionNo, tripCount, "CANCELLED", stats, 0L, null);
+        }
 
-                // Tour 객체 생성 및 삽입
-                Tour tour = createTourFrom(tripCode, detailJsonNode, detailJsonStr);
-                tourMapper.insertTour(tour);
-                Long generatedTourId = tour.getTourId();
+        TourImportPartitionDto result;
+        try {
+            if (isCommitted(datasetKey, key)) {
+                log.info("[LOAD] partition#{} 이미 적재됨, 건너뜁니다. trips={}", partitionNo, tripCount);
+                return partitionResult(datasetKey, key, sourcePath, partitionNo, tripCount, "RESUMED", stats, 0L, null);
+            }
+            writeChunk(chunk, stats, changes);
+            String status = stats.failed >= tripCount ? "FAILED"
+                    : (stats.failed > 0 || stats.quarantined > 0) ? "PARTIAL" : "COMMITTED";
+            result = partitionResult(datasetKey, key, sourcePath, partitionNo, tripCount, status, stats, System.currentTimeMillis() - t0, null);
+        } catch (Exception e) {
+            log.error("[LOAD] partition#{} 처리 실패 trips={}", partitionNo, tripCount, e);
+            result = partitionResult(datasetKey, key, sourcePath, partitionNo, tripCount, "FAILED", stats, System.currentTimeMillis() - t0, e.toString());
+        }
 
-                // TourDetailSchedule 리스트 생성 및 삽입
-                List<TourDetailSchedule> schedules = createSchedulesFrom(detailJsonNode, generatedTourId, cityNames, startCity, startCountry);
-                if (!schedules.isEmpty()) {
-                    for (TourDetailSchedule schedule : schedules) {
-                        tourMapper.insertTourDetailSchedule(schedule);
-                    }
-                }
+        try {
+            manifestMapper.upsertPartition(result);
+        } catch (Exception e) {
+            log.warn("[LOAD] partition#{} 매니페스트 기록 실패: {}", partitionNo, e.toString());
+        }
+        log.info("[LOAD] partition#{} status={} trips={} newTours={} schedules={} packages={} updated={} deleted={} failed={} quarantined={} elapsedMs={}",
+                partitionNo, result.getStatus(), tripCount, stats.tours, stats.schedules, stats.packages,
+                stats.updated, stats.deleted, stats.failed, stats.quarantined, result.getElapsedMs());
+        return result;
+    }
 
-                // TourCity 리스트 생성 및 삽입
-                List<TourCity> tourCityList = createCitiesForm(generatedTourId, cityNames);
-                if (!tourCityList.isEmpty()) {
-                    for (TourCity tourCity : tourCityList) {
-                        tourMapper.insertTourCity(tourCity);
-                    }
-                }
+    // 매니페스트 조회 실패는 적재를 막지 않음 (미적재로 보고 진행, 기존 투어는 지문이 다른 행만 반영되므로 중복 없음)
+    private boolean isCommitted(String datasetKey, String partitionKey) {
+        try {
+            return manifestMapper.countCommitted(datasetKey, partitionKey) > 0;
+        } catch (Exception e) {
+            log.warn("[LOAD] 매니페스트 조회 실패, 미적재로 처리합니다: {}", e.toString());
+            return false;
+        }
+    }
 
-                // TourPackage 리스트 생성 및 삽입
-                List<TourPackage> tourPackages = createTourPackagesFrom(tourPackageNode, generatedTourId, tripCode);
-                if (!tourPackages.isEmpty()) {
-                    for (TourPackage tourPackage : tourPackages) {
-                        tourMapper.insertTourPackage(tourPackage);
-                    }
-                }
+    private String partitionKey(List<JsonNode> chunk) {
+        StringBuilder sb = new StringBuilder();
+        for (JsonNode n : chunk) sb.append(n.toString()).append('\u001E');
+        return HashUtil.hash(sb.toString());
+    }
 
-                log.info("tripCode '{}' 처리 완료 (Tour 1개, Package {}개, Schedule {}개)",
-                        tripCode, tourPackages.size(), schedules.size());
-                log.info("SUCCESSFULLY PROCESSED tripCode: {}", tripCode);
+    private TourImportPartitionDto partitionResult(String datasetKey, String key, String sourcePath, int partitionNo, int tripCount,
+                                                   String status, LoadStats stats, long elapsedMs, String error) {
+        return TourImportPartitionDto.builder()
+                .datasetKey(datasetKey)
+                .partitionKey(key)
+                .sourcePath(sourcePath)
+                .partitionNo(partitionNo)
+                .tripCount(tripCount)
+                .status(status)
+                .tours(stats.tours)
+                .schedules(stats.schedules)
+                .packages(stats.packages)
+                .updated(stats.updated)
+                .deleted(stats.deleted)
+                .failed(stats.failed)
+                .quarantined(stats.quarantined)
+                .elapsedMs(elapsedMs)
+                .errorMessage(error == null ? null : error.substring(0, Math.min(error.length(), 1000)))
+                .build();
+    }
 
-            } else {
-                // 기존 Tour: 신규 TourPackage만 확인하여 추가
-                log.info("기존 tripCode='{}' 입니다. 신규 TourPackage만 확인하여 추가합니다.", tripCode);
-                Long tourId = existingTour.getTourId();
-
-                // DB에 저장된 travelId(packageDateCode) 목록 조회
-                Set<String> existingPackageDateCodes = new HashSet<>(tourMapper.findPackageDateCodesByTourId(tourId));
-
-                List<TourPackage> newTourPackages = new ArrayList<>();
-                for (JsonNode packageNode : tourPackageNode) {
-                    String travelId = packageNode.path("travelId").asText(null);
-                    if (travelId != null && !existingPackageDateCodes.contains(travelId)) {
-                        newTourPackages.add(createSingleTourPackageFrom(packageNode, tourId, tripCode));
-                    }
-                }
+    private TourImportReportDto buildReport(String sourcePath, int trips, int skipped, boolean cancelled,
+                                            List<TourImportPartitionDto> partitions, long elapsedMs) {
+        int failed = 0, quarantined = 0, tours = 0, schedules = 0, packages = 0, updated = 0, deleted = 0;
+        Map<String, Integer> byStatus = new HashMap<>();
+        for (TourImportPartitionDto p : partitions) {
+            // 파티션 전체 실패는 저장 전 단계 오류이므로 tripCount 만큼 실패로 집계
+            failed += "FAILED".equals(p.getStatus()) ? Math.max(p.getFailed(), p.getTripCount()) : p.getFailed();
+            quarantined += p.getQuarantined();
+            tours += p.getTours();
+            schedules += p.getSchedules();
+            packages += p.getPackages();
+            updated += p.getUpdated();
+            deleted += p.getDeleted();
+            byStatus.merge(p.getStatus(), 1, Integer::sum);
+        }
+        return TourImportReportDto.builder()
+                .sourcePath(sourcePath)
+                .trips(trips)
+                .skipped(skipped)
+                .failed(failed)
+                .quarantined(quarantined)
+                .tours(tours)
+                .schedules(schedules)
+                .packages(packages)
+                .updated(updated)
+                .deleted(deleted)
+                .committedPartitions(byStatus.getOrDefault("COMMITTED", 0))
+                .partialPartitions(byStatus.getOrDefault("PARTIAL", 0))
+                .failedPartitions(byStatus.getOrDefault("FAILED", 0))
+                .resumedPartitions(byStatus.getOrDefault("RESUMED", 0))
+                .cancelledPartitions(byStatus.getOrDefault("CANCELLED", 0))
+                .cancelled(cancelled)
+                .elapsedMs(elapsedMs)
+                .partitions(partitions)
+                .build();
+    }
 
-                if (!newTourPackages.isEmpty()) {
-                    for (TourPackage tourPackage : newTourPackages) {
-                        tourMapper.insertTourPackage(tourPackage);
-                    }
-                    log.info("{}개의 신규 TourPackage를 tripCode '{}'에 추가했습니다.", newTourPackages.size(), tripCode);
-                } else {
-                    log.info("tripCode '{}'에 대한 신규 TourPackage가 없습니다.", tripCode);
+    private boolean isLoadable(String tripCode, JsonNode tripNode) {
+        if (!isValidTripCode(tripCode)) {
+            log.warn("유효하지 않은 tripCode 형식입니다. 건너뜁니다: {}", tripCode);
+            return false;
+        }
+
+        JsonNode detailJsonNode = tripNode.path("detail_json");
+        if (detailJsonNode.isMissingNode() || detailJsonNode.isEmpty()) {
+            log.warn("detail_json이 비어있습니다. tripCode: {}. 건너뜁니다.", tripCode);
+            return false;
+        }
+
+        JsonNode tourPackageNode = tripNode.path("tourPackage");
+        if (!tourPackageNode.isArray() || tourPackageNode.isEmpty()) {
+            log.warn("tourPackage 배열이 비어있거나 없습니다. tripCode: {}. 건너뜁니다.", tripCode);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 청크(파티션) 저장
+     * 1) 청크의 기존 투어 (id, 지문) 일괄 조회
+     * 2) tripCode 별 행 생성 (도시는 신규/내용 변경 투어만 사전에서 찾고, 없으면 unknown-city 정책 적용)
+     * 3) 청크 단위 트랜잭션 저장 (기존 투어는 바뀐 행만 반영), 실패하면 tripCode 단위로 다시 저장해 문제 건만 건너뜀
+     */
+    private void writeChunk(List<JsonNode> chunk, LoadStats stats, ChangeCollector changes) {
+        if (chunk.isEmpty()) return;
+
+        // 1) 기존 투어 (id, 지문)
+        List<String> tripCodes = chunk.stream().map(n -> n.path("tripCode").asText()).toList();
+        Map<String, Tour> existingTours = new HashMap<>();
+        for (Tour t : tourMapper.selectToursByTripCodes(tripCodes)) {
+            existingTours.put(t.getTripCode(), t);
+        }
+
+        // 2) 행 생성
+        List<TourImportRowDto> rows = new ArrayList<>(chunk.size());
+        List<CityReviewDto> review = new ArrayList<>();
+        for (JsonNode tripNode : chunk) {
+            String tripCode = tripNode.path("tripCode").asText();
+            try {
+                Map<String, City> unknownCities = new LinkedHashMap<>();
+                TourImportRowDto row = buildRow(tripCode, tripNode, existingTours.get(tripCode), unknownCities);
+                if (!unknownCities.isEmpty()) {
+                    // QUARANTINE: 모르는 도시가 있는 투어는 보류 (도시/별칭 등록 후 다시 적재하면 반영됨)
+                    log.warn("tripCode '{}' 보류: 사전에 없는 도시 {}", tripCode,
+                            unknownCities.values().stream().map(c -> c.getCityName() + "(" + c.getCountryName() + ")").toList());
+                    unknownCities.values().forEach(c -> review.add(new CityReviewDto(c.getCityName(), c.getCountryName(), tripCode)));
+                    stats.quarantined++;
+                    continue;
                 }
+                rows.add(row);
+            } catch (Exception e) {
+                log.error("tripCode '{}' 처리 중 오류가 발생하여 건너뜁니다.", tripCode, e);
+                stats.failed++;
             }
+        }
+        if (!review.isEmpty()) {
+            try {
+                cityMapper.upsertReviewEntries(review);
+            } catch (Exception e) {
+                log.warn("CITY_REVIEW 기록 실패 size={} : {}", review.size(), e.toString());
+            }
+        }
+
+        // 3) 저장
+        try {
+            stats.add(tourCatalogWriter.write(rows), changes);
         } catch (Exception e) {
-            log.error("tripCode '{}' 처리 중 오류가 발생하여 건너뜁니다.", tripCode, e);
-            // @Transactional에 의해 이 tripCode에 대한 모든 DB 작업은 롤백됨
+            log.warn("청크 저장 실패, tripCode 단위로 다시 저장합니다. size={} : {}", rows.size(), e.toString());
+            for (TourImportRowDto row : rows) {
+                try {
+                    stats.add(tourCatalogWriter.write(List.of(row)), changes);
+                } catch (Exception ex) {
+                    log.error("tripCode '{}' 처리 중 오류가 발생하여 건너뜁니다.", row.tripCode(), ex);
+                    stats.failed++;
+                }
+            }
+        }
+    }
+
+    /**
+     * tripCode 1건의 행 생성
+     * 기존 투어이고 투어 지문(itinerary_json 포함)이 같으면 일정/도시는 그대로이므로 패키지만 넘김
+     */
+    private TourImportRowDto buildRow(String tripCode, JsonNode tripNode, Tour existing, Map<String, City> unknownCities) throws Exception {
+        JsonNode detailJsonNode = tripNode.path("detail_json");
+        String detailJsonStr = objectMapper.writeValueAsString(detailJsonNode);
+        Long tourId = existing == null ? null : existing.getTourId();
+
+        Tour tour = createTourFrom(tripCode, detailJsonNode, detailJsonStr);
+        List<TourPackage> tourPackages = createTourPackagesFrom(tripNode.path("tourPackage"), tourId, tripCode);
+        if (existing != null && tour.getFingerprint().equals(existing.getFingerprint())) {
+            return new TourImportRowDto(tripCode, tourId, null, List.of(), Set.of(), tourPackages);
+        }
+
+        // 도시 이름 수집
+        Map<String, Long> cityNames = collectCityNames(detailJsonNode, unknownCities);
+
+        // 첫 도시, 나라이름 수집
+        JsonNode placeNode = detailJsonNode.path("place");
+        String startCity = "";
+        String startCountry = "";
+        if (placeNode.isArray() && placeNode.size() > 0) {
+            startCity = placeNode.get(0).get("name").asText("NONE");
+            startCountry = placeNode.get(0).get("country").get("name").asText("NONE");
+        }
+
+        List<TourDetailSchedule> schedules = createSchedulesFrom(detailJsonNode, tourId, cityNames, startCity, startCountry, unknownCities);
+        Set<Long> cityIds = new LinkedHashSet<>();
+        for (Long cityId : cityNames.values()) {
+            if (cityId != null) cityIds.add(cityId);
         }
+
+        return new TourImportRowDto(tripCode, tourId, tour, schedules, cityIds, tourPackages);
     }
 
-    private Map<String, Long> collectCityNames(JsonNode detailJsonNode) {
+    private Map<String, Long> collectCityNames(JsonNode detailJsonNode, Map<String, City> unknownCities) {
         Map<String, Long> cityNames = new HashMap<>();
         JsonNode placesNode = detailJsonNode.get("places");
         if (placesNode != null && placesNode.isArray()) {
@@ -183,7 +479,7 @@ public class DataLoadServiceImpl implements DataLoadService {
                 String cityName = place.get("name").asText();
                 String countryName = place.get("country").get("name").asText();
                 if (cityName != null && !cityName.isEmpty()) {
-                    Long cityId = getOrCreateCityId(cityName, countryName);
+                    Long cityId = getOrCreateCityId(cityName, countryName, unknownCities);
                     if (cityId != null) {
                         cityNames.put(cityName, cityId);
                     } else {
@@ -195,7 +491,6 @@ public class DataLoadServiceImpl implements DataLoadService {
         return cityNames;
     }
 
-
     private Tour createTourFrom(String tripCode, JsonNode rootNode, String detailJsonStr) {
         JsonNode itinerary = rootNode.path("itinerary");
 
@@ -214,7 +509,7 @@ public class DataLoadServiceImpl implements DataLoadService {
             }
         }
 
-        return Tour.builder()
+        Tour tour = Tour.builder()
                 .tripCode(tripCode)
                 .title(rootNode.path("title").asText())
                 .provider(rootNode.path("tourOperator").path("name").asText())
@@ -226,6 +521,8 @@ public class DataLoadServiceImpl implements DataLoadService {
                 .hotelRating(0)
                 .imgUrl(rootNode.path("photos").get(0).path("url").asText()) // 사진이 없을 수 있으므로 주의
                 .build();
+        tour.setFingerprint(TourFingerprint.of(tour));
+        return tour;
     }
 
     private List<TourPackage> createTourPackagesFrom(JsonNode tourPackageNode, Long tourId, String tripCode) {
@@ -262,7 +559,7 @@ public class DataLoadServiceImpl implements DataLoadService {
             }
         }
 
-        return TourPackage.builder()
+        TourPackage tourPackage = TourPackage.builder()
                 .tourId(tourId)
                 .packageDateCode(travelId)
                 .departureDate(departureDateTime != null ? departureDateTime.toLocalDate() : null)
@@ -273,9 +570,11 @@ public class DataLoadServiceImpl implements DataLoadService {
                 .bookingUrl("https://tripstore.thehyundaitravel.com/products/" + tripCode + "?travelId=" + travelId)
                 .sourceUrl("https://api.tripstore.kr/inventory/travels/" + travelId)
                 .build();
+        tourPackage.setFingerprint(TourFingerprint.of(tourPackage));
+        return tourPackage;
     }
 
-    private List<TourDetailSchedule> createSchedulesFrom(JsonNode rootNode, Long tourId, Map<String, Long> cityNames, String startCity, String startCountry) {
+    private List<TourDetailSchedule> createSchedulesFrom(JsonNode rootNode, Long tourId, Map<String, Long> cityNames, String startCity, String startCountry, Map<String, City> unknownCities) {
         List<TourDetailSchedule> schedules = new ArrayList<>();
         JsonNode dailies = rootNode.path("itinerary").path("dailies");
 
@@ -335,7 +634,7 @@ public class DataLoadServiceImpl implements DataLoadService {
                         // null, null 이 들어가는 경우 --> json 데이터에서 items 내에 PLACE 보다 MEAL이 먼저 나옴
 
                         if (!cityNames.containsKey(place)) {
-                            Long cityId = getOrCreateCityId(place, country);
+                            Long cityId = getOrCreateCityId(place, country, unknownCities);
                             if (cityId != null) {
                                 cityNames.put(place, cityId);
                             } else {
@@ -343,7 +642,7 @@ public class DataLoadServiceImpl implements DataLoadService {
                             }
                         }
 
-                        schedules.add(TourDetailSchedule.builder()
+                        TourDetailSchedule schedule = TourDetailSchedule.builder()
                                 .tourId(tourId)
                                 .cityId(cityNames.get(place))
                                 .title(contents.path("name").asText())
@@ -351,7 +650,9 @@ public class DataLoadServiceImpl implements DataLoadService {
                                 .description(description.toString())
                                 .sortOrder(item.path("sort").asInt())
                                 .defaultType(itemType)
-                                .build());
+                                .build();
+                        schedule.setFingerprint(TourFingerprint.of(schedule));
+                        schedules.add(schedule);
                     }
                 }
             }
@@ -359,74 +660,47 @@ public class DataLoadServiceImpl implements DataLoadService {
         return schedules;
     }
 
-    private List<TourCity> createCitiesForm(Long tourId, Map<String, Long> cityNames) {
-        List<TourCity> cities = new ArrayList<>();
-
-        for (Long cityId : cityNames.values()) {
-            if (cityId != null) { // Null check
-                TourCity tourCity = TourCity.builder()
-                        .cityId(cityId)
-                        .tourId(tourId)
-                        .build();
-                cities.add(tourCity);
-            }
-        }
-        return cities;
-    }
-
-    private Long getOrCreateCityId(String cityName, String countryName) {
-        Long id = cityMapper.findCityIdByName(cityName, countryName).orElse(null);
-        if (id != null) {
+    private Long getOrCreateCityId(String cityName, String countryName, Map<String, City> unknownCities) {
+        Long id = cityDictionary.idOf(cityName, countryName);
+        if (id != null || cityName == null || cityName.isBlank()) {
             return id;
         }
 
-        // id == null, new city creation logic
-        System.out.println("\n========================================================");
-        log.info("새로운 도시를 데이터베이스에 추가해야 합니다.");
-            log.info("데이터 값: 도시명='{}', 국가명='{}'", cityName, countryName);
-        System.out.println("--------------------------------------------------------");
-        System.out.println("선택하세요:");
-        System.out.println("  1: 위 값으로 도시를 생성합니다.");
-        System.out.println("  2: 새로운 값을 직접 입력하여 도시를 생성합니다.");
-        System.out.print("입력 (1 또는 2): ");
-
-        Scanner scanner = new Scanner(System.in);
-        String choice = scanner.nextLine();
-
-        String finalCityName = cityName;
-        String finalCountryName = countryName;
-
-        if ("2".equals(choice)) {
-            System.out.print("새로운 도시명을 입력하세요: ");
-            finalCityName = scanner.nextLine();
-            System.out.print("새로운 국가명을 입력하세요: ");
-            finalCountryName = scanner.nextLine();
-            System.out.println("========================================================");
-
-            // 사용자가 직접 입력한 값으로 도시가 이미 존재하는지 다시 확인
-            Long manuallyEnteredCityId = cityMapper.findCityIdByName(finalCityName, finalCountryName).orElse(null);
-            if (manuallyEnteredCityId != null) {
-                log.info("입력한 도시는 이미 존재합니다. 기존 ID를 사용합니다: {}", manuallyEnteredCityId);
-                return manuallyEnteredCityId;
+        // 사전/별칭에 없는 도시
+        return switch (unknownCityPolicy) {
+            case CREATE -> cityDictionary.create(cityName, countryName);
+            case SKIP -> null;
+            case QUARANTINE -> {
+                unknownCities.putIfAbsent(cityName.trim() + "\u001F" + countryName,
+                        City.builder().cityName(cityName.trim()).countryName(countryName).build());
+                yield null;
             }
-        } else {
-            log.info("전달받은 값으로 생성을 진행합니다.");
-            System.out.println("========================================================");
+        };
+    }
+
+    private static final class LoadStats {
+        int failed, quarantined, tours, schedules, packages, updated, deleted;
+
+        void add(TourCatalogWriter.Result r, ChangeCollector changes) {
+            tours += r.tours();
+            schedules += r.schedules();
+            packages += r.packages();
+            updated += r.updated();
+            deleted += r.deleted();
+            changes.tourIds.addAll(r.tourIds());
+            changes.scheduleIds.addAll(r.scheduleIds());
+            changes.deletedScheduleIds.addAll(r.deletedScheduleIds());
         }
+    }
 
-        City city = City.builder()
-                .cityName(finalCityName)
-                .countryName(finalCountryName)
-                .build();
+    // 적재 1회 동안 커밋된 변경 id 모음 (파티션 작업 스레드들이 함께 씀)
+    private static final class ChangeCollector {
+        final Set<Long> tourIds = ConcurrentHashMap.newKeySet();
+        final Set<Long> scheduleIds = ConcurrentHashMap.newKeySet();
+        final Set<Long> deletedScheduleIds = ConcurrentHashMap.newKeySet();
 
-        try {
-            cityMapper.save(city);
-            log.info("새로운 도시 생성 완료: '{}' ({}), ID: {}", city.getCityName(), city.getCountryName(), city.getCityId());
-            return city.getCityId();
-        } catch (DuplicateKeyException e) {
-            log.warn("도시 생성 중복 예외 발생. 다른 트랜잭션에서 생성되었을 수 있습니다. 기존 도시 ID를 조회합니다: {} ({})", finalCityName, finalCountryName);
-            return cityMapper.findCityIdByName(finalCityName, finalCountryName)
-                    .orElse(null); // 실패 시 null 반환
+        TourCatalogChangedEvent toEvent() {
+            return new TourCatalogChangedEvent(Set.copyOf(tourIds), Set.copyOf(scheduleIds), Set.copyOf(deletedScheduleIds));
         }
     }
 }
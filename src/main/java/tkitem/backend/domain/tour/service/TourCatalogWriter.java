@@ -0,0 +1,144 @@
+package tkitem.backend.domain.tour.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tkitem.backend.domain.scheduleType.mapper.TourDetailScheduleMapper;
+import tkitem.backend.domain.scheduleType.mapper.TourScheduleTypeMapper;
+import tkitem.backend.domain.tour.dto.TourImportRowDto;
+import tkitem.backend.domain.tour.logic.TourCatalogDiff;
+import tkitem.backend.domain.tour.mapper.TourMapper;
+import tkitem.backend.domain.tour.vo.Tour;
+import tkitem.backend.domain.tour.vo.TourCity;
+import tkitem.backend.domain.tour.vo.TourDetailSchedule;
+import tkitem.backend.domain.tour.vo.TourPackage;
+
+import java.util.*;
+
+/**
+ * 투어 적재 청크 저장 (청크 1개 = 트랜잭션 1개)
+ * - 기존 투어는 저장된 지문과 비교(TourCatalogDiff)해 바뀐 행만 추가/수정/삭제
+ * - BATCH executor 는 같은 문장이 연속될 때만 하나의 JDBC batch 로 묶으므로 조회를 먼저 끝내고 문장별로 모아서 호출
+ * - 신규 투어는 생성 키 없이 batch 삽입 → flush → tripCode 로 tour_id 일괄 조회
+ */
+@Service
+@RequiredArgsConstructor
+public class TourCatalogWriter {
+
+    private static final int IN_CHUNK = 1000; // Oracle IN 목록 한도
+
+    private final TourMapper tourMapper;
+    private final TourScheduleTypeMapper tstMapper;
+    private final TourDetailScheduleMapper tdsMapper;
+    private final TourScoreFeatureService tourScoreFeatureService;
+
+    /**
+     * @param tours / schedules / packages 추가 건수
+     * @param updated 내용이 바뀌어 수정한 투어/일정/패키지 수
+     * @param deleted 삭제한 일정 수
+     * @param tourIds / scheduleIds / deletedScheduleIds 변경 집합 (TourCatalogChangedEvent)
+     */
+    public record Result(int tours, int schedules, int packages, int updated, int deleted,
+                         Set<Long> tourIds, Set<Long> scheduleIds, Set<Long> deletedScheduleIds) {}
+
+    @Transactional
+    public Result write(List<TourImportRowDto> rows) {
+        if (rows.isEmpty()) return new Result(0, 0, 0, 0, 0, Set.of(), Set.of(), Set.of());
+
+        // 1) 기존 투어의 현재 상태 (쓰기 전에 조회해야 batch 가 끊기지 않음)
+        List<Long> existingIds = new ArrayList<>();
+        List<Long> reshapedIds = new ArrayList<>(); // 투어 지문이 달라 일정/도시까지 비교할 기존 투어
+        for (TourImportRowDto row : rows) {
+            if (row.isNew()) continue;
+            existingIds.add(row.tourId());
+            if (row.tour() != null) reshapedIds.add(row.tourId());
+        }
+        Map<Long, List<TourPackage>> currentPackages = new HashMap<>();
+        Map<Long, List<TourDetailSchedule>> currentSchedules = new HashMap<>();
+        Map<Long, Set<Long>> currentCities = new HashMap<>();
+        if (!existingIds.isEmpty()) {
+            for (TourPackage p : tourMapper.selectPackagesByTourIds(existingIds)) {
+                currentPackages.computeIfAbsent(p.getTourId(), k -> new ArrayList<>()).add(p);
+            }
+        }
+        if (!reshapedIds.isEmpty()) {
+            for (TourDetailSchedule s : tourMapper.selectSchedulesByTourIds(reshapedIds)) {
+                currentSchedules.computeIfAbsent(s.getTourId(), k -> new ArrayList<>()).add(s);
+            }
+            for (TourCity c : tourMapper.selectTourCitiesByTourIds(reshapedIds)) {
+                currentCities.computeIfAbsent(c.getTourId(), k -> new HashSet<>()).add(c.getCityId());
+            }
+        }
+
+        // 2) 신규 투어 삽입 후 tour_id 회수
+        List<String> newCodes = new ArrayList<>();
+        for (TourImportRowDto row : rows) {
+            if (!row.isNew()) continue;
+            tourMapper.insertTourRow(row.tour());
+            newCodes.add(row.tripCode());
+        }
+        Map<String, Long> tourIds = new HashMap<>();
+        if (!newCodes.isEmpty()) {
+            tourMapper.flush();
+            for (Tour t : tourMapper.selectToursByTripCodes(newCodes)) {
+                tourIds.put(t.getTripCode(), t.getTourId());
+            }
+        }
+
+        // 3) 비교
+        TourCatalogDiff diff = new TourCatalogDiff();
+        for (TourImportRowDto row : rows) {
+            Long tourId = row.isNew() ? tourIds.get(row.tripCode()) : row.tourId();
+            if (tourId == null) {
+                throw new IllegalStateException("tour_id 를 찾을 수 없습니다. tripCode=" + row.tripCode());
+            }
+            if (row.isNew()) {
+                diff.tourInserted(tourId);
+            } else if (row.tour() != null) {
+                diff.tourUpdated(tourId, row.tour());
+            }
+            if (row.tour() != null) {
+                diff.schedules(tourId, row.schedules(), currentSchedules.getOrDefault(tourId, List.of()));
+                diff.cities(tourId, row.cityIds(), currentCities.getOrDefault(tourId, Set.of()));
+            }
+            diff.packages(tourId, row.packages(), currentPackages.getOrDefault(tourId, List.of()));
+        }
+
+        // 4) 반영 (라벨 → 내용 해시 → 일정 순으로 삭제, 이후 문장별 batch)
+        for (int i = 0; i < diff.getLabelClears().size(); i += IN_CHUNK) {
+            List<Long> ids = diff.getLabelClears().subList(i, Math.min(i + IN_CHUNK, diff.getLabelClears().size()));
+            tstMapper.deleteByTdsIds(ids);
+            tdsMapper.deleteContentHashes(ids);
+        }
+        for (int i = 0; i < diff.getScheduleDeletes().size(); i += IN_CHUNK) {
+            tourMapper.deleteTourDetailSchedules(diff.getScheduleDeletes().subList(i, Math.min(i + IN_CHUNK, diff.getScheduleDeletes().size())));
+        }
+        diff.getTourUpdates().forEach(tourMapper::updateTourRow);
+        diff.getScheduleUpdates().forEach(tourMapper::updateTourDetailSchedule);
+        diff.getScheduleInserts().forEach(tourMapper::insertTourDetailSchedule);
+        diff.getCityDeletes().forEach(tourMapper::deleteTourCity);
+        diff.getCityInserts().forEach(tourMapper::insertTourCity);
+        diff.getPackageUpdates().forEach(tourMapper::updateTourPackage);
+        diff.getPackageInserts().forEach(tourMapper::insertTourPackage);
+        tourMapper.flush();
+
+        // 5) 추가된 일정 id (변경 집합용)
+        Set<Long> scheduleIds = new LinkedHashSet<>(diff.getChangedSchedules());
+        if (!diff.getToursWithInserts().isEmpty()) {
+            Set<Long> before = new HashSet<>();
+            for (Long tourId : diff.getToursWithInserts()) {
+                for (TourDetailSchedule s : currentSchedules.getOrDefault(tourId, List.of())) before.add(s.getTourDetailScheduleId());
+            }
+            for (TourDetailSchedule s : tourMapper.selectScheduleKeysByTourIds(new ArrayList<>(diff.getToursWithInserts()))) {
+                if (!before.contains(s.getTourDetailScheduleId())) scheduleIds.add(s.getTourDetailScheduleId());
+            }
+        }
+
+        // 6) 라벨이 지워진 투어의 점수 feature 재계산 (같은 트랜잭션)
+        tourScoreFeatureService.refreshForTours(diff.getLabelClearedTours());
+
+        return new Result(newCodes.size(), diff.getScheduleInserts().size(), diff.getPackageInserts().size(),
+                diff.getUpdated(), diff.getScheduleDeletes().size(),
+                diff.getChangedTours(), scheduleIds, new LinkedHashSet<>(diff.getScheduleDeletes()));
+    }
+}
@@ -1,27 +1,32 @@
 package tkitem.backend.domain.tour.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
-import co.elastic.clients.elasticsearch.core.SearchResponse;
-import co.elastic.clients.elasticsearch.core.search.Hit;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.entity.NByteArrayEntity;
 import org.elasticsearch.client.Request;
 import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseException;
 import org.elasticsearch.client.RestClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import tkitem.backend.domain.scheduleType.service.EmbeddingService;
 import tkitem.backend.domain.tour.dto.KeywordRule;
 import tkitem.backend.domain.tour.dto.TopMatchDto;
+import tkitem.backend.domain.tour.dto.TourEsFilter;
+import tkitem.backend.domain.tour.logic.TourEsQueryWriter;
 import tkitem.backend.global.error.ErrorCode;
 import tkitem.backend.global.error.exception.BusinessException;
 
-import java.io.StringReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -31,8 +36,29 @@ public class TourEsService {
     private static final String INDEX_TDS = "tour_detail_schedule_v1";
     private final ElasticsearchClient esClient;
     private final EmbeddingService embeddingService;
-
-    public String searchTop1ByVectorRawJson(KeywordRule rule, Set<Long> allowTourIds) {
+    private final ObjectMapper objectMapper;
+
+    // RRF(retriever) 사용 여부. 클러스터가 지원하지 않으면(파싱 오류/라이선스 거부) recheck 간격 동안 기존 방식으로 전환
+    @Value("${tour.es.hybrid.rrf-enabled:true}")
+    private boolean rrfEnabled;
+    @Value("${tour.es.hybrid.rrf-recheck-ms:600000}")
+    private long rrfRecheckMs; // 업그레이드/라이선스 적용 후 재시작 없이 복귀
+    private volatile long rrfRetryAt; // 이 시각 전까지 RRF 시도 안 함 (0 = 사용 가능)
+
+    // retriever/rrf 를 모르는 클러스터의 요청 파싱 오류 reason
+    // 예) "[1:2] Unknown key for a START_OBJECT in [retriever]." / "[1:20] unknown field [rrf]" / "unknown retriever [rrf]"
+    private static final Pattern RRF_UNKNOWN_KEY = Pattern.compile(
+            "(unknown key for a start_object in|unknown field|unknown retriever)\\s*\\[(retriever|rrf)\\]");
+    private static final Set<String> PARSE_ERROR_TYPES = Set.of(
+            "parsing_exception", "x_content_parse_exception", "named_object_not_found_exception", "illegal_argument_exception");
+
+    /**
+     * 키워드 룰 Top1 kNN 요청 본문 생성 (스트리밍 직렬화된 JSON byte[])
+     * @param rule keyword.json 룰
+     * @param allowTourIds 허용 투어 ID (null/empty 면 필터 없음)
+     * @return 요청 본문
+     */
+    public byte[] buildTop1ByVectorBody(KeywordRule rule, Set<Long> allowTourIds) {
         // 1) 임베딩 텍스트(키워드 + shouldList)
         StringBuilder qt = new StringBuilder();
         if (rule.getKeyword() != null && !rule.getKeyword().isBlank()) qt.append(rule.getKeyword()).append(' ');
@@ -41,112 +67,16 @@ public class TourEsService {
         }
         String queryText = qt.toString().trim();
 
-        // 2) 쿼리 벡터(JSON 배열 문자열)
+        // 2) 쿼리 벡터
         float[] qv = embeddingService.embed(queryText);
-        StringBuilder vec = new StringBuilder("[");
-        for (int i = 0; i < qv.length; i++) { if (i > 0) vec.append(','); vec.append(qv[i]); }
-        vec.append(']');
-
-        // helpers
-        java.util.function.Function<String,String> esc = s -> s == null ? "" : s.replace("\"","\\\"");
-        java.util.function.BiFunction<String,String,String> matchPhrase = (field, term) ->
-                "{\"match_phrase\":{\"" + field + "\":{\"query\":\"" + term + "\",\"slop\":0}}}";
-        java.util.function.Function<String,String> matchPhraseBoostedTitle  = term ->
-                "{\"match_phrase\":{\"title\":{\"query\":\"" + term + "\",\"slop\":0,\"boost\":4}}}";
-        java.util.function.Function<String,String> matchPhraseBoostedDesc   = term ->
-                "{\"match_phrase\":{\"description\":{\"query\":\"" + term + "\",\"slop\":0,\"boost\":3}}}";
-        java.util.function.Function<String,String> matchPhraseBoostedCombo  = term ->
-                "{\"match_phrase\":{\"combined_text\":{\"query\":\"" + term + "\",\"slop\":0,\"boost\":2}}}";
-
-        // 3) allowTourIds → terms
-        StringBuilder allowTerms = new StringBuilder();
-        if (allowTourIds != null && !allowTourIds.isEmpty()) {
-            boolean first = true;
-            for (Long id : allowTourIds) {
-                if (id == null) continue;
-                if (!first) allowTerms.append(',');
-                allowTerms.append(id);
-                first = false;
-            }
-        }
-        boolean hasAllow = allowTerms.length() > 0;
-
-        // 4) shouldList → match_phrase(정확 구문 일치, decompound 회피 목적), 최소 1개 조건 충족
-        List<String> shouldItems = new ArrayList<>();
-        if (rule.getShouldList() != null) {
-            for (String s : rule.getShouldList()) {
-                if (s == null || s.isBlank()) continue;
-                String v = esc.apply(s);
-                // title/description/combined_text 각각 아이템 1개씩 (콤마/괄호 정상)
-                shouldItems.add(matchPhraseBoostedTitle.apply(v));
-                shouldItems.add(matchPhraseBoostedDesc.apply(v));
-                shouldItems.add(matchPhraseBoostedCombo.apply(v));
-            }
-        }
-        String shouldJson = String.join(",", shouldItems);
-        boolean hasShould = !shouldItems.isEmpty();
-
-        // 5) excludeList → must_not (match_phrase 위주로 간단 배제)
-        List<String> mustNotItems = new ArrayList<>();
-        if (rule.getExcludeList() != null) {
-            for (String x : rule.getExcludeList()) {
-                if (x == null || x.isBlank()) continue;
-                String v = esc.apply(x);
-                mustNotItems.add(matchPhrase.apply("title", v));
-                mustNotItems.add(matchPhrase.apply("description", v));
-                mustNotItems.add(matchPhrase.apply("combined_text", v));
-            }
-        }
-        String mustNotJson = String.join(",", mustNotItems);
-        boolean hasMustNot = !mustNotItems.isEmpty();
 
-        // 6) 공용 bool(JSON) — query.bool 과 knn.filter.bool 둘 다 같은 조건(가독성/안정성)
-        List<String> boolParts = new ArrayList<>();
-        if (hasAllow) {
-            boolParts.add("\"filter\":[{\"terms\":{\"tour_id\":[" + allowTerms + "]}}]");
-        }
-        if (hasShould) {
-            boolParts.add("\"should\":[" + shouldJson + "]");
-            boolParts.add("\"minimum_should_match\":1");
-        }
-        if (hasMustNot) {
-            boolParts.add("\"must_not\":[" + mustNotJson + "]");
-        }
-        String boolJson = "{" + String.join(",", boolParts) + "}";
-
-        // 7) 최종 JSON — 단순: kNN 점수로 랭킹, query.bool은 동일 조건으로 필터 역할
-        String json = """
-    {
-      "size": 1,
-      "track_total_hits": false,
-      "_source": ["tour_id"],
-      "collapse": { "field": "tour_id" },
-      "query": { "bool": %s },
-      "knn": {
-        "field": "embedding",
-        "query_vector": %s,
-        "k": 50,
-        "num_candidates": 200,
-        "filter": { "bool": %s }
-      }
+        // 3) kNN 점수로 랭킹, query.bool 은 동일 조건(allow/should/must_not)으로 필터 역할
+        return TourEsQueryWriter.top1ByVectorBody(qv, rule.getShouldList(), rule.getExcludeList(), allowTourIds, 50, 200);
     }
-    """.formatted(boolJson, vec.toString(), boolJson);
 
-//        log.info("생성된 json : {}", json);
-        return json;
-    }
-
-    public TopMatchDto sendRawEsQuery(String rawJson) {
+    public TopMatchDto sendRawEsQuery(byte[] body) {
         try {
-            RestClient rest = ((RestClientTransport) esClient._transport()).restClient();
-            Request req = new Request("POST", "/" + INDEX_TDS + "/_search");
-            req.setJsonEntity(rawJson);
-
-            Response resp = rest.performRequest(req);
-            String body = new String(resp.getEntity().getContent().readAllBytes(), StandardCharsets.UTF_8);
-
-            JsonNode root = new ObjectMapper().readTree(body);
-            JsonNode hits = root.path("hits").path("hits");
+            JsonNode hits = performSearch(body).path("hits").path("hits");
             if (!hits.isArray() || hits.size() == 0) {
                 throw new BusinessException("ES no hit", ErrorCode.ENTITY_NOT_FOUND);
             }
@@ -163,6 +93,22 @@ public class TourEsService {
         }
     }
 
+    // [설명] 직렬화된 본문을 low-level 클라이언트로 그대로 전송 (typed 빌더 재파싱 없이 byte[] → HTTP 본문)
+    private JsonNode performSearch(byte[] body) throws IOException {
+        RestClient rest = ((RestClientTransport) esClient._transport()).restClient();
+        Request req = new Request("POST", "/" + INDEX_TDS + "/_search");
+        req.setEntity(new NByteArrayEntity(body, ContentType.APPLICATION_JSON));
+        Response resp = rest.performRequest(req);
+        try (InputStream in = resp.getEntity().getContent()) {
+            return objectMapper.readTree(in);
+        }
+    }
+
+    // 디버그 로그가 켜진 경우에만 본문 문자열 생성
+    private static String debugJson(byte[] body) {
+        return log.isDebugEnabled() ? new String(body, StandardCharsets.UTF_8) : null;
+    }
+
 
     /// ////////////////////////////////////////
     /// ////////////////////////////////////////////
@@ -183,11 +129,14 @@ public class TourEsService {
     private static final double W_BM25 = 0.7, W_VEC = 0.3;
     private static final double W_BM25_WEAK = 0.4, W_VEC_WEAK = 0.6;
 
+    // RRF 파라미터: 문서 단위 순위 윈도우(collapse 미지원이라 투어 단위 집계는 자바에서 수행)
+    private static final int RRF_RANK_CONSTANT = 60;
+    private static final int RRF_WINDOW = 400;
+
     /* =========================================================
-     * 하이브리드 검색:
-     *   1) BM25 요청(AND 매치, collapse)
-     *   2) [부족이면] kNN 요청
-     *   3) 점수 정규화/가중합(부족 시만) → TopN 맵 반환
+     * 하이브리드 검색 진입점:
+     *   - RRF 사용 가능: BM25 + kNN 을 retriever.rrf 로 한 번에 요청(ES 서버측 융합)
+     *   - RRF 미지원/비활성: 기존 BM25 → (부족 시) kNN → 정규화/가중합
      * ========================================================= */
     public HybridResult searchHybridSimple(
             String userText,
@@ -198,17 +147,140 @@ public class TourEsService {
         if (allowTourIds == null || allowTourIds.isEmpty()) {
             return HybridResult.empty();
         }
+        return searchHybrid(userText, allowTourIds, null, topN, rule);
+    }
+
+    /**
+     * 하이브리드 검색 (ES 비정규화 필드로 직접 필터링). tour_id 목록을 요청 본문에 싣지 않음
+     * @param filter 지역/일정/가격 + 이미 추천된 투어 제외
+     */
+    public HybridResult searchHybridSimple(
+            String userText,
+            TourEsFilter filter,
+            int topN,
+            KeywordRule rule
+    ) throws Exception {
+        return searchHybrid(userText, null, filter, topN, rule);
+    }
+
+    private HybridResult searchHybrid(
+            String userText,
+            Set<Long> allowTourIds,
+            TourEsFilter filter,
+            int topN,
+            KeywordRule rule
+    ) throws Exception {
+        if (rrfEnabled && System.currentTimeMillis() >= rrfRetryAt) {
+            try {
+                return searchHybridRrf(userText, allowTourIds, filter, topN, rule);
+            } catch (ResponseException re) {
+                String cause = rrfUnsupportedCause(re);
+                if (cause == null) throw re;
+                rrfRetryAt = System.currentTimeMillis() + rrfRecheckMs;
+                log.warn("[ES][RRF] 클러스터가 retriever/rrf 를 지원하지 않아 {}ms 동안 기존 하이브리드 방식으로 전환합니다. status={}, cause={}",
+                        rrfRecheckMs, re.getResponse().getStatusLine().getStatusCode(), cause);
+            }
+        }
+        return searchHybridLegacy(userText, allowTourIds, filter, topN, rule);
+    }
+
+    /* =========================================================
+     * RRF 하이브리드 검색(ES 왕복 1회):
+     *   1) 임베딩 생성(userText + should)
+     *   2) retriever.rrf { standard(BM25), knn } 단일 _search
+     *   3) 문서 순위 → 투어별 최고 RRF 점수 → TopN 맵 반환
+     * ========================================================= */
+    private HybridResult searchHybridRrf(
+            String userText,
+            Set<Long> allowTourIds,
+            TourEsFilter filter,
+            int topN,
+            KeywordRule rule
+    ) throws Exception {
+        // 1) 임베딩
+        String vecText = buildVectorText(userText, rule);
+        float[] vec = embeddingService.embed(vecText);
+
+        // 2) RRF 요청 본문 구성 및 실행
+        byte[] rrfBody = TourEsQueryWriter.rrfBody(
+                buildBm25QueryText(userText, rule), vec, excludes(rule), allowTourIds, filter,
+                RRF_WINDOW, KNN_K, KNN_CANDIDATES, RRF_RANK_CONSTANT, RRF_WINDOW);
+        String rrfJson = debugJson(rrfBody);
+        log.debug("[ES][RRF] request=\n{}", rrfJson);
+
+        JsonNode root = performSearch(rrfBody);
+
+        // 3) 투어 단위 집계: 히트는 RRF 점수 내림차순이므로 투어별 첫 등장(최고점)만 채택
+        LinkedHashMap<Long, Double> top = new LinkedHashMap<>();
+        for (JsonNode h : root.path("hits").path("hits")) {
+            JsonNode idNode = h.path("_source").path("tour_id");
+            if (idNode.isMissingNode() || idNode.isNull()) continue;
+            top.putIfAbsent(idNode.asLong(), h.path("_score").asDouble(0.0));
+            if (top.size() >= topN) break;
+        }
 
-        // 1) BM25 원문 JSON 구성
-        String bm25Json = buildBm25Body(userText, rule, allowTourIds);
+        HybridResult out = new HybridResult();
+        out.scores        = top;
+        out.bm25QueryJson = rrfJson;
+        out.knnQueryJson  = null;
+        out.usedVector    = true;
+        out.usedRrf       = true;
+        out.bm25Hits      = top.size();
+        out.bm25MaxScore  = 0.0;
+        return out;
+    }
+
+    /**
+     * [설명] 폴백 대상 오류면 원인(type: reason), 아니면 null
+     * - 400 파싱 오류이고 reason 이 retriever/rrf 키를 모른다는 내용 (구버전 클러스터)
+     * - 403 security_exception 이고 reason 이 rrf 라이선스 미보유 ("current license is non-compliant for [Reciprocal Rank Fusion (RRF)]")
+     * error 본문의 최상위/root_cause/caused_by 를 모두 확인. 그 외 400/403 (잘못된 필터, 권한 없음 등)은 그대로 전파
+     */
+    private String rrfUnsupportedCause(ResponseException re) {
+        int status = re.getResponse().getStatusLine().getStatusCode();
+        if (status != 400 && status != 403) return null;
+        JsonNode error;
+        try (InputStream in = re.getResponse().getEntity().getContent()) {
+            error = objectMapper.readTree(in).path("error");
+        } catch (Exception e) {
+            return null;
+        }
+
+        List<JsonNode> causes = new ArrayList<>();
+        for (JsonNode c = error; c.isObject(); c = c.path("caused_by")) causes.add(c);
+        error.path("root_cause").forEach(causes::add);
+        for (JsonNode c : causes) {
+            String type = c.path("type").asText("");
+            String reason = c.path("reason").asText("").toLowerCase(Locale.ROOT);
+            boolean unknownKey = status == 400 && PARSE_ERROR_TYPES.contains(type) && RRF_UNKNOWN_KEY.matcher(reason).find();
+            boolean unlicensed = status == 403 && "security_exception".equals(type) && reason.contains("license")
+                    && (reason.contains("rrf") || reason.contains("reciprocal rank fusion"));
+            if (unknownKey || unlicensed) return type + ": " + reason;
+        }
+        return null;
+    }
+
+    /* =========================================================
+     * 기존 하이브리드 검색(RRF 미지원 클러스터용):
+     *   1) BM25 요청(AND 매치, collapse)
+     *   2) [부족이면] kNN 요청
+     *   3) 점수 정규화/가중합(부족 시만) → TopN 맵 반환
+     * ========================================================= */
+    private HybridResult searchHybridLegacy(
+            String userText,
+            Set<Long> allowTourIds,
+            TourEsFilter filter,
+            int topN,
+            KeywordRule rule
+    ) throws Exception {
+        // 1) BM25 요청 본문 구성
+        byte[] bm25Body = TourEsQueryWriter.bm25Body(
+                buildBm25QueryText(userText, rule), excludes(rule), allowTourIds, filter, SIZE_GROUPED);
+        String bm25Json = debugJson(bm25Body);
         log.debug("[ES][BM25] request=\n{}", bm25Json);
 
         // 2) BM25 실행
-        SearchResponse<Map> bm25Resp = esClient.search(
-                s -> s.index(INDEX_TDS).withJson(new StringReader(bm25Json)),
-                Map.class
-        );
-        ParseResult bm25 = parseScores(bm25Resp); // 투어단위 점수/최대점/총건수
+        ParseResult bm25 = parseScores(performSearch(bm25Body)); // 투어단위 점수/최대점/총건수
 
         // 3) 부족 판단: 결과 0건 또는 max_score < 8.0
         boolean weak = (bm25.totalHits <= 0) || (bm25.maxScore < BM25_MIN_MAX_SCORE);
@@ -218,18 +290,16 @@ public class TourEsService {
         boolean usedVector = false;
 
         if (weak) {
-            // 4) kNN 원문 JSON 구성 (임베딩 텍스트: userText + should)
+            // 4) kNN 요청 본문 구성 (임베딩 텍스트: userText + should)
             String vecText = buildVectorText(userText, rule);
             float[] vec = embeddingService.embed(vecText);
-            knnJson = buildKnnBody(vec, rule, allowTourIds);
+            byte[] knnBody = TourEsQueryWriter.knnBody(
+                    vec, excludes(rule), allowTourIds, filter, SIZE_GROUPED, KNN_K, KNN_CANDIDATES);
+            knnJson = debugJson(knnBody);
             log.debug("[ES][kNN] request=\n{}", knnJson);
 
             // 5) kNN 실행
-            SearchResponse<Map> knnResp = esClient.search(
-                    s -> s.index(INDEX_TDS).withJson(new StringReader(knnJson)),
-                    Map.class
-            );
-            ParseResult knn = parseScores(knnResp);
+            ParseResult knn = parseScores(performSearch(knnBody));
             usedVector = true;
 
             // 6) 정규화 후 가중합 (부족 시만: 0.4*BM25 + 0.6*Vector)
@@ -251,7 +321,7 @@ public class TourEsService {
         // 8) 결과 패키징(원문 포함)
         HybridResult out = new HybridResult();
         out.scores        = top;
-        out.bm25QueryJson = bm25Json;
+        out.bm25QueryJson = bm25Json; // 디버그 로그 비활성 시 null
         out.knnQueryJson  = knnJson;  // 사용 안 했으면 null
         out.usedVector    = usedVector;
         out.bm25Hits      = bm25.totalHits;
@@ -259,85 +329,26 @@ public class TourEsService {
         return out;
     }
 
-    /* ---------- JSON 빌더(간결) ---------- */
-
-    // _source를 배열이 아닌 오브젝트 형태로 생성 (Java 클라이언트 역직렬화 오류 방지)
-    private String buildBm25Body(String userText, KeywordRule rule, Set<Long> allowIds) {
-        String q = buildBm25QueryText(userText, rule);
-        String terms = allowIds.stream().map(String::valueOf).collect(Collectors.joining(","));
-        String mustNot = buildMustNot(rule);
-
-        return """
-    {
-      "track_total_hits": false,
-      "_source": { "includes": ["tour_id"] },
-      "size": %d,
-      "collapse": { "field": "tour_id" },
-      "query": {
-        "bool": {
-          "filter": [ { "terms": { "tour_id": [ %s ] } } ]%s,
-          "must": { "match": { "combined_text": { "query": "%s", "operator": "and" } } }
-        }
-      }
-    }
-    """.formatted(SIZE_GROUPED, terms, mustNot, escape(q));
-    }
-
-    // _source를 배열이 아닌 오브젝트 형태로 생성 (Java 클라이언트 역직렬화 오류 방지)
-    private String buildKnnBody(float[] vec, KeywordRule rule, Set<Long> allowIds) {
-        String terms = allowIds.stream().map(String::valueOf).collect(Collectors.joining(","));
-        String mustNot = buildMustNot(rule);
-        String vecJson = toJsonArray(vec);
-
-        return """
-    {
-      "track_total_hits": false,
-      "_source": { "includes": ["tour_id"] },
-      "size": %d,
-      "collapse": { "field": "tour_id" },
-      "query": {
-        "bool": {
-          "filter": [ { "terms": { "tour_id": [ %s ] } } ]%s
-        }
-      },
-      "knn": {
-        "field": "embedding",
-        "query_vector": %s,
-        "k": %d,
-        "num_candidates": %d,
-        "filter": {
-          "bool": {
-            "filter": [ { "terms": { "tour_id": [ %s ] } } ]%s
-          }
-        }
-      }
-    }
-    """.formatted(
-                SIZE_GROUPED,
-                terms, mustNot,
-                vecJson, KNN_K, KNN_CANDIDATES,
-                terms, mustNot
-        );
-    }
-
     /* ---------- 파싱/가공 유틸 ---------- */
 
     // [설명] collapse(field=tour_id)로 "투어당 대표 1문서"만 올라옵니다.
 //        여기서는 대표 hit의 _score를 투어 점수로 사용합니다.
 //        (inner_hits 평균이 필요하면 averageInnerHitsScore(...)를 사용해 교체 가능)
-    private ParseResult parseScores(SearchResponse<Map> resp) {
+    private ParseResult parseScores(JsonNode root) {
         Map<Long, Double> tourScore = new LinkedHashMap<>();
         double maxScore = 0.0;
-        for (Hit<Map> h : resp.hits().hits()) {
+        JsonNode hits = root.path("hits");
+        for (JsonNode h : hits.path("hits")) {
             Long tourId = readTourId(h);                           // [_source → fields] 순으로 안전 추출
             if (tourId == null) continue;
-            double s = h.score() == null ? 0.0 : h.score();        // 대표 문서 점수 채택
+            double s = h.path("_score").asDouble(0.0);             // 대표 문서 점수 채택
             tourScore.put(tourId, s);
             if (s > maxScore) maxScore = s;                        // 정규화용 최대값
         }
-        int total = resp.hits().total() == null
+        JsonNode totalNode = hits.path("total").path("value");
+        int total = totalNode.isMissingNode()
                 ? tourScore.size()
-                : (int) resp.hits().total().value();               // 부족 판정에 사용
+                : totalNode.asInt();                               // 부족 판정에 사용
 
         ParseResult r = new ParseResult();
         r.tourScores = tourScore;
@@ -346,19 +357,12 @@ public class TourEsService {
         return r;
     }
 
-    private Long readTourId(Hit<Map> h) {
-        Map<String, Object> src = h.source();
-        if (src != null && src.get("tour_id") != null) {
-            Object v = src.get("tour_id");
-            if (v instanceof Number n) return n.longValue();
-            try { return Long.parseLong(String.valueOf(v)); } catch (Exception ignore) {}
-        }
-        if (h.fields() != null && h.fields().get("tour_id") instanceof List<?> list && !list.isEmpty()) {
-            Object v = list.get(0);
-            if (v instanceof Number n) return n.longValue();
-            try { return Long.parseLong(String.valueOf(v)); } catch (Exception ignore) {}
-        }
-        return null;
+    private Long readTourId(JsonNode h) {
+        JsonNode v = h.path("_source").path("tour_id");
+        if (v.isMissingNode() || v.isNull()) v = h.path("fields").path("tour_id").path(0);
+        if (v.isMissingNode() || v.isNull()) return null;
+        if (v.isNumber()) return v.asLong();
+        try { return Long.parseLong(v.asText()); } catch (Exception ignore) { return null; }
     }
 
     // [설명] 점수 맵을 max 값으로 나눠 0~1 정규화 (max<=0이면 원본 유지)
@@ -406,29 +410,9 @@ public class TourEsService {
         return sb.toString().trim();
     }
 
-    // [설명] must_not(제외어) 구성 → combined_text에 OR match로 배제
-    private String buildMustNot(KeywordRule rule) {
-        if (rule == null || rule.getExcludeList() == null || rule.getExcludeList().isEmpty()) return "";
-        String blocks = rule.getExcludeList().stream()
-                .filter(s -> s != null && !s.isBlank())
-                .map(s -> "{\"match\":{\"combined_text\":{\"query\":\"" + escape(s) + "\",\"operator\":\"or\"}}}")
-                .collect(Collectors.joining(","));
-        return blocks.isBlank() ? "" : ", \"must_not\":[" + blocks + "]";
-    }
-
-    private static String escape(String s) {
-        if (s == null) return "";
-        return s.replace("\\", "\\\\").replace("\"", "\\\"").trim();
-    }
-
-    private static String toJsonArray(float[] vec) {
-        if (vec == null || vec.length == 0) return "[]";
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < vec.length; i++) {
-            if (i > 0) sb.append(',');
-            sb.append(String.format(Locale.ROOT, "%.6f", vec[i]));
-        }
-        return sb.append(']').toString();
+    // [설명] 제외어(must_not) 목록
+    private static List<String> excludes(KeywordRule rule) {
+        return rule == null ? null : rule.getExcludeList();
     }
 
     /* ---------- DTO ---------- */
@@ -437,13 +421,14 @@ public class TourEsService {
         public String bm25QueryJson;        // BM25 요청 원문 JSON
         public String knnQueryJson;         // kNN 요청 원문 JSON(미사용이면 null)
         public boolean usedVector;          // 벡터 사용 여부
+        public boolean usedRrf;             // ES RRF(단일 요청) 사용 여부
         public int bm25Hits;                // BM25 총 히트 수
         public double bm25MaxScore;         // BM25 max_score
 
         public static HybridResult empty() {
             HybridResult r = new HybridResult();
             r.scores = Collections.emptyMap();
-            r.bm25QueryJson = null; r.knnQueryJson = null; r.usedVector = false;
+            r.bm25QueryJson = null; r.knnQueryJson = null; r.usedVector = false; r.usedRrf = false;
             r.bm25Hits = 0; r.bm25MaxScore = 0.0;
             return r;
         }
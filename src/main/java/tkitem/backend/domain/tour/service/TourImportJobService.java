@@ -0,0 +1,399 @@
+package tkitem.backend.domain.tour.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tkitem.backend.domain.tour.dto.TourImportJobDto;
+import tkitem.backend.domain.tour.dto.TourImportReportDto;
+import tkitem.backend.domain.tour.mapper.TourImportJobMapper;
+import tkitem.backend.global.error.ErrorCode;
+import tkitem.backend.global.error.exception.BusinessException;
+import tkitem.backend.global.util.HashUtil;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 투어 적재 작업 (제출 → 작업 풀에서 실행 → 진행 조회/SSE → 취소)
+ * - 원본: 서버 경로 (base-dir 아래만 허용) 또는 업로드 파일 (upload-dir 에 저장 후 적재, 끝나면 삭제)
+ * - 같은 데이터셋(datasetKey)은 대기/실행 중 1건만: 이 인스턴스는 메모리에서, 다른 인스턴스와는 TOUR_IMPORT_JOB 고유 인덱스로 거절
+ * - 실행 중 진행 수치는 progress-interval 마다 SSE 로 보내고, persist-interval 마다 테이블에 기록 (하트비트 겸용)
+ * - 취소는 작업을 실행하는 인스턴스에서만 (파싱을 멈추고 이미 넘긴 파티션은 커밋, 같은 원본을 다시 제출하면 커밋된 파티션은 RESUMED)
+ * - 재개 기록은 datasetKey 범위: 완료되면 삭제, 다른 데이터셋 적재가 시작되면 그 사이 덮였을 수 있으므로 삭제
+ */
+@Service
+@Slf4j
+public class TourImportJobService {
+
+    private final DataLoadService dataLoadService;
+    private final TourImportJobMapper jobMapper;
+    private final ObjectMapper objectMapper;
+    private final Executor jobExecutor;
+    private final ScheduledExecutorService ticker;
+
+    @Value("${tour.import.base-dir:./data}")
+    private String baseDir;
+
+    @Value("${tour.import.default-file:trip_data.json}")
+    private String defaultFile;
+
+    @Value("${tour.import.upload-dir:${java.io.tmpdir}/tour-import}")
+    private String uploadDir;
+
+    @Value("${tour.import.max-upload-bytes:536870912}")
+    private long maxUploadBytes; // 업로드 1건 상한 (multipart 제한을 쓰지 않으므로 직접 제한)
+
+    @Value("${tour.import.persist-interval-ms:5000}")
+    private long persistIntervalMs;
+
+    @Value("${tour.import.stale-after-ms:300000}")
+    private long staleAfterMs; // persist-interval 보다 충분히 길게
+
+    @Value("${tour.import.sse-timeout-ms:3600000}")
+    private long sseTimeoutMs;
+
+    // 이 인스턴스에서 대기/실행 중인 작업
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private static final class Job {
+        final String jobId;
+        final String datasetKey;
+        final String sourceType;
+        final Path file;
+        final boolean deleteAfter;
+        final long bytesTotal;
+        final Date createdAt = new Date();
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        volatile Date startedAt;
+        volatile TourImportProgress progress;
+        volatile boolean cancelRequested;
+        long persistedAt;
+
+        Job(String jobId, String datasetKey, String sourceType, Path file, boolean deleteAfter, long bytesTotal) {
+            this.jobId = jobId;
+            this.datasetKey = datasetKey;
+            this.sourceType = sourceType;
+            this.file = file;
+            this.deleteAfter = deleteAfter;
+            this.bytesTotal = bytesTotal;
+        }
+    }
+
+    public TourImportJobService(DataLoadService dataLoadService, TourImportJobMapper jobMapper, ObjectMapper objectMapper,
+                                @Qualifier("tourImportJobExecutor") Executor jobExecutor,
+                                @Value("${tour.import.progress-interval-ms:1000}") long progressIntervalMs) {
+        this.dataLoadService = dataLoadService;
+        this.jobMapper = jobMapper;
+        this.objectMapper = objectMapper;
+        this.jobExecutor = jobExecutor;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "tour-import-progress"));
+        long interval = Math.max(200, progressIntervalMs);
+        this.ticker.scheduleAtFixedRate(this::tick, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 서버 경로의 파일 적재 제출
+     * @param path base-dir 기준 상대 경로 (비우면 default-file)
+     */
+    public TourImportJobDto submitPath(String path) {
+        // 심볼릭 링크를 따라간 실제 경로로 비교 (base-dir 안의 링크가 밖을 가리키는 경우 거절)
+        Path file;
+        try {
+            Path base = Path.of(baseDir).toRealPath();
+            file = base.resolve(path == null || path.isBlank() ? defaultFile : path).toRealPath();
+            if (!file.startsWith(base)) file = null;
+        } catch (IOException | InvalidPathException e) {
+            file = null;
+        }
+        if (file == null || !Files.isRegularFile(file) || !Files.isReadable(file)) {
+            throw new BusinessException("tour import source not readable: " + path, ErrorCode.TOUR_IMPORT_SOURCE_INVALID);
+        }
+        return submit(HashUtil.hash("PATH:" + file), "PATH", file, false);
+    }
+
+    /**
+     * 업로드 본문을 upload-dir 에 저장하면서 내용 해시를 계산한 뒤 제출 (multipart 크기 제한을 받지 않도록 요청 본문 스트림을 그대로 받음)
+     * max-upload-bytes 를 넘으면 Content-Length 로 먼저 거절하고, 길이를 모르면 저장 중 상한에서 중단
+     * @param contentLength 요청의 Content-Length (모르면 -1)
+     */
+    public TourImportJobDto submitUpload(InputStream body, long contentLength) throws IOException {
+        if (contentLength > maxUploadBytes) {
+            throw new BusinessException("tour import upload too large: " + contentLength, ErrorCode.TOUR_IMPORT_SOURCE_INVALID);
+        }
+        Path dir = Path.of(uploadDir);
+        Files.createDirectories(dir);
+        Path file = Files.createTempFile(dir, "tour-import-", ".json");
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            try (DigestInputStream in = new DigestInputStream(new LimitedInputStream(body, maxUploadBytes), md)) {
+                Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (Files.size(file) == 0) {
+                throw new BusinessException("tour import upload is empty", ErrorCode.TOUR_IMPORT_SOURCE_INVALID);
+            }
+            return submit(HexFormat.of().withUpperCase().formatHex(md.digest()), "UPLOAD", file, true);
+        } catch (NoSuchAlgorithmException e) {
+            deleteQuietly(file);
+            throw new IllegalStateException("SHA-256 Algorithm not found", e);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    private TourImportJobDto submit(String datasetKey, String sourceType, Path file, boolean deleteAfter) {
+        // 1) 이 인스턴스에서 같은 데이터셋이 대기/실행 중이면 거절
+        for (Job j : jobs.values()) {
+            if (j.datasetKey.equals(datasetKey)) {
+                throw new BusinessException("tour import already running: " + j.jobId, ErrorCode.TOUR_IMPORT_ALREADY_RUNNING);
+            }
+        }
+
+        // 2) 하트비트가 끊긴 작업 정리 후 등록 (다른 인스턴스에서 대기/실행 중이면 고유 인덱스 위반)
+        long bytesTotal;
+        try {
+            bytesTotal = Files.size(file);
+        } catch (IOException e) {
+            throw new BusinessException("tour import source not readable: " + file, ErrorCode.TOUR_IMPORT_SOURCE_INVALID);
+        }
+        Job job = new Job(UUID.randomUUID().toString(), datasetKey, sourceType, file, deleteAfter, bytesTotal);
+        jobMapper.failStaleJobs(datasetKey, Math.max(1, staleAfterMs / 1000));
+        try {
+            jobMapper.insertJob(toDto(job, "QUEUED"));
+        } catch (DuplicateKeyException e) {
+            throw new BusinessException("tour import already running for dataset " + datasetKey, ErrorCode.TOUR_IMPORT_ALREADY_RUNNING);
+        }
+
+        // 3) 작업 풀에 넘김 (큐가 차면 FAILED 로 기록 후 거절)
+        jobs.put(job.jobId, job);
+        try {
+            jobExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.jobId);
+            finish(job, "FAILED", null, "queue full");
+            throw new BusinessException("tour import queue is full", ErrorCode.TOUR_IMPORT_QUEUE_FULL);
+        }
+        log.info("[IMPORT-JOB] submitted jobId={} type={} source={} bytes={}", job.jobId, sourceType, file, bytesTotal);
+        return toDto(job, "QUEUED");
+    }
+
+    private void run(Job job) {
+        try {
+            if (job.cancelRequested) {
+                finish(job, "CANCELLED", null, null);
+                return;
+            }
+            TourImportProgress progress = new TourImportProgress(job.bytesTotal);
+            job.startedAt = new Date();
+            job.progress = progress;
+            if (job.cancelRequested) progress.cancel(); // 시작 직전에 들어온 취소
+            jobMapper.markRunning(job.jobId);
+            log.info("[IMPORT-JOB] started jobId={}", job.jobId);
+
+            TourImportReportDto report = dataLoadService.loadDataFromCsv(job.file.toString(), job.datasetKey, progress);
+            finish(job, report.isCancelled() ? "CANCELLED" : "SUCCEEDED", report, null);
+        } catch (Exception e) {
+            log.error("[IMPORT-JOB] failed jobId={}", job.jobId, e);
+            finish(job, "FAILED", null, e.toString());
+        } finally {
+            if (job.deleteAfter) deleteQuietly(job.file);
+        }
+    }
+
+    /**
+     * 작업 상태 (이 인스턴스에서 대기/실행 중이면 실시간 값, 아니면 테이블 값)
+     */
+    public TourImportJobDto get(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job != null) return toDto(job, statusOf(job));
+        TourImportJobDto row = jobMapper.selectJob(jobId);
+        if (row == null) {
+            throw new BusinessException("tour import job not found: " + jobId, ErrorCode.TOUR_IMPORT_JOB_NOT_FOUND);
+        }
+        return row;
+    }
+
+    /**
+     * 진행 상황 SSE 구독 (event: progress 반복, 끝나면 event: done 후 종료)
+     */
+    public SseEmitter subscribe(String jobId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            if (send(emitter, "done", get(jobId))) emitter.complete();
+            return emitter;
+        }
+
+        job.emitters.add(emitter);
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(e -> job.emitters.remove(emitter));
+        if (jobs.containsKey(jobId)) {
+            send(emitter, "progress", toDto(job, statusOf(job)));
+        } else {
+            // 등록 사이에 끝난 작업 (done 이벤트를 놓쳤으므로 테이블 값으로)
+            job.emitters.remove(emitter);
+            if (send(emitter, "done", get(jobId))) emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * 취소 요청 (대기 중이면 시작하지 않고, 실행 중이면 파싱을 멈춤)
+     */
+    public TourImportJobDto cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            // 이미 끝났거나 다른 인스턴스 작업: 현재 상태만 반환
+            return get(jobId);
+        }
+        job.cancelRequested = true;
+        TourImportProgress progress = job.progress;
+        if (progress != null) progress.cancel();
+        log.info("[IMPORT-JOB] cancel requested jobId={}", jobId);
+        return toDto(job, statusOf(job));
+    }
+
+    @PreDestroy
+    public void close() {
+        ticker.shutdownNow();
+        jobs.values().forEach(j -> {
+            j.cancelRequested = true;
+            TourImportProgress progress = j.progress;
+            if (progress != null) progress.cancel();
+        });
+    }
+
+    // 진행 상황 전송 + 주기적 기록 (ticker 스레드)
+    private void tick() {
+        long now = System.currentTimeMillis();
+        for (Job job : jobs.values()) {
+            try {
+                TourImportJobDto dto = toDto(job, statusOf(job));
+                job.emitters.forEach(e -> send(e, "progress", dto));
+                if (now - job.persistedAt >= persistIntervalMs) {
+                    job.persistedAt = now;
+                    jobMapper.updateProgress(dto);
+                }
+            } catch (Exception e) {
+                log.warn("[IMPORT-JOB] progress update failed jobId={} : {}", job.jobId, e.toString());
+            }
+        }
+    }
+
+    private void finish(Job job, String status, TourImportReportDto report, String error) {
+        TourImportJobDto dto = toDto(job, status).toBuilder()
+                .etaSeconds("SUCCEEDED".equals(status) ? Long.valueOf(0L) : null)
+                .errorMessage(error == null ? null : error.substring(0, Math.min(error.length(), 1000)))
+                .finishedAt(new Date())
+                .build();
+        try {
+            if (report != null) {
+                dto = dto.toBuilder().reportJson(objectMapper.writeValueAsString(report)).build();
+            }
+            jobMapper.finishJob(dto);
+        } catch (Exception e) {
+            log.error("[IMPORT-JOB] finish record failed jobId={} status={}", job.jobId, status, e);
+        } finally {
+            jobs.remove(job.jobId);
+        }
+        log.info("[IMPORT-JOB] finished jobId={} status={} written={} failed={}",
+                job.jobId, status, dto.getTripsWritten(), dto.getTripsFailed());
+        for (SseEmitter e : job.emitters) {
+            if (send(e, "done", dto)) e.complete();
+        }
+    }
+
+    private String statusOf(Job job) {
+        return job.progress == null ? "QUEUED" : "RUNNING";
+    }
+
+    private TourImportJobDto toDto(Job job, String status) {
+        TourImportProgress progress = job.progress;
+        TourImportProgress.Snapshot s = progress == null ? null : progress.snapshot();
+        return TourImportJobDto.builder()
+                .jobId(job.jobId)
+                .datasetKey(job.datasetKey)
+                .sourceType(job.sourceType)
+                .sourcePath("UPLOAD".equals(job.sourceType) ? job.file.getFileName().toString() : job.file.toString())
+                .status(status)
+                .bytesTotal(job.bytesTotal)
+                .bytesRead(s == null ? 0L : s.bytesRead())
+                .tripsParsed(s == null ? 0L : s.tripsParsed())
+                .tripsSkipped(s == null ? 0L : s.tripsSkipped())
+                .tripsWritten(s == null ? 0L : s.tripsWritten())
+                .tripsFailed(s == null ? 0L : s.tripsFailed())
+                .partitionsDone(s == null ? 0L : s.partitionsDone())
+                .ratePerSec(s == null ? null : s.ratePerSec())
+                .etaSeconds(s == null ? null : s.etaSeconds())
+                .createdAt(job.createdAt)
+                .startedAt(job.startedAt)
+                .build();
+    }
+
+    private boolean send(SseEmitter emitter, String event, TourImportJobDto dto) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(dto));
+            return true;
+        } catch (Exception e) {
+            // 연결이 끊긴 구독자 (onError/onCompletion 에서 목록에서 빠짐)
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    // 상한을 넘겨 읽으면 예외 (Content-Length 없이 보내는 본문 대비)
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long read;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) count(n);
+            return n;
+        }
+
+        private void count(int n) {
+            read += n;
+            if (read > limit) {
+                throw new BusinessException("tour import upload exceeds " + limit + " bytes", ErrorCode.TOUR_IMPORT_SOURCE_INVALID);
+            }
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("[IMPORT-JOB] temp file delete failed {} : {}", file, e.toString());
+        }
+    }
+}
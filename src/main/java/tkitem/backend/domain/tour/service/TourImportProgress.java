@@ -0,0 +1,109 @@
+package tkitem.backend.domain.tour.service;
+
+import tkitem.backend.domain.tour.dto.TourImportPartitionDto;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 투어 적재 1회의 진행 상황과 취소 요청
+ * - 파싱 스레드 / 파티션 작업 스레드가 갱신하고, 조회/SSE 스레드가 snapshot() 으로 읽음
+ * - 처리 속도 = (파티션 처리 끝난 trip + 건너뛴 trip) / 경과 초
+ * - 남은 시간 = 예상 전체 trip 기준 (파싱 중에는 읽은 바이트 비율로 전체 trip 수를 추정)
+ */
+public final class TourImportProgress {
+
+    public record Snapshot(long bytesTotal, long bytesRead, long tripsParsed, long tripsSkipped,
+                           long tripsWritten, long tripsFailed, long partitionsSubmitted, long partitionsDone,
+                           boolean parsingDone, double ratePerSec, Long etaSeconds, long elapsedMs) {}
+
+    private final long startedAt = System.currentTimeMillis();
+    private final long bytesTotal;
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong tripsParsed = new AtomicLong();
+    private final AtomicLong tripsSkipped = new AtomicLong();
+    private final AtomicLong tripsDone = new AtomicLong();     // 파티션 처리가 끝난 trip (성공/실패/보류 포함)
+    private final AtomicLong tripsWritten = new AtomicLong();  // 그 중 저장된 trip (이전 실행에서 커밋된 RESUMED 포함)
+    private final AtomicLong tripsFailed = new AtomicLong();
+    private final AtomicLong partitionsSubmitted = new AtomicLong();
+    private final AtomicLong partitionsDone = new AtomicLong();
+
+    private volatile boolean parsingDone;
+    private volatile boolean cancelled;
+
+    public TourImportProgress(long bytesTotal) {
+        this.bytesTotal = Math.max(0, bytesTotal);
+    }
+
+    // 진행 상황이 필요 없는 호출용
+    public static TourImportProgress none() {
+        return new TourImportProgress(0);
+    }
+
+    void parsed(long byteOffset) {
+        tripsParsed.incrementAndGet();
+        if (byteOffset > 0) bytesRead.accumulateAndGet(byteOffset, Math::max);
+    }
+
+    void skipped() {
+        tripsSkipped.incrementAndGet();
+    }
+
+    void partitionSubmitted() {
+        partitionsSubmitted.incrementAndGet();
+    }
+
+    void partitionDone(TourImportPartitionDto p) {
+        int trips = p.getTripCount();
+        int failed = p.getFailed() == null ? 0 : p.getFailed();
+        int quarantined = p.getQuarantined() == null ? 0 : p.getQuarantined();
+        switch (p.getStatus()) {
+            case "RESUMED" -> tripsWritten.addAndGet(trips);
+            case "FAILED" -> tripsFailed.addAndGet(Math.max(failed, trips));
+            case "CANCELLED" -> { }
+            default -> {
+                tripsWritten.addAndGet(Math.max(0, trips - failed - quarantined));
+                tripsFailed.addAndGet(failed);
+            }
+        }
+        tripsDone.addAndGet(trips);
+        partitionsDone.incrementAndGet();
+    }
+
+    void parsingDone() {
+        if (bytesTotal > 0 && !cancelled) bytesRead.set(bytesTotal);
+        parsingDone = true;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public Snapshot snapshot() {
+        long elapsedMs = Math.max(1, System.currentTimeMillis() - startedAt);
+        long read = bytesRead.get();
+        long parsed = tripsParsed.get();
+        long processed = tripsDone.get() + tripsSkipped.get();
+        double rate = processed * 1000.0 / elapsedMs;
+
+        // 1) 예상 전체 trip (파싱이 끝났으면 실제 값)
+        long estimatedTotal = parsingDone ? parsed
+                : (read > 0 && bytesTotal > 0) ? Math.round(parsed * (double) bytesTotal / read) : 0;
+
+        // 2) 남은 시간 (추정 불가면 null)
+        Long eta = null;
+        if (parsingDone && processed >= estimatedTotal) {
+            eta = 0L;
+        } else if (rate > 0 && estimatedTotal > processed) {
+            eta = Math.round((estimatedTotal - processed) / rate);
+        }
+
+        return new Snapshot(bytesTotal, read, parsed, tripsSkipped.get(), tripsWritten.get(), tripsFailed.get(),
+                partitionsSubmitted.get(), partitionsDone.get(), parsingDone,
+                Math.round(rate * 10) / 10.0, eta, elapsedMs);
+    }
+}
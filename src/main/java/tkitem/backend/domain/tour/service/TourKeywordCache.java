@@ -0,0 +1,159 @@
+package tkitem.backend.domain.tour.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import tkitem.backend.domain.tour.dto.KeywordRule;
+import tkitem.backend.domain.tour.dto.TopMatchDto;
+import tkitem.backend.domain.tour.dto.response.TourCommonRecommendDto;
+import tkitem.backend.domain.tour.event.TourCatalogChangedEvent;
+import tkitem.backend.domain.tour.logic.KeywordRuleLoader;
+import tkitem.backend.domain.tour.logic.TourLocationLoader;
+import tkitem.backend.domain.tour.mapper.TourMapper;
+import tkitem.backend.global.error.ErrorCode;
+import tkitem.backend.global.error.exception.BusinessException;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * keyword.json 고정 키워드별 Top1 투어 사전 계산 캐시
+ * - 기동 시 / 데이터 적재·분류 완료 시(invalidateAll) 백그라운드에서 전체 재계산
+ * - 조회는 메모리에서 바로 반환하고, 오래되었거나 무효화된 항목은 기존 값을 주면서 비동기 갱신 (stale-while-revalidate)
+ * - 캐시에 없는 키워드만 요청 스레드에서 동기 계산
+ */
+@Service
+@Slf4j
+public class TourKeywordCache {
+
+    private final TourEsService tourEsService;
+    private final TourMapper tourMapper;
+    private final KeywordRuleLoader ruleLoader;
+    private final TourLocationLoader tourLocationLoader;
+    private final Executor executor;
+
+    @Value("${tour.keyword-cache.ttl:6h}")
+    private Duration ttl;
+
+    @Value("${tour.keyword-cache.warm-on-startup:true}")
+    private boolean warmOnStartup;
+
+    private final Map<String, Entry> byKeyword = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    // invalidateAll 마다 증가. 이전 세대 항목은 stale 로 취급
+    private final AtomicLong generation = new AtomicLong();
+
+    private record Entry(TourCommonRecommendDto value, long loadedAt, long generation) {}
+
+    public TourKeywordCache(TourEsService tourEsService, TourMapper tourMapper, KeywordRuleLoader ruleLoader,
+                            TourLocationLoader tourLocationLoader,
+                            @Qualifier("keywordCacheExecutor") Executor executor) {
+        this.tourEsService = tourEsService;
+        this.tourMapper = tourMapper;
+        this.ruleLoader = ruleLoader;
+        this.tourLocationLoader = tourLocationLoader;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmOnStartup) return;
+        log.info("[KEYWORD-CACHE] warm-up {} keywords", ruleLoader.keywords().size());
+        ruleLoader.keywords().forEach(this::refreshAsync);
+    }
+
+    public TourCommonRecommendDto get(String keyword) {
+        KeywordRule rule = ruleLoader.getRequired(keyword);
+
+        Entry e = byKeyword.get(keyword);
+        if (e == null) {
+            return load(keyword, rule, generation.get()).value();
+        }
+        if (isStale(e)) {
+            refreshAsync(keyword);
+        }
+        return e.value();
+    }
+
+    /**
+     * 투어 적재로 실제 바뀐 데이터가 있을 때만 재계산 (투어별 도시 캐시가 먼저 비워진 뒤)
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCatalogChanged(TourCatalogChangedEvent event) {
+        if (!event.isEmpty()) invalidateAll();
+    }
+
+    /**
+     * 투어/일정/라벨 데이터가 바뀐 뒤 호출. 기존 값은 유지한 채 전체 키워드를 백그라운드 재계산
+     */
+    public void invalidateAll() {
+        long gen = generation.incrementAndGet();
+        log.info("[KEYWORD-CACHE] invalidated (generation={})", gen);
+        ruleLoader.keywords().forEach(this::refreshAsync);
+    }
+
+    private boolean isStale(Entry e) {
+        return e.generation() < generation.get()
+                || System.currentTimeMillis() - e.loadedAt() > ttl.toMillis();
+    }
+
+    // 키워드별 동시 갱신 1개로 제한
+    private void refreshAsync(String keyword) {
+        if (!refreshing.add(keyword)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    load(keyword, ruleLoader.getRequired(keyword), generation.get());
+                } catch (Exception ex) {
+                    log.warn("[KEYWORD-CACHE] refresh failed keyword={} : {}", keyword, ex.getMessage());
+                } finally {
+                    refreshing.remove(keyword);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            refreshing.remove(keyword);
+            log.warn("[KEYWORD-CACHE] refresh rejected keyword={}", keyword);
+        }
+    }
+
+    private Entry load(String keyword, KeywordRule rule, long gen) {
+        long t0 = System.nanoTime();
+
+        // 1) 허용 tourId 조회 (country 우선, 없으면 countryGroup)
+        Set<Long> allow = null;
+        if (rule.getCountry() != null && !rule.getCountry().isBlank()) {
+            List<Long> ids = tourMapper.selectAllowTourIdsByCountry(rule.getCountry());
+            allow = (ids == null || ids.isEmpty()) ? Collections.emptySet() : new HashSet<>(ids);
+        } else if (rule.getCountryGroup() != null && !rule.getCountryGroup().isBlank()) {
+            List<Long> ids = tourMapper.selectAllowTourIdsByCountryGroup(rule.getCountryGroup());
+            allow = (ids == null || ids.isEmpty()) ? Collections.emptySet() : new HashSet<>(ids);
+        }
+
+        // 2) kNN Top1
+        byte[] body = tourEsService.buildTop1ByVectorBody(rule, allow);
+        TopMatchDto top = tourEsService.sendRawEsQuery(body);
+
+        // 3) 메타 조회
+        List<TourCommonRecommendDto> metas = tourMapper.selectTourMetaByTourIds(List.of(top.tourId()));
+        if (metas == null || metas.isEmpty()) {
+            throw new BusinessException("tour meta not found: " + top.tourId(), ErrorCode.TOUR_NOT_FOUND);
+        }
+        tourLocationLoader.fill(metas);
+
+        Entry e = new Entry(metas.getFirst(), System.currentTimeMillis(), gen);
+        byKeyword.merge(keyword, e, (old, cur) -> cur.generation() >= old.generation() ? cur : old);
+        log.info("[KEYWORD-CACHE] loaded keyword={} tourId={} score={} ({}ms)",
+                keyword, top.tourId(), top.score(), (System.nanoTime() - t0) / 1_000_000);
+        return e;
+    }
+}
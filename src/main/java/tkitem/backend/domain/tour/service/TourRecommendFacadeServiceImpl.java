@@ -1,27 +1,28 @@
 package tkitem.backend.domain.tour.service;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import tkitem.backend.domain.member.vo.Member;
 import tkitem.backend.domain.tour.dto.KeywordRule;
-import tkitem.backend.domain.tour.dto.TopMatchDto;
+import tkitem.backend.domain.tour.dto.TourEsFilter;
 import tkitem.backend.domain.tour.dto.request.TourRecommendationRequestDto;
 import tkitem.backend.domain.tour.dto.response.TourCommonRecommendDto;
 import tkitem.backend.domain.tour.dto.response.TourPackageDto;
 import tkitem.backend.domain.tour.dto.response.TourRecommendationResponseDto;
-import tkitem.backend.domain.tour.logic.KeywordRuleLoader;
 import tkitem.backend.domain.tour.mapper.TourMapper;
 import tkitem.backend.global.error.ErrorCode;
 import tkitem.backend.global.error.exception.BusinessException;
 import tkitem.backend.global.util.NumberUtil;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TourRecommendFacadeServiceImpl implements TourRecommendFacadeService {
 
@@ -30,7 +31,10 @@ public class TourRecommendFacadeServiceImpl implements TourRecommendFacadeServic
     private final TourLLmService tourLLmService;
 
     private final TourMapper tourMapper;
-    private final KeywordRuleLoader ruleLoader;
+    private final TourKeywordCache tourKeywordCache;
+
+    private final ExecutorService recommendExecutor;
+    private final MeterRegistry meterRegistry;
 
     // 가중치 설정.
     private static final double ALPHA_DB = 0.6;     // DB 점수 가중
@@ -39,6 +43,33 @@ public class TourRecommendFacadeServiceImpl implements TourRecommendFacadeServic
     private static final int    ES_CANDIDATES = 4000;
     private static final int    ES_MTOP = 3;        // 투어별 상위 m개 평균
     private static final int    DB_STAGE_TOP = 200; // 최소 1차 후보 확보량
+    private static final int    TOP_N_ES = 200;     // ES 투어 단위 상위 N
+
+    // DB 점수 계산과 ES 검색 병렬 실행 여부 및 단계별 대기 한도
+    @Value("${tour.recommend.parallel.enabled:true}")
+    private boolean parallelEnabled;
+    @Value("${tour.recommend.parallel.db-timeout-ms:10000}")
+    private long dbTimeoutMs;
+    @Value("${tour.recommend.parallel.es-timeout-ms:2000}")
+    private long esTimeoutMs;
+
+    // ES 검색을 tour_id 목록 대신 비정규화 필드(지역/패키지)로 필터링 (파이프라인 재색인 후 활성화)
+    @Value("${tour.es.native-filter:false}")
+    private boolean esNativeFilter;
+
+    public TourRecommendFacadeServiceImpl(TourRecommendService tourRecommendService, TourEsService tourEsService,
+                                          TourLLmService tourLLmService, TourMapper tourMapper,
+                                          TourKeywordCache tourKeywordCache,
+                                          @Qualifier("recommendExecutor") ExecutorService recommendExecutor,
+                                          MeterRegistry meterRegistry) {
+        this.tourRecommendService = tourRecommendService;
+        this.tourEsService = tourEsService;
+        this.tourLLmService = tourLLmService;
+        this.tourMapper = tourMapper;
+        this.tourKeywordCache = tourKeywordCache;
+        this.recommendExecutor = recommendExecutor;
+        this.meterRegistry = meterRegistry;
+    }
 
     @Override
     public TourCommonRecommendDto searchTop1ByKeyword(String keyword) {
@@ -46,74 +77,70 @@ public class TourRecommendFacadeServiceImpl implements TourRecommendFacadeServic
             throw new BusinessException("keyword is blank", ErrorCode.INVALID_INPUT_VALUE);
         }
 
-        // keyword.json 룰 로드
-        KeywordRule rule = ruleLoader.getRequired(keyword);
-
-        // 허용 tourId 조회 (country 우선, 없으면 countryGroup)
-        Set<Long> allow = null;
-        if (rule.getCountry() != null && !rule.getCountry().isBlank()) { // [ADDED]
-            List<Long> ids = tourMapper.selectAllowTourIdsByCountry(rule.getCountry()); // [ADDED]
-            allow = (ids == null || ids.isEmpty()) ? Collections.emptySet() : new HashSet<>(ids); // [ADDED]
-        } else if (rule.getCountryGroup() != null && !rule.getCountryGroup().isBlank()) { // [ADDED]
-            List<Long> ids = tourMapper.selectAllowTourIdsByCountryGroup(rule.getCountryGroup()); // [ADDED]
-            allow = (ids == null || ids.isEmpty()) ? Collections.emptySet() : new HashSet<>(ids); // [ADDED]
-        }
-
-        String rawJson = tourEsService.searchTop1ByVectorRawJson(rule, allow);
-
-        TopMatchDto topMatchDto = tourEsService.sendRawEsQuery(rawJson);
-        log.info("tourId : {}, score : {}", topMatchDto.tourId(), topMatchDto.score());
-
-        return tourMapper.selectTourMetaByTourIds(List.of(topMatchDto.tourId())).getFirst();
+        // 키워드별 Top1 은 사전 계산 캐시에서 반환 (미등록 키워드는 CONFIG_INVALID)
+        return tourKeywordCache.get(keyword);
     }
 
+    /**
+     * 트랜잭션 없음: DB/ES 단계가 recommendExecutor 스레드에서 각자 커넥션을 짧게 쓰므로,
+     * 요청 스레드가 트랜잭션 커넥션을 쥔 채 단계를 기다리면 풀이 고갈될 때 모든 요청이 db-timeout 으로 실패함.
+     * 쓰기는 saveShownRecommendations 의 트랜잭션에서만
+     */
     @Override
-    @Transactional
     public List<TourRecommendationResponseDto> recommend(TourRecommendationRequestDto req, String queryText, int topN, Member member) throws Exception {
 
         // 1. 사용자 입력 없으면 DB score 랭킹 상위 topN 개 반환
         boolean useEs = queryText != null && !queryText.isBlank();
 
         // 지역, 날짜, 추천기록에 속하지 않는 허용 투어 ID 목록 조회
-        long touridTime = System.nanoTime();
-        List<Long> allowIds = tourMapper.selectTourIdsByFilters(req.getDepartureDate(), req.getReturnDate(), req.getPriceMin(), req.getPriceMax(), req.getLocations(), member.getMemberId(), req.getGroupId());
-        touridTime = System.nanoTime() - touridTime;
-        log.info("[RECOMMEND] allowids size from filtering db = {}, time = {}", allowIds.size(), touridTime/1_000_000);
+        List<Long> allowIds = timed("allow_ids", () -> tourMapper.selectTourIdsByFilters(req.getDepartureDate(), req.getReturnDate(), req.getPriceMin(), req.getPriceMax(), req.getLocations(), member.getMemberId(), req.getGroupId()));
+        log.info("[RECOMMEND] allowids size from filtering db = {}", allowIds.size());
 
-        // DB 후보 1차 계산
+        // DB 후보 1차 계산 / ES 하이브리드 검색: 허용 ID 가 정해지면 서로 독립이므로 병렬 실행 가능
         int baseCount = useEs ? Math.max(DB_STAGE_TOP, topN) : topN;
-        log.info("[RECOMMEND]DB후보계산 시작");
-        List<TourRecommendationResponseDto> base = tourRecommendService.recommendDbOnly(req, baseCount, member, allowIds);
+        Callable<List<TourRecommendationResponseDto>> dbStage =
+                () -> timed("db_score", () -> tourRecommendService.recommendDbOnly(req, baseCount, member, allowIds));
+        Callable<TourEsService.HybridResult> esStage =
+                () -> timed("es_hybrid", () -> searchEs(req, queryText, member, allowIds));
+
+        List<TourRecommendationResponseDto> base;
+        TourEsService.HybridResult hr = null;
+        if (!useEs) {
+            base = dbStage.call();
+        } else if (parallelEnabled) {
+            long esDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esTimeoutMs);
+            Future<TourEsService.HybridResult> esFuture = recommendExecutor.submit(esStage);
+            Future<List<TourRecommendationResponseDto>> dbFuture = recommendExecutor.submit(dbStage);
+            base = awaitDb(dbFuture, esFuture);
+            if (base == null || base.isEmpty()) esFuture.cancel(true);
+            else hr = awaitEs(esFuture, esDeadline);
+        } else {
+            base = dbStage.call();
+            if (base != null && !base.isEmpty()) {
+                try {
+                    hr = esStage.call();
+                } catch (Exception e) {
+                    log.warn("[RECOMMEND] ES 단계 실패, DB 점수로만 정렬합니다: {}", e.toString());
+                }
+            }
+        }
         if (base == null || base.isEmpty()) return Collections.emptyList();
         log.info("[RECOMMEND]DB후보계산 완료 : {}", base.size());
 
-        // ES 없을 때. DB 로만 계산
-        if (!useEs) {
+        // ES 없을 때(또는 ES 타임아웃/실패). DB 로만 계산
+        if (hr == null) {
             int total = base.size();
             int show = Math.min(total, topN);
-            log.info("[DB-ONLY] totalCandidates={}, willShowTopN={}", total, show);
+            log.info("[DB-ONLY] totalCandidates={}, willShowTopN={}, esRequested={}", total, show, useEs);
             if (show == 0) log.info("[DB-ONLY] no candidates.");
         }
 
         // ES 입력도 있을 때 DB + ES 합쳐서 계산
         else {
-
-            // GEMINI 로 queryText -> should/exclude 분류
-            KeywordRule rule = null;
-//                    tourLLmService.buildRuleFromQueryText(queryText);
-
-            // ES 호출 파라미터
-            final int TOP_N_ES = 200;
-
-
-            // BM25 먼저 요청 → (부족: hit=0 or max_score<8.0)일 때만 kNN도 호출하여 ES 점수 생성
-            TourEsService.HybridResult hr =
-                    tourEsService.searchHybridSimple(queryText, new java.util.HashSet<>(allowIds), TOP_N_ES, rule);
-
             // 기존 변수명 유지: sEsMap (tourId -> ES 점수)
             Map<Long, Double> sEsMap = new HashMap<>(hr.scores);
-            log.info("ES 하이브리드 완료 : bm25Hits={}, bm25Max={}, usedVector={}, distinctTours={}",
-                    hr.bm25Hits, String.format(java.util.Locale.ROOT, "%.3f", hr.bm25MaxScore), hr.usedVector, sEsMap.size());
+            log.info("ES 하이브리드 완료 : usedRrf={}, bm25Hits={}, bm25Max={}, usedVector={}, distinctTours={}",
+                    hr.usedRrf, hr.bm25Hits, String.format(java.util.Locale.ROOT, "%.3f", hr.bm25MaxScore), hr.usedVector, sEsMap.size());
 
             double dbMax = base.stream()
                     .mapToDouble(dto -> NumberUtil.toDoubleOrZero(dto.getDbScore()))
@@ -176,14 +203,80 @@ public class TourRecommendFacadeServiceImpl implements TourRecommendFacadeServic
         }
 
         // 상위 5개만 투어 패키지, 세부일정 채우기
-        List<TourRecommendationResponseDto> dtos = tourRecommendService.fillTopNPackage(base.subList(0, Math.min(topN, base.size())), req, member, 5);
+        List<TourRecommendationResponseDto> top = base.subList(0, Math.min(topN, base.size()));
+        List<TourRecommendationResponseDto> dtos = timed("fill_packages", () -> tourRecommendService.fillTopNPackage(top, req, member, 5));
 
         // 추천 결과 저장
-        tourRecommendService.saveShownRecommendations(req.getGroupId(), dtos, member);
+        timed("save_shown", () -> {
+            tourRecommendService.saveShownRecommendations(req.getGroupId(), dtos, member);
+            return null;
+        });
 
         return dtos;
     }
 
+    // ES 하이브리드 검색 단계
+    private TourEsService.HybridResult searchEs(TourRecommendationRequestDto req, String queryText, Member member, List<Long> allowIds) throws Exception {
+        // GEMINI 로 queryText -> should/exclude 분류
+        KeywordRule rule = null;
+//                    tourLLmService.buildRuleFromQueryText(queryText);
+
+        // RRF 지원 시 BM25+kNN 단일 요청, 미지원 시 BM25 먼저 요청 → (부족: hit=0 or max_score<8.0)일 때만 kNN 호출
+        // 네이티브 필터 사용 시 허용 ID 대신 지역/일정/가격 조건 + 같은 그룹 기추천 투어 제외만 전달 (DB 경로와 같이 groupId > 0 일 때만)
+        if (esNativeFilter) {
+            Long groupId = req.getGroupId();
+            List<Long> recommended = member.getMemberId() == null || groupId == null || groupId <= 0 ? List.of()
+                    : tourMapper.selectRecommendedTourIds(member.getMemberId(), groupId);
+            return tourEsService.searchHybridSimple(queryText, TourEsFilter.of(req, recommended), TOP_N_ES, rule);
+        }
+        return tourEsService.searchHybridSimple(queryText, new HashSet<>(allowIds), TOP_N_ES, rule);
+    }
+
+    // DB 단계는 필수: 타임아웃/실패 시 ES 요청도 취소하고 예외 전파
+    private List<TourRecommendationResponseDto> awaitDb(Future<List<TourRecommendationResponseDto>> dbFuture,
+                                                        Future<?> esFuture) throws Exception {
+        try {
+            return dbFuture.get(dbTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            dbFuture.cancel(true);
+            esFuture.cancel(true);
+            stageFailure("db_score", "timeout");
+            throw new BusinessException("추천 DB 점수 계산 시간 초과", ErrorCode.INTERNAL_SERVER_ERROR);
+        } catch (ExecutionException e) {
+            esFuture.cancel(true);
+            stageFailure("db_score", "error");
+            throw e.getCause() instanceof Exception ex ? ex : e;
+        }
+    }
+
+    // ES 단계는 선택: 타임아웃/실패 시 null 반환 → DB 점수만으로 정렬
+    // 제한 시간은 제출 시점 기준 (DB 대기 시간 포함)
+    private TourEsService.HybridResult awaitEs(Future<TourEsService.HybridResult> esFuture, long deadlineNanos) throws InterruptedException {
+        try {
+            return esFuture.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            esFuture.cancel(true);
+            stageFailure("es_hybrid", "timeout");
+            log.warn("[RECOMMEND] ES 단계 {}ms 초과, DB 점수로만 정렬합니다.", esTimeoutMs);
+        } catch (ExecutionException e) {
+            stageFailure("es_hybrid", "error");
+            log.warn("[RECOMMEND] ES 단계 실패, DB 점수로만 정렬합니다: {}", String.valueOf(e.getCause()));
+        }
+        return null;
+    }
+
+    // 단계별 소요 시간: tour.recommend.stage{stage=...}
+    private <T> T timed(String stage, Callable<T> body) throws Exception {
+        return Timer.builder("tour.recommend.stage")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .recordCallable(body);
+    }
+
+    private void stageFailure(String stage, String reason) {
+        meterRegistry.counter("tour.recommend.stage.failures", "stage", stage, "reason", reason).increment();
+    }
+
     private static Long minPrice(List<TourPackageDto> pkgs) {
         if (pkgs == null || pkgs.isEmpty()) return null;
         return pkgs.stream()
@@ -12,6 +12,8 @@ import tkitem.backend.domain.tour.dto.TourDetailScheduleDto;
 import tkitem.backend.domain.tour.dto.request.TourRecommendationRequestDto;
 import tkitem.backend.domain.tour.dto.response.TourPackageDto;
 import tkitem.backend.domain.tour.dto.response.TourRecommendationResponseDto;
+import tkitem.backend.domain.tour.logic.TourRecommendationGroupIdAllocator;
+import tkitem.backend.domain.tour.logic.TourScoreEngine;
 import tkitem.backend.domain.tour.mapper.TourMapper;
 import tkitem.backend.global.util.NumberUtil;
 
@@ -26,9 +28,13 @@ import java.util.stream.Collectors;
 public class TourRecommendService {
 
     private final TourMapper tourMapper;
+    private final TourScoreFeatureService tourScoreFeatureService;
+    private final TourScoreEngine tourScoreEngine;
+    private final TourRecommendationGroupIdAllocator groupIdAllocator;
+    private final TourRecommendationHistoryWriter historyWriter;
 
     private static final Integer kTop = 10;
-    private static final Integer nPerDay = 3; // 일자별 상위점수 채택 일정 개수
+    static final Integer nPerDay = 3; // 일자별 상위점수 채택 일정 개수 (TOUR_SCORE_FEATURE 도 같은 값으로 계산)
 
     /**
      * DB 점수만으로 Top-N 추천
@@ -39,13 +45,19 @@ public class TourRecommendService {
     @Transactional
     public List<TourRecommendationResponseDto> recommendDbOnly(TourRecommendationRequestDto req, int topN, Member member, List<Long> allowIds) throws JsonProcessingException {
 
-        long t0 = System.nanoTime();
-        // 정렬까지 DB에서 완료, 전체 반환 (TopN 아님)
-        String allowIdsJson = new ObjectMapper().writeValueAsString(allowIds);
-
-        List<TourCandidateRowDto> tourCandidateRowDtos = tourMapper.scoreByIdsInline(allowIdsJson, nPerDay, req.getTagIdList());
-        t0 = System.nanoTime() - t0;
-        log.info("[RECOMMEND] scoreByAllowIds DB time = {} ms, rows={}", t0/1_000_000, tourCandidateRowDtos.size());
+        // 정렬까지 DB에서 완료, 전체 반환 (TopN 아님). 소요 시간은 tour.recommend.stage{stage=db_score}
+        // 메모리 엔진 사용 가능하면 DB 왕복 없이 계산
+        // score-source=feature: 사전 계산된 TOUR_SCORE_FEATURE 가중합 (태그 지정 시 근사값 → 순위가 CTE 와 다를 수 있음), 아니면 일정 단위 CTE 계산
+        List<TourCandidateRowDto> tourCandidateRowDtos;
+        if (tourScoreEngine.isReady()) {
+            tourCandidateRowDtos = tourScoreEngine.score(allowIds, nPerDay, req.getTagIdList());
+        } else {
+            String allowIdsJson = new ObjectMapper().writeValueAsString(allowIds);
+            tourCandidateRowDtos = tourScoreFeatureService.isEnabled()
+                    ? tourMapper.scoreByFeatureTable(allowIdsJson, nPerDay, req.getTagIdList())
+                    : tourMapper.scoreByIdsInline(allowIdsJson, nPerDay, req.getTagIdList());
+        }
+        log.info("[RECOMMEND] scoreByAllowIds rows={}", tourCandidateRowDtos.size());
         //-------------
 
         for(int i = 0; i<Math.min(tourCandidateRowDtos.size(), 5); i++) {
@@ -144,14 +156,16 @@ public class TourRecommendService {
     public void saveShownRecommendations(Long groupId, List<TourRecommendationResponseDto> items, Member member){
         if (items == null || items.isEmpty()) return;
 
-        // 신규추천이면(groupId가 null 또는 0 이면 MAX+1 생성
-        if(groupId == null || groupId == 0L) groupId = tourMapper.selectNextGroupId();
+        // 신규추천이면(groupId가 null 또는 0) 시퀀스 블록에서 새 groupId 발급
+        if(groupId == null || groupId == 0L) groupId = groupIdAllocator.next();
 
+        List<TourRecommendationResponseDto> rows = new ArrayList<>(items.size());
         for (TourRecommendationResponseDto it : items) {
             if(it == null || it.getTourId() == null) continue;
             it.setGroupId(groupId);
-            tourMapper.insertTourRecommendation(it, member.getMemberId());
+            rows.add(it);
         }
+        historyWriter.write(rows, member.getMemberId());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package tkitem.backend.domain.tour.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tkitem.backend.domain.tour.dto.response.TourRecommendationResponseDto;
+import tkitem.backend.domain.tour.mapper.TourMapper;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * TOUR_RECOMMENDATION 노출 이력 저장
+ * - 응답 1건당 다건 INSERT 한 문장
+ * - write-behind=true 면 커밋 이후 recommendSaveExecutor 에서 저장 (큐가 차면 호출 스레드에서 실행)
+ *   이 경우 직후의 "더보기" 요청이 아직 저장되지 않은 투어를 다시 받을 수 있음
+ */
+@Service
+@Slf4j
+public class TourRecommendationHistoryWriter {
+
+    private final TourMapper tourMapper;
+    private final Executor executor;
+
+    @Value("${tour.recommend.save.write-behind:false}")
+    private boolean writeBehind;
+
+    public TourRecommendationHistoryWriter(TourMapper tourMapper,
+                                           @Qualifier("recommendSaveExecutor") Executor executor) {
+        this.tourMapper = tourMapper;
+        this.executor = executor;
+    }
+
+    public void write(List<TourRecommendationResponseDto> items, Long memberId) {
+        if (items.isEmpty()) return;
+        if (!writeBehind) {
+            tourMapper.insertTourRecommendations(items, memberId);
+            return;
+        }
+
+        Runnable task = () -> {
+            try {
+                tourMapper.insertTourRecommendations(items, memberId);
+            } catch (Exception e) {
+                log.warn("[RECOMMEND] history write failed groupId={} size={} : {}",
+                        items.getFirst().getGroupId(), items.size(), e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(task);
+                }
+            });
+        } else {
+            executor.execute(task);
+        }
+    }
+}
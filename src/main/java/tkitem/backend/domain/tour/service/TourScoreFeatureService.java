@@ -0,0 +1,79 @@
+package tkitem.backend.domain.tour.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tkitem.backend.domain.tour.mapper.TourMapper;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * TOUR_SCORE_FEATURE 유지 관리
+ * - 라벨 저장 청크마다 영향받은 투어만 다시 계산 (tour.recommend.score-source=feature 일 때)
+ * - 전환 직후/복구 시 rebuildAll 로 전체 재계산
+ * - 태그 지정 요청 점수는 scoreByIdsInline 의 근사값이라 전환 시 추천 순위가 달라질 수 있음 (TourMapper.xml TOUR_SCORE_FEATURE 참고)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TourScoreFeatureService {
+
+    private final TourMapper tourMapper;
+    private final ObjectMapper objectMapper;
+
+    @Value("${tour.recommend.score-source:inline}")
+    private String scoreSource;
+
+    public boolean isEnabled() {
+        return "feature".equalsIgnoreCase(scoreSource);
+    }
+
+    /**
+     * 라벨이 바뀐 일정들의 소속 투어 feature 재계산. 호출 측 트랜잭션에 참여
+     * @param tdsIds TOUR_DETAIL_SCHEDULE id
+     */
+    @Transactional
+    public void refreshForSchedules(Collection<Long> tdsIds) {
+        if (!isEnabled() || tdsIds == null || tdsIds.isEmpty()) return;
+
+        refreshForTours(tourMapper.selectTourIdsByTdsIds(toJson(tdsIds)));
+    }
+
+    /**
+     * 투어 feature 재계산 (일정이 삭제되어 일정 id 로는 투어를 찾을 수 없을 때). 호출 측 트랜잭션에 참여
+     * @param tourIds TOUR id
+     */
+    @Transactional
+    public void refreshForTours(Collection<Long> tourIds) {
+        if (!isEnabled() || tourIds == null || tourIds.isEmpty()) return;
+
+        String tourIdsJson = toJson(tourIds);
+        tourMapper.deleteTourScoreFeature(tourIdsJson, TourRecommendService.nPerDay);
+        tourMapper.insertTourScoreFeature(tourIdsJson, TourRecommendService.nPerDay);
+        log.debug("[SCORE-FEATURE] refreshed tours={}", tourIds.size());
+    }
+
+    /**
+     * 전체 투어 feature 재계산
+     */
+    @Transactional
+    public void rebuildAll() {
+        long t0 = System.currentTimeMillis();
+        tourMapper.deleteTourScoreFeature(null, TourRecommendService.nPerDay);
+        tourMapper.insertTourScoreFeature(null, TourRecommendService.nPerDay);
+        log.info("[SCORE-FEATURE] rebuild all done ({}ms)", System.currentTimeMillis() - t0);
+    }
+
+    private String toJson(Collection<Long> ids) {
+        try {
+            return objectMapper.writeValueAsString(ids);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import tkitem.backend.domain.tour.dto.LocationInfo;
 import tkitem.backend.domain.tour.dto.response.TourCommonRecommendDto;
 import tkitem.backend.domain.tour.dto.response.TourPackageDetailDto;
 import tkitem.backend.domain.tour.dto.response.TourRecommendationResponseDto;
+import tkitem.backend.domain.tour.logic.TourLocationLoader;
 import tkitem.backend.domain.tour.mapper.TourMapper;
 import tkitem.backend.global.error.ErrorCode;
 import tkitem.backend.global.error.exception.BusinessException;
@@ -21,6 +22,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TourServiceImpl implements TourService {
     private final TourMapper tourMapper;
+    private final TourLocationLoader tourLocationLoader;
 
     @Override
     public TourPackageDetailDto getTourPackageDetail(Long tourPackageId, Member member) {
@@ -31,6 +33,7 @@ public class TourServiceImpl implements TourService {
     @Override
     public List<TourCommonRecommendDto> getRecentRecommendedTours(Member member) {
         List<TourCommonRecommendDto> tourMaps = tourMapper.selectTourMetaByMemberId(member.getMemberId());
+        tourLocationLoader.fill(tourMaps);
 
         for(TourCommonRecommendDto dto : tourMaps) {
             dto.setRealTitle(createTitle(dto.getLocations()));
@@ -42,6 +45,7 @@ public class TourServiceImpl implements TourService {
     @Override
     public List<TourCommonRecommendDto> getTopRankedTours(Member member, Integer topN) {
         List<TourCommonRecommendDto> tourMaps = tourMapper.selectTourMetaByTripSaved(member.getMemberId(), topN, "");
+        tourLocationLoader.fill(tourMaps);
         for(TourCommonRecommendDto dto : tourMaps) {
             dto.setRealTitle(createTitle(dto.getLocations()));
         }
@@ -57,6 +61,9 @@ public class TourServiceImpl implements TourService {
             tourMaps.put(region, tourMapper.selectTourMetaByTripSaved(member.getMemberId(), 10, region));
         }
 
+        // 5개 목록의 도시 정보를 한 번에 적재
+        tourLocationLoader.fill(tourMaps.values().stream().flatMap(List::stream).toList());
+
         for(Map.Entry<String, List<TourCommonRecommendDto>> e : tourMaps.entrySet()) {
             List<TourCommonRecommendDto> updated = e.getValue().stream().map(dto -> {
                 String newTitle = createTitle(dto.getLocations());
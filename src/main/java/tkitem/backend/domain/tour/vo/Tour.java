@@ -3,6 +3,7 @@ package tkitem.backend.domain.tour.vo;
 import lombok.*;
 
 @Getter
+@Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,4 +20,5 @@ public class Tour {
     private String summary;
     private int hotelRating;
     private String imgUrl;
+    private String fingerprint; // 적재 변경 감지용 내용 지문 (TourFingerprint)
 }
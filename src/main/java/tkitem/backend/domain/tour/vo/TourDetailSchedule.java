@@ -3,6 +3,7 @@ package tkitem.backend.domain.tour.vo;
 import lombok.*;
 
 @Getter
+@Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,4 +17,5 @@ public class TourDetailSchedule {
     private String description;
     private int sortOrder;
     private String defaultType;
+    private String fingerprint; // 적재 변경 감지용 내용 지문 (TourFingerprint)
 }
@@ -21,4 +21,5 @@ public class TourPackage {
     private String packageDateCode; // 현대트레블 travleId 값
     private String bookingUrl; // 예약 페이지
     private String sourceUrl; // 크롤링 원본 url
+    private String fingerprint; // 적재 변경 감지용 내용 지문 (TourFingerprint)
 }
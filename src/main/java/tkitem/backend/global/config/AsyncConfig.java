@@ -1,11 +1,15 @@
 package tkitem.backend.global.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
@@ -21,4 +25,95 @@ public class AsyncConfig {
         ex.initialize();
         return ex;
     }
+
+    // 키워드 Top1 사전 계산 전용 (갱신은 한 번에 하나씩 순차 처리)
+    @Bean(name = "keywordCacheExecutor")
+    public Executor keywordCacheExecutor() {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(1);
+        ex.setMaxPoolSize(1);
+        ex.setQueueCapacity(100);
+        ex.setThreadNamePrefix("keyword-cache-");
+        ex.initialize();
+        return ex;
+    }
+
+    // 메모리 점수 엔진 재적재 전용 (요청이 몰려도 한 번에 하나씩)
+    @Bean(name = "scoreEngineExecutor")
+    public Executor scoreEngineExecutor() {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(1);
+        ex.setMaxPoolSize(1);
+        ex.setQueueCapacity(10);
+        ex.setThreadNamePrefix("score-engine-");
+        ex.initialize();
+        return ex;
+    }
+
+    // 추천 노출 이력 write-behind 전용 (큐가 차면 호출 스레드에서 실행해 유실 대신 지연)
+    @Bean(name = "recommendSaveExecutor")
+    public Executor recommendSaveExecutor() {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(1);
+        ex.setMaxPoolSize(2);
+        ex.setQueueCapacity(1000);
+        ex.setThreadNamePrefix("recommend-save-");
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        ex.setWaitForTasksToCompleteOnShutdown(true);
+        ex.initialize();
+        return ex;
+    }
+
+    // 적재 후 일정 분류 delta 실행 트리거 (실행 중 1건 + 대기 1건, 그 이상은 대기 중인 실행이 함께 처리하므로 버림)
+    @Bean(name = "pipelineTriggerExecutor")
+    public Executor pipelineTriggerExecutor() {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(1);
+        ex.setMaxPoolSize(1);
+        ex.setQueueCapacity(1);
+        ex.setThreadNamePrefix("pipeline-trigger-");
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        ex.initialize();
+        return ex;
+    }
+
+    // 투어 적재 파티션 저장 (파티션 1개 = 트랜잭션 1개, 대기 파티션 수는 DataLoadServiceImpl 에서 제한)
+    @Bean(name = "tourImportExecutor")
+    public Executor tourImportExecutor(@Value("${tour.load.workers:4}") int workers) {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(Math.max(1, workers));
+        ex.setMaxPoolSize(Math.max(1, workers));
+        ex.setQueueCapacity(Math.max(1, workers) * 2);
+        ex.setThreadNamePrefix("tour-import-");
+        // 적재 작업이 동시에 여러 개면 큐가 찰 수 있음 → 제출한 작업 스레드가 직접 저장 (파싱이 그만큼 늦춰짐)
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        ex.setWaitForTasksToCompleteOnShutdown(true);
+        ex.initialize();
+        return ex;
+    }
+
+    // 투어 적재 작업 (작업 1개가 파싱 + 파티션 분배를 맡고, 저장은 tourImportExecutor). 큐가 차면 제출 거절
+    @Bean(name = "tourImportJobExecutor")
+    public Executor tourImportJobExecutor(@Value("${tour.import.max-concurrent-jobs:1}") int maxJobs,
+                                          @Value("${tour.import.queue-capacity:4}") int queueCapacity) {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(Math.max(1, maxJobs));
+        ex.setMaxPoolSize(Math.max(1, maxJobs));
+        ex.setQueueCapacity(Math.max(0, queueCapacity));
+        ex.setThreadNamePrefix("tour-import-job-");
+        ex.initialize();
+        return ex;
+    }
+
+    // 추천 DB/ES 단계 병렬 실행용 (I/O 대기 위주라 가상 스레드 사용)
+    @Bean(name = "recommendExecutor", destroyMethod = "close")
+    public ExecutorService recommendExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("recommend-", 0).factory());
+    }
+
+    // 일정 분류 LLM 호출용 (응답 대기 위주, 동시성/속도 제한은 GenerativeLabelService 에서)
+    @Bean(name = "llmExecutor", destroyMethod = "close")
+    public ExecutorService llmExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("llm-", 0).factory());
+    }
 }
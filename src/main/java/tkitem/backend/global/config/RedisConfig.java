@@ -30,4 +30,14 @@ public class RedisConfig {
 		template.setValueSerializer(new org.springframework.data.redis.serializer.StringRedisSerializer());
 		return template;
 	}
+
+	// 임베딩 캐시 전용: float[] 를 little-endian byte[] 로 그대로 저장
+	@Bean
+	public RedisTemplate<String, byte[]> embeddingRedisTemplate() {
+		RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+		template.setConnectionFactory(redisConnectionFactory());
+		template.setKeySerializer(new org.springframework.data.redis.serializer.StringRedisSerializer());
+		template.setValueSerializer(org.springframework.data.redis.serializer.RedisSerializer.byteArray());
+		return template;
+	}
 }
@@ -66,7 +66,14 @@ public enum ErrorCode {
     CATEGORY_PARENT_NOT_FOUND(404, "CATEGORY002", "Parent SubCategory Not Found"),
 
     /* TOUR */
-    TOUR_NOT_FOUND(404, "TOUR001", "Tour not found");
+    TOUR_NOT_FOUND(404, "TOUR001", "Tour not found"),
+    TOUR_IMPORT_ALREADY_RUNNING(409, "TOUR002", "Tour import already running for this dataset"),
+    TOUR_IMPORT_JOB_NOT_FOUND(404, "TOUR003", "Tour import job not found"),
+    TOUR_IMPORT_SOURCE_INVALID(400, "TOUR004", "Tour import source invalid"),
+    TOUR_IMPORT_QUEUE_FULL(503, "TOUR005", "Tour import queue full"),
+
+    /* PIPELINE */
+    PIPELINE_ALREADY_RUNNING(409, "PIPELINE001", "Pipeline already running");
 
     private final int status;
     private final String code;
@@ -0,0 +1,37 @@
+package tkitem.backend.global.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 외부 API 호출 속도 제한용 토큰 버킷
+ * - 초당 permitsPerSecond 개씩 채워지고 최대 burst 개까지 모아 둘 수 있음
+ * - 토큰이 없으면 잔고를 음수로 예약한 뒤 잠금 밖에서 대기 (먼저 온 호출이 먼저 풀림)
+ */
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double permitsPerNano;
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) throw new IllegalArgumentException("permitsPerSecond must be > 0");
+        this.capacity = Math.max(1, burst);
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+            lastRefill = now;
+            tokens -= 1;
+            waitNanos = tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+        }
+        if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+}
@@ -0,0 +1,159 @@
+package tkitem.backend.scheduleType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import tkitem.backend.domain.scheduleType.classification.LabelVectorStore;
+import tkitem.backend.domain.scheduleType.classification.LabelVectorStore.Label;
+import tkitem.backend.domain.scheduleType.classification.LabelVectorStore.Neighbor;
+
+/**
+ * LabelVectorStore 메모리 kNN 검증
+ * - 빈 라벨 인덱스로 적재(ES 응답 hits 없음) 후 append 로 채운 상태에서 topK 를 단순 전체 정렬 결과와 비교
+ * - 라벨 weight 에 문서 번호를 넣어 반환된 이웃의 원본 벡터를 찾음
+ */
+@ExtendWith(MockitoExtension.class)
+class LabelVectorStoreTest {
+    private static final int DIM = 24;
+    private static final double EPS = 1e-5;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    ElasticsearchClient esClient;
+
+    LabelVectorStore store;
+
+    // 저장된 문서 번호 → 원본 벡터 (0 벡터/null 은 저장되지 않으므로 제외)
+    final Map<Integer, float[]> stored = new HashMap<>();
+    int nextDoc;
+
+    @BeforeEach
+    void setUp() {
+        store = new LabelVectorStore(esClient, true);
+        assertThat(store.ensureLoaded()).isTrue();
+    }
+
+    @Test
+    @DisplayName("빈 인덱스로 적재된 뒤 첫 추가분 맨 앞이 null 이어도 다음 벡터 차원으로 추가")
+    void append_firstVectorNull_usesFirstNonNullDim() {
+        float[] v = randomVector(new Random(1L));
+        store.append(Arrays.asList(null, v), List.of(List.of(label(-1)), List.of(label(0))));
+
+        List<Neighbor> top = store.topK(List.of(v), 5).getFirst();
+        assertThat(top).hasSize(1);
+        assertThat(top.getFirst().labels()).containsExactly(label(0));
+        assertThat(top.getFirst().cosine()).isCloseTo(1.0, within(EPS));
+    }
+
+    @Test
+    @DisplayName("무작위 벡터: topK 가 코사인 전체 정렬 결과와 같음 (k > size, 0 벡터/중복 벡터 포함)")
+    void topK_matchesNaiveSort() {
+        Random rnd = new Random(20241018L);
+        float[] last = randomVector(rnd);
+        for (int round = 0; round < 6; round++) {
+            List<float[]> vectors = new ArrayList<>();
+            List<List<Label>> labels = new ArrayList<>();
+            int n = 1 + rnd.nextInt(300);
+            for (int i = 0; i < n; i++) {
+                float[] v = switch (rnd.nextInt(20)) {
+                    case 0 -> new float[DIM];   // 0 벡터 (저장 안 됨)
+                    case 1 -> last.clone();     // 동점
+                    default -> randomVector(rnd);
+                };
+                int doc = nextDoc++;
+                vectors.add(v);
+                labels.add(List.of(label(doc)));
+                if (norm(v) > 0) {
+                    stored.put(doc, v);
+                    last = v;
+                }
+            }
+            store.append(vectors, labels);
+
+            List<float[]> queries = new ArrayList<>();
+            for (int q = 0; q < 8; q++) queries.add(randomVector(rnd));
+            for (int k : new int[]{1, 5, 37, stored.size(), stored.size() + 50}) {
+                List<List<Neighbor>> actual = store.topK(queries, k);
+                assertThat(actual).hasSize(queries.size());
+                for (int q = 0; q < queries.size(); q++) {
+                    assertSameAsNaive(queries.get(q), k, actual.get(q));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("null/0 벡터/차원 불일치 질의와 k <= 0 은 빈 결과")
+    void topK_invalidQueries_empty() {
+        Random rnd = new Random(7L);
+        store.append(List.of(randomVector(rnd), randomVector(rnd)), List.of(List.of(label(0)), List.of(label(1))));
+
+        List<List<Neighbor>> out = store.topK(Arrays.asList(null, new float[DIM], new float[DIM + 1], randomVector(rnd)), 3);
+        assertThat(out).hasSize(4);
+        assertThat(out.get(0)).isEmpty();
+        assertThat(out.get(1)).isEmpty();
+        assertThat(out.get(2)).isEmpty();
+        assertThat(out.get(3)).hasSize(2);
+
+        assertThat(store.topK(List.of(randomVector(rnd)), 0).getFirst()).isEmpty();
+    }
+
+    /*
+     * 단순 구현: 저장된 전체 벡터와 double 코사인 → 내림차순 정렬 → 앞 k 개
+     * 동점/부동소수 오차로 같은 점수끼리 순서가 바뀔 수 있으므로 순위별 점수와, 반환된 이웃 각각의 실제 코사인을 비교
+     */
+    private void assertSameAsNaive(float[] query, int k, List<Neighbor> actual) {
+        List<Double> naive = new ArrayList<>();
+        for (float[] v : stored.values()) naive.add(cosine(query, v));
+        naive.sort((a, b) -> Double.compare(b, a));
+
+        int expectedSize = Math.min(k, stored.size());
+        assertThat(actual).hasSize(expectedSize);
+        for (int j = 0; j < expectedSize; j++) {
+            Neighbor nb = actual.get(j);
+            assertThat(nb.cosine()).as("rank %d", j).isCloseTo(naive.get(j), within(EPS));
+            if (j > 0) assertThat(nb.cosine()).isLessThanOrEqualTo(actual.get(j - 1).cosine());
+
+            int doc = (int) nb.labels().getFirst().weight();
+            assertThat(stored).containsKey(doc);
+            assertThat(nb.cosine()).as("doc %d", doc).isCloseTo(cosine(query, stored.get(doc)), within(EPS));
+        }
+    }
+
+    private Label label(int doc) {
+        return new Label("L" + doc, doc);
+    }
+
+    private float[] randomVector(Random rnd) {
+        float[] v = new float[DIM];
+        for (int i = 0; i < DIM; i++) v[i] = (float) rnd.nextGaussian();
+        return v;
+    }
+
+    private static double norm(float[] v) {
+        double s = 0;
+        for (float x : v) s += (double) x * x;
+        return Math.sqrt(s);
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) dot += (double) a[i] * b[i];
+        return dot / (norm(a) * norm(b));
+    }
+}
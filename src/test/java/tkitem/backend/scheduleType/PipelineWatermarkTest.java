@@ -0,0 +1,165 @@
+package tkitem.backend.scheduleType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import tkitem.backend.domain.scheduleType.pipeline.PipelineWatermark;
+
+/**
+ * 파이프라인 체크포인트(PipelineWatermark) 검증
+ * - 저장되는 ID 이하의 행은 모두 라벨이 기록된 상태여야 함 (resume 시 건너뛰므로)
+ */
+class PipelineWatermarkTest {
+    private static final long NONE = PipelineWatermark.NO_PENDING;
+
+    @Test
+    @DisplayName("연속으로 끝난 배치까지만 전진, 빈 seq 가 채워지면 한 번에 전진")
+    void advancesOnlyOverContiguousBatches() {
+        PipelineWatermark wm = new PipelineWatermark(0, 0);
+
+        assertThat(wm.complete(1, 10, 200, NONE)).isFalse();
+        assertThat(wm.complete(2, 10, 300, NONE)).isFalse();
+        assertThat(wm.safeId()).isZero();
+
+        assertThat(wm.complete(0, 10, 100, NONE)).isTrue();
+        assertThat(wm.safeId()).isEqualTo(300);
+        assertThat(wm.processedRows()).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("LLM 대기 행이 있으면 그 직전 ID 까지만, 대기가 풀리면 연속 구간 끝까지")
+    void clampsBelowLowestPendingRow() {
+        PipelineWatermark wm = new PipelineWatermark(0, 0);
+
+        assertThat(wm.complete(0, 10, 100, 42)).isTrue();
+        assertThat(wm.safeId()).isEqualTo(41);
+
+        // 같은 행이 계속 대기 중이면 뒤 배치가 끝나도 전진하지 않음
+        assertThat(wm.complete(1, 10, 200, 42)).isFalse();
+        assertThat(wm.safeId()).isEqualTo(41);
+
+        assertThat(wm.complete(2, 10, 300, 250)).isTrue();
+        assertThat(wm.safeId()).isEqualTo(249);
+
+        assertThat(wm.complete(3, 10, 400, NONE)).isTrue();
+        assertThat(wm.safeId()).isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("최종 flush(seq 음수)는 구간/행 수를 바꾸지 않고 pending 제한만 해제")
+    void finalFlushReleasesPendingClamp() {
+        PipelineWatermark wm = new PipelineWatermark(0, 0);
+        wm.complete(0, 10, 100, 5);
+        wm.complete(1, 10, 200, 5);
+        assertThat(wm.safeId()).isEqualTo(4);
+
+        assertThat(wm.complete(-1, 0, -1, NONE)).isTrue();
+        assertThat(wm.safeId()).isEqualTo(200);
+        assertThat(wm.processedRows()).isEqualTo(20);
+
+        // 다시 flush 해도 그대로
+        assertThat(wm.complete(-1, 0, -1, NONE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("resume 시작 ID 아래로는 내려가지 않음")
+    void neverMovesBelowResumeStart() {
+        PipelineWatermark wm = new PipelineWatermark(1_000, 500);
+
+        assertThat(wm.complete(0, 10, 1_100, 1_001)).isFalse();
+        assertThat(wm.safeId()).isEqualTo(1_000);
+        assertThat(wm.processedRows()).isEqualTo(510);
+
+        assertThat(wm.complete(1, 10, 1_200, NONE)).isTrue();
+        assertThat(wm.safeId()).isEqualTo(1_200);
+    }
+
+    @Test
+    @DisplayName("무작위 순서 완료 + LLM 대기: 저장 ID 이하 행은 항상 기록 완료, 최종 flush 후 마지막 ID")
+    void randomOrder_neverPassesUncommittedRows() {
+        Random rnd = new Random(20241018L);
+        for (int round = 0; round < 500; round++) {
+            simulate(rnd, 1 + rnd.nextInt(40), 1 + rnd.nextInt(8));
+        }
+    }
+
+    /*
+     * TourTypePipelineService 흐름 모사
+     * - read: seq 순서로 ID 구간 배치 생성 (구간 안에 건너뛴 ID 가 있을 수 있음)
+     * - embed 동시 실행으로 classify 도착 순서가 뒤섞임
+     * - classify: 일부 행은 LLM 대기로 남고, 가끔 대기분을 한꺼번에 처리해 해당 배치 write 에 포함
+     * - write: classify 순서대로 기록 후 complete
+     */
+    private void simulate(Random rnd, int batchCount, int window) {
+        List<long[]> batchIds = new ArrayList<>();
+        long id = 0;
+        for (int i = 0; i < batchCount; i++) {
+            int n = 1 + rnd.nextInt(5);
+            long[] ids = new long[n];
+            for (int j = 0; j < n; j++) {
+                id += 1 + rnd.nextInt(3);
+                ids[j] = id;
+            }
+            batchIds.add(ids);
+        }
+        long lastId = id;
+
+        // seq 순 입력을 window 크기 안에서 뒤섞어 classify 도착 순서 생성
+        List<Integer> arrival = new ArrayList<>();
+        List<Integer> inFlight = new ArrayList<>();
+        for (int seq = 0; seq < batchCount; seq++) {
+            inFlight.add(seq);
+            if (inFlight.size() >= window) arrival.add(inFlight.remove(rnd.nextInt(inFlight.size())));
+        }
+        Collections.shuffle(inFlight, rnd);
+        arrival.addAll(inFlight);
+
+        PipelineWatermark wm = new PipelineWatermark(0, 0);
+        TreeSet<Long> pending = new TreeSet<>();
+        Set<Long> committed = new HashSet<>();
+        Set<Long> allIds = new HashSet<>();
+        for (long[] ids : batchIds) for (long x : ids) allIds.add(x);
+
+        for (int seq : arrival) {
+            long[] ids = batchIds.get(seq);
+            List<Long> written = new ArrayList<>();
+            for (long x : ids) {
+                if (rnd.nextInt(4) == 0) pending.add(x);
+                else written.add(x);
+            }
+            if (!pending.isEmpty() && rnd.nextInt(5) == 0) {
+                written.addAll(pending);
+                pending.clear();
+            }
+            long minPending = pending.isEmpty() ? NONE : pending.first();
+
+            committed.addAll(written);
+            wm.complete(seq, ids.length, ids[ids.length - 1], minPending);
+            assertCommittedThrough(wm.safeId(), allIds, committed);
+        }
+
+        committed.addAll(pending);
+        pending.clear();
+        wm.complete(-1, 0, -1, NONE);
+        assertCommittedThrough(wm.safeId(), allIds, committed);
+
+        assertThat(wm.safeId()).isEqualTo(lastId);
+        assertThat(wm.processedRows()).isEqualTo(allIds.size());
+    }
+
+    private void assertCommittedThrough(long safeId, Set<Long> allIds, Set<Long> committed) {
+        for (long x : allIds) {
+            if (x <= safeId) assertThat(committed).as("id %d <= safeId %d", x, safeId).contains(x);
+        }
+    }
+}
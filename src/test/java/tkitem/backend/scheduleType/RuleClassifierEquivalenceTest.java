@@ -0,0 +1,307 @@
+package tkitem.backend.scheduleType;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import tkitem.backend.domain.scheduleType.classification.RuleClassifier;
+
+/**
+ * RuleClassifier(오토마톤) 와 기존 String.contains 구현의 출력 동일성 검증
+ */
+class RuleClassifierEquivalenceTest {
+    private static final String RULES = "dummy/rule_keywords.json";
+    private static final String EXEMPLARS = "dummy/schedule_type_exemplars.json";
+    // AND 그룹 / 0.0 차단 / 접두·접미 겹침 / 빈 키워드를 포함한 검증용 사전
+    private static final String SYNTHETIC_RULES = "rule_keywords_equivalence.json";
+    private static final String[] DEFAULT_TYPES = {null, "MEAL", "meal", "ACCOMMODATION", "PLACE", "TOUR"};
+    private static final String[] FILLERS = {"", " ", "관광", "자유일정", "이동 후", "(", ")", "없음", "불포함", "5.0", "3.0", "\n"};
+
+    private final ObjectMapper om = new ObjectMapper();
+
+    RuleClassifier classifier;
+    LegacyRuleClassifier legacy;
+    List<String> words;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        load(RULES);
+    }
+
+    private void load(String rules) throws Exception {
+        classifier = new RuleClassifier(new ClassPathResource(rules), om);
+        legacy = new LegacyRuleClassifier(new ClassPathResource(rules), om);
+        words = legacy.allWords();
+    }
+
+    @Test
+    @DisplayName("exemplar 텍스트: 제목/설명 배치와 defaultType 조합별 점수가 기존 구현과 동일")
+    void exemplars_sameScores() throws Exception {
+        List<Map<String, Object>> exemplars;
+        try (InputStream in = new ClassPathResource(EXEMPLARS).getInputStream()) {
+            exemplars = om.readValue(in, new TypeReference<>() {});
+        }
+
+        int checked = 0;
+        for (Map<String, Object> ex : exemplars) {
+            String text = String.valueOf(ex.get("text"));
+            int mid = text.length() / 2;
+            for (String dt : DEFAULT_TYPES) {
+                assertSame(text, "", dt);
+                assertSame("", text, dt);
+                assertSame(text.substring(0, mid), text.substring(mid), dt); // 키워드가 제목/설명 경계에 걸치는 경우
+                assertSame(null, text, dt);
+                checked += 4;
+            }
+        }
+        assertThat(checked).isGreaterThan(0);
+    }
+
+    @Test
+    @DisplayName("운영 사전 무작위 키워드 조합: 중복/겹침/경계 걸침/0.0 차단 점수가 기존 구현과 동일")
+    void randomKeywordMix_sameScores() {
+        Random rnd = new Random(20240917L);
+        for (int i = 0; i < 20_000; i++) {
+            String t = randomText(rnd);
+            String d = randomText(rnd);
+            String dt = DEFAULT_TYPES[rnd.nextInt(DEFAULT_TYPES.length)];
+            assertSame(t, d, dt);
+        }
+    }
+
+    @Test
+    @DisplayName("검증용 사전(AND/차단/겹침/빈 키워드): 무작위 조합 점수가 기존 구현과 동일")
+    void syntheticDictionary_sameScores() throws Exception {
+        load(SYNTHETIC_RULES);
+        Random rnd = new Random(7L);
+        for (int i = 0; i < 20_000; i++) {
+            String t = randomText(rnd);
+            String d = randomText(rnd);
+            String dt = DEFAULT_TYPES[rnd.nextInt(DEFAULT_TYPES.length)];
+            assertSame(t, d, dt);
+        }
+    }
+
+    @Test
+    @DisplayName("빈 입력/null 입력 처리 동일")
+    void emptyInputs_sameScores() {
+        for (String dt : DEFAULT_TYPES) {
+            assertSame(null, null, dt);
+            assertSame("", "", dt);
+            assertSame(" ", " ", dt);
+        }
+    }
+
+    private String randomText(Random rnd) {
+        StringBuilder sb = new StringBuilder();
+        int parts = rnd.nextInt(5);
+        for (int p = 0; p < parts; p++) {
+            if (rnd.nextInt(3) == 0) {
+                sb.append(FILLERS[rnd.nextInt(FILLERS.length)]);
+            } else {
+                String w = words.get(rnd.nextInt(words.size()));
+                // 일부는 키워드 일부만 잘라 넣어 부분 일치도 확인
+                sb.append(rnd.nextInt(5) == 0 && w.length() > 1 ? w.substring(0, w.length() - 1) : w);
+            }
+            if (rnd.nextBoolean()) sb.append(' ');
+        }
+        return sb.toString();
+    }
+
+    private void assertSame(String t, String d, String dt) {
+        Map<String, Double> expected = legacy.score(t, d, dt);
+        Map<String, Double> actual = classifier.score(t, d, dt);
+        assertThat(actual)
+                .as("title=%s desc=%s defaultType=%s", t, d, dt)
+                .isEqualTo(expected);
+
+        RuleClassifier.Top2 e = classifier.top2(expected);
+        RuleClassifier.Top2 a = classifier.top2(actual);
+        assertThat(a.top1Type).isEqualTo(e.top1Type);
+        assertThat(a.top1Score).isEqualTo(e.top1Score);
+        assertThat(a.top2Type).isEqualTo(e.top2Type);
+        assertThat(a.top2Score).isEqualTo(e.top2Score);
+    }
+
+    /**
+     * 오토마톤 도입 전 RuleClassifier.score (라벨 × 키워드 × String.contains) 원본
+     */
+    static class LegacyRuleClassifier {
+
+        private static class KW {
+            final String word;
+            final List<String> and;
+            final double wTitle;
+            final double wDesc;
+
+            KW(String word, double wTitle, double wDesc) {
+                this.word = word;
+                this.and = null;
+                this.wTitle = wTitle; this.wDesc = wDesc;
+            }
+
+            KW(List<String> andWords, double wTitle, double wDesc) {
+                this.word = null;
+                this.and = andWords;
+                this.wTitle = wTitle; this.wDesc = wDesc;
+            }
+            boolean isAnd() { return and != null && !and.isEmpty(); }
+        }
+
+        private final Map<String, List<KW>> dict;
+
+        LegacyRuleClassifier(ClassPathResource json, ObjectMapper om) throws Exception {
+            var rows = om.readValue(json.getInputStream(),
+                    new TypeReference<List<Map<String, Object>>>() {});
+            this.dict = rows.stream()
+                    .filter(m -> m.get("label") != null && (m.get("word") != null || m.get("and") != null))
+                    .collect(groupingBy(
+                            m -> String.valueOf(m.get("label")).toUpperCase(),
+                            mapping(m -> {
+                                double wt = ((Number)m.get("wTitle")).doubleValue();
+                                double wd = ((Number)m.get("wDesc")).doubleValue();
+                                Object and = m.get("and");
+                                if (and instanceof List<?> list) {
+                                    @SuppressWarnings("unchecked")
+                                    List<String> words = (List<String>) list;
+                                    return new KW(words, wt, wd);
+                                }
+                                return new KW(String.valueOf(m.get("word")), wt, wd);
+                            }, toList())
+                    ));
+        }
+
+        List<String> allWords() {
+            List<String> out = new ArrayList<>();
+            for (List<KW> kws : dict.values()) {
+                for (KW kw : kws) {
+                    if (kw.isAnd()) out.addAll(kw.and);
+                    else out.add(kw.word);
+                }
+            }
+            return out;
+        }
+
+        Map<String, Double> score(String title, String description, String defaultType){
+            String t = (title == null) ? "" : title;
+            String d = (description == null) ? "" : description;
+
+            Map<String, Double> base = new HashMap<>();
+
+            if (defaultType != null) {
+                if (defaultType.equalsIgnoreCase("MEAL")) {
+                    if (t.contains("없음") || d.contains("없음") || t.contains("불포함") || d.contains("불포함")) {
+                        base.put("MEAL", 0.0);
+                        return base;
+                    }
+
+                    List<KW> mealKeywords = dict.get("MEAL");
+                    if (mealKeywords != null) {
+                        double best = 0.0;
+                        boolean blocked = false;
+                        for (var kw : mealKeywords) {
+                            double sKw = 0.0;
+                            if (!kw.isAnd()) {
+                                boolean hitT = t.contains(kw.word);
+                                boolean hitD = d.contains(kw.word);
+                                if ((hitT && kw.wTitle == 0.0) || (hitD && kw.wDesc == 0.0)) {
+                                    blocked = true; best = 0.0; break;
+                                }
+                                if (hitT) sKw = Math.max(sKw, kw.wTitle);
+                                if (hitD) sKw = Math.max(sKw, kw.wDesc);
+                            } else {
+                                String td = t + " " + d;
+                                boolean allInTD = kw.and.stream().allMatch(td::contains);
+                                if (allInTD) {
+                                    if (kw.wTitle == 0.0 || kw.wDesc == 0.0) {
+                                        blocked = true; best = 0.0; break;
+                                    }
+                                    sKw = Math.max(kw.wTitle, kw.wDesc);
+                                }
+                            }
+                            if (sKw > best) best = sKw;
+                        }
+                        if (blocked) {
+                            base.put("MEAL", 0.0);
+                        } else if (best > 0.0) {
+                            base.put("MEAL", Math.min(1.0, best));
+                        }
+                    }
+                    return base;
+                }
+
+                if (defaultType.equalsIgnoreCase("ACCOMMODATION")) {
+                    base.put("REST", parseHotelRating(d));
+                    return base;
+                }
+            }
+
+            String td = t + " " + d;
+
+            for (var e : dict.entrySet()) {
+                if ("MEAL".equals(e.getKey())) continue;
+
+                double best = 0.0;
+                boolean blocked = false;
+                for (var kw : e.getValue()) {
+                    double sKw = 0.0;
+                    if(!kw.isAnd()) {
+                        boolean hitT = t.contains(kw.word);
+                        boolean hitD = d.contains(kw.word);
+                        if ((hitT && kw.wTitle == 0.0) || (hitD && kw.wDesc == 0.0)) {
+                            blocked = true; best = 0.0; break;
+                        }
+                        if (hitT) sKw = Math.max(sKw, kw.wTitle);
+                        if (hitD) sKw = Math.max(sKw, kw.wDesc);
+                    } else {
+                        boolean allInTD = kw.and.stream().allMatch(td::contains);
+                        if (allInTD){
+                            if (kw.wTitle == 0.0 || kw.wDesc == 0.0) {
+                                blocked = true; best = 0.0; break;
+                            }
+                            sKw = Math.max(kw.wTitle, kw.wDesc);
+                        }
+                    }
+                    if (sKw > best) best = sKw;
+                }
+                if(blocked){
+                    base.put(e.getKey(), 0.0);
+                } else if (best > 0.0){
+                    base.put(e.getKey(), Math.min(1.0, best));
+                }
+            }
+
+            return base;
+        }
+
+        private double parseHotelRating(String text) {
+            if (text == null) return 0.0;
+
+            return switch (text) {
+                case "5.0" -> 1.00;
+                case "4.0" -> 0.80;
+                case "3.0" -> 0.60;
+                case "2.0" -> 0.40;
+                case "1.0" -> 0.20;
+                case "0.0" -> 0.00;
+                default -> 0.50;
+            };
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package tkitem.backend.tour;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * TourEsQueryWriter 도입 전 TourEsService 의 문자열 템플릿 본문 생성 (비교 테스트 / JMH 기준선)
+ * - KeywordRule 대신 질의문/제외어를 직접 받는 것 외에는 원본과 동일
+ */
+final class LegacyTourEsTemplates {
+
+    private LegacyTourEsTemplates() {}
+
+    static String bm25Body(String q, List<String> excludes, Set<Long> allowIds, int size) {
+        String terms = allowIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        String mustNot = buildMustNot(excludes);
+
+        return """
+    {
+      "track_total_hits": false,
+      "_source": { "includes": ["tour_id"] },
+      "size": %d,
+      "collapse": { "field": "tour_id" },
+      "query": {
+        "bool": {
+          "filter": [ { "terms": { "tour_id": [ %s ] } } ]%s,
+          "must": { "match": { "combined_text": { "query": "%s", "operator": "and" } } }
+        }
+      }
+    }
+    """.formatted(size, terms, mustNot, escape(q));
+    }
+
+    static String knnBody(float[] vec, List<String> excludes, Set<Long> allowIds, int size, int k, int numCandidates) {
+        String terms = allowIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        String mustNot = buildMustNot(excludes);
+        String vecJson = toJsonArray(vec);
+
+        return """
+    {
+      "track_total_hits": false,
+      "_source": { "includes": ["tour_id"] },
+      "size": %d,
+      "collapse": { "field": "tour_id" },
+      "query": {
+        "bool": {
+          "filter": [ { "terms": { "tour_id": [ %s ] } } ]%s
+        }
+      },
+      "knn": {
+        "field": "embedding",
+        "query_vector": %s,
+        "k": %d,
+        "num_candidates": %d,
+        "filter": {
+          "bool": {
+            "filter": [ { "terms": { "tour_id": [ %s ] } } ]%s
+          }
+        }
+      }
+    }
+    """.formatted(
+                size,
+                terms, mustNot,
+                vecJson, k, numCandidates,
+                terms, mustNot
+        );
+    }
+
+    static String rrfBody(String q, float[] vec, List<String> excludes, Set<Long> allowIds,
+                          int window, int k, int numCandidates, int rankConstant) {
+        String terms = allowIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        String mustNot = buildMustNot(excludes);
+        String vecJson = toJsonArray(vec);
+
+        return """
+    {
+      "track_total_hits": false,
+      "_source": { "includes": ["tour_id"] },
+      "size": %d,
+      "retriever": {
+        "rrf": {
+          "retrievers": [
+            {
+              "standard": {
+                "query": {
+                  "bool": {
+                    "filter": [ { "terms": { "tour_id": [ %s ] } } ]%s,
+                    "must": { "match": { "combined_text": { "query": "%s", "operator": "and" } } }
+                  }
+                }
+              }
+            },
+            {
+              "knn": {
+                "field": "embedding",
+                "query_vector": %s,
+                "k": %d,
+                "num_candidates": %d,
+                "filter": {
+                  "bool": {
+                    "filter": [ { "terms": { "tour_id": [ %s ] } } ]%s
+                  }
+                }
+              }
+            }
+          ],
+          "rank_constant": %d,
+          "rank_window_size": %d
+        }
+      }
+    }
+    """.formatted(
+                window,
+                terms, mustNot, escape(q),
+                vecJson, k, numCandidates,
+                terms, mustNot,
+                rankConstant, window
+        );
+    }
+
+    private static String buildMustNot(List<String> excludes) {
+        if (excludes == null || excludes.isEmpty()) return "";
+        String blocks = excludes.stream()
+                .filter(s -> s != null && !s.isBlank())
+                .map(s -> "{\"match\":{\"combined_text\":{\"query\":\"" + escape(s) + "\",\"operator\":\"or\"}}}")
+                .collect(Collectors.joining(","));
+        return blocks.isBlank() ? "" : ", \"must_not\":[" + blocks + "]";
+    }
+
+    private static String escape(String s) {
+        if (s == null) return "";
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").trim();
+    }
+
+    static String toJsonArray(float[] vec) {
+        if (vec == null || vec.length == 0) return "[]";
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < vec.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(String.format(Locale.ROOT, "%.6f", vec[i]));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,213 @@
+package tkitem.backend.tour;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import tkitem.backend.domain.tour.logic.TourCatalogDiff;
+import tkitem.backend.domain.tour.logic.TourFingerprint;
+import tkitem.backend.domain.tour.vo.TourCity;
+import tkitem.backend.domain.tour.vo.TourDetailSchedule;
+import tkitem.backend.domain.tour.vo.TourPackage;
+
+/**
+ * 투어 재적재 비교(TourCatalogDiff) 검증
+ * - 원본 행은 적재 시와 같이 지문을 채워서, 기존 행은 DB 조회 결과처럼 id 순으로 구성
+ */
+class TourCatalogDiffTest {
+    private static final Long TOUR = 7L;
+
+    @Test
+    @DisplayName("일정: 같은 내용은 그대로, 바뀐 내용은 수정+라벨 삭제, 새 키는 추가, 빠진 키는 삭제")
+    void schedules_insertUpdateDelete() {
+        TourCatalogDiff diff = new TourCatalogDiff();
+        List<TourDetailSchedule> current = List.of(
+                stored(101L, 1, 1, "공항 도착"),
+                stored(102L, 1, 2, "시내 관광"),
+                stored(103L, 2, 1, "자유 일정"));
+        // (2, 1) 은 원본에서 빠짐 → 삭제
+        List<TourDetailSchedule> desired = List.of(
+                desired(1, 1, "공항 도착"),  // 그대로
+                desired(1, 2, "야경 투어"),  // 내용 변경
+                desired(3, 1, "귀국"));      // 새 키
+
+        diff.schedules(TOUR, desired, current);
+
+        assertThat(diff.getScheduleInserts()).extracting(TourDetailSchedule::getTitle).containsExactly("귀국");
+        assertThat(diff.getScheduleInserts().getFirst().getTourId()).isEqualTo(TOUR);
+        assertThat(diff.getScheduleInserts().getFirst().getTourDetailScheduleId()).isNull();
+        assertThat(diff.getScheduleUpdates()).extracting(TourDetailSchedule::getTourDetailScheduleId).containsExactly(102L);
+        assertThat(diff.getScheduleDeletes()).containsExactly(103L);
+        assertThat(diff.getLabelClears()).containsExactlyInAnyOrder(102L, 103L);
+        assertThat(diff.getChangedSchedules()).containsExactly(102L);
+        assertThat(diff.getToursWithInserts()).containsExactly(TOUR);
+        assertThat(diff.getLabelClearedTours()).containsExactly(TOUR);
+        assertThat(diff.getChangedTours()).containsExactly(TOUR);
+        assertThat(diff.getUpdated()).isEqualTo(1);
+        assertThat(desired.getFirst().getTourDetailScheduleId()).isEqualTo(101L);
+    }
+
+    @Test
+    @DisplayName("일정: 바뀐 것이 없으면 변경 없음 (투어도 변경 집합에 들어가지 않음)")
+    void schedules_unchanged_noop() {
+        TourCatalogDiff diff = new TourCatalogDiff();
+        diff.schedules(TOUR, List.of(desired(1, 1, "공항 도착"), desired(1, 2, "시내 관광")),
+                List.of(stored(101L, 1, 1, "공항 도착"), stored(102L, 1, 2, "시내 관광")));
+
+        assertThat(diff.getScheduleInserts()).isEmpty();
+        assertThat(diff.getScheduleUpdates()).isEmpty();
+        assertThat(diff.getScheduleDeletes()).isEmpty();
+        assertThat(diff.getLabelClears()).isEmpty();
+        assertThat(diff.getChangedTours()).isEmpty();
+        assertThat(diff.getUpdated()).isZero();
+    }
+
+    @Test
+    @DisplayName("일정: 지문이 비어 있는 기존 행은 컬럼 값으로 비교, 같으면 지문만 채움 (라벨 유지, 수정 건수 미포함)")
+    void schedules_fillFingerprintOnly() {
+        TourCatalogDiff diff = new TourCatalogDiff();
+        TourDetailSchedule legacySame = stored(101L, 1, 1, "공항 도착");
+        legacySame.setFingerprint(null);
+        TourDetailSchedule legacyChanged = stored(102L, 1, 2, "시내 관광");
+        legacyChanged.setFingerprint(null);
+
+        diff.schedules(TOUR, List.of(desired(1, 1, "공항 도착"), desired(1, 2, "야경 투어")),
+                List.of(legacySame, legacyChanged));
+
+        assertThat(diff.getScheduleUpdates()).extracting(TourDetailSchedule::getTourDetailScheduleId)
+                .containsExactly(101L, 102L);
+        assertThat(diff.getScheduleUpdates().getFirst().getFingerprint()).isEqualTo(TourFingerprint.of(legacySame));
+        assertThat(diff.getLabelClears()).containsExactly(102L);
+        assertThat(diff.getChangedSchedules()).containsExactly(102L);
+        assertThat(diff.getUpdated()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("일정: 같은 (일자, 순서) 가 여러 개면 id 순으로 짝짓고, 남는 쪽은 추가/삭제")
+    void schedules_duplicateKeysPairedInOrder() {
+        List<TourDetailSchedule> current = List.of(
+                stored(201L, 1, 1, "조식"),
+                stored(202L, 1, 1, "중식"),
+                stored(203L, 1, 1, "석식"));
+
+        // 원본이 2개: 앞의 두 행과 짝, 세 번째 행 삭제. 두 번째는 내용 변경
+        TourCatalogDiff fewer = new TourCatalogDiff();
+        List<TourDetailSchedule> two = List.of(desired(1, 1, "조식"), desired(1, 1, "현지식 중식"));
+        fewer.schedules(TOUR, two, current);
+        assertThat(two).extracting(TourDetailSchedule::getTourDetailScheduleId).containsExactly(201L, 202L);
+        assertThat(fewer.getScheduleUpdates()).extracting(TourDetailSchedule::getTourDetailScheduleId).containsExactly(202L);
+        assertThat(fewer.getScheduleDeletes()).containsExactly(203L);
+        assertThat(fewer.getScheduleInserts()).isEmpty();
+
+        // 원본이 4개: 세 행과 짝, 네 번째 추가
+        TourCatalogDiff more = new TourCatalogDiff();
+        List<TourDetailSchedule> four = List.of(desired(1, 1, "조식"), desired(1, 1, "중식"),
+                desired(1, 1, "석식"), desired(1, 1, "야식"));
+        more.schedules(TOUR, four, current);
+        assertThat(four).extracting(TourDetailSchedule::getTourDetailScheduleId).containsExactly(201L, 202L, 203L, null);
+        assertThat(more.getScheduleInserts()).extracting(TourDetailSchedule::getTitle).containsExactly("야식");
+        assertThat(more.getScheduleUpdates()).isEmpty();
+        assertThat(more.getScheduleDeletes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("패키지: 추가/수정/지문만 채움, 원본에서 빠진 패키지는 삭제하지 않음")
+    void packages_insertUpdateFillKeep() {
+        TourCatalogDiff diff = new TourCatalogDiff();
+        TourPackage legacy = storedPackage(303L, "C3", 1_300_000);
+        legacy.setFingerprint(null);
+        List<TourPackage> current = List.of(
+                storedPackage(301L, "C1", 1_000_000),
+                storedPackage(302L, "C2", 1_100_000),
+                legacy,
+                storedPackage(304L, "C4", 1_400_000));
+        List<TourPackage> desired = List.of(
+                desiredPackage("C1", 1_000_000),  // 그대로
+                desiredPackage("C2", 1_150_000),  // 가격 변경
+                desiredPackage("C3", 1_300_000),  // 지문만 채움
+                desiredPackage("C5", 1_500_000)); // 추가, C4 는 빠졌지만 유지
+
+        diff.packages(TOUR, desired, current);
+
+        assertThat(diff.getPackageInserts()).extracting(TourPackage::getPackageDateCode).containsExactly("C5");
+        assertThat(diff.getPackageInserts().getFirst().getTourId()).isEqualTo(TOUR);
+        assertThat(diff.getPackageUpdates()).extracting(TourPackage::getTourPackageId).containsExactly(302L, 303L);
+        assertThat(diff.getUpdated()).isEqualTo(1);
+        assertThat(diff.getChangedTours()).containsExactly(TOUR);
+        assertThat(diff.getScheduleDeletes()).isEmpty();
+        assertThat(desired.getFirst().getTourPackageId()).isEqualTo(301L);
+    }
+
+    @Test
+    @DisplayName("패키지: 원본의 중복 코드는 마지막 값, 기존 중복 코드는 먼저 생긴 행, 코드 없는 원본은 무시")
+    void packages_codeDedupe() {
+        TourCatalogDiff diff = new TourCatalogDiff();
+        List<TourPackage> current = List.of(
+                storedPackage(401L, "D1", 900_000),
+                storedPackage(402L, "D1", 950_000));
+        List<TourPackage> desired = new ArrayList<>(List.of(
+                desiredPackage("D1", 800_000),
+                desiredPackage("D1", 900_000),    // 마지막 값 → 401 과 같은 내용
+                desiredPackage("D2", 700_000),
+                desiredPackage("D2", 710_000),    // 마지막 값으로 1건 추가
+                desiredPackage(null, 500_000)));
+
+        diff.packages(TOUR, desired, current);
+
+        assertThat(diff.getPackageUpdates()).isEmpty();
+        assertThat(desired.get(1).getTourPackageId()).isEqualTo(401L);
+        assertThat(diff.getPackageInserts()).hasSize(1);
+        assertThat(diff.getPackageInserts().getFirst().getPrice()).isEqualTo(710_000);
+        assertThat(diff.getUpdated()).isZero();
+    }
+
+    @Test
+    @DisplayName("도시: 집합 차이만큼 추가/삭제")
+    void cities_setDifference() {
+        TourCatalogDiff diff = new TourCatalogDiff();
+        diff.cities(TOUR, Set.of(1L, 2L), Set.of(2L, 3L));
+
+        assertThat(diff.getCityInserts()).extracting(TourCity::getCityId).containsExactly(1L);
+        assertThat(diff.getCityDeletes()).extracting(TourCity::getCityId).containsExactly(3L);
+        assertThat(diff.getCityInserts()).extracting(TourCity::getTourId).containsOnly(TOUR);
+        assertThat(diff.getChangedTours()).containsExactly(TOUR);
+    }
+
+    private TourDetailSchedule desired(int date, int order, String title) {
+        TourDetailSchedule s = TourDetailSchedule.builder()
+                .cityId(11L).title(title).description(title + " 설명").scheduleDate(date).sortOrder(order)
+                .defaultType("PLACE").build();
+        s.setFingerprint(TourFingerprint.of(s));
+        return s;
+    }
+
+    private TourDetailSchedule stored(Long id, int date, int order, String title) {
+        TourDetailSchedule s = desired(date, order, title);
+        s.setTourDetailScheduleId(id);
+        s.setTourId(TOUR);
+        return s;
+    }
+
+    private TourPackage desiredPackage(String code, int price) {
+        TourPackage p = TourPackage.builder()
+                .packageDateCode(code).price(price)
+                .departureDate(LocalDate.of(2025, 3, 1)).returnDate(LocalDate.of(2025, 3, 5))
+                .departureAirline("KE").returnAirline("KE")
+                .bookingUrl("https://example.com/book/" + code).build();
+        p.setFingerprint(TourFingerprint.of(p));
+        return p;
+    }
+
+    private TourPackage storedPackage(Long id, String code, int price) {
+        TourPackage p = desiredPackage(code, price);
+        p.setTourPackageId(id);
+        p.setTourId(TOUR);
+        return p;
+    }
+}
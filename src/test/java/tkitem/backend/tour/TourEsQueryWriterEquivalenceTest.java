@@ -0,0 +1,161 @@
+package tkitem.backend.tour;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import tkitem.backend.domain.tour.logic.TourEsQueryWriter;
+
+/**
+ * TourEsQueryWriter(Jackson 스트리밍) 와 기존 문자열 템플릿 본문의 동일성 검증
+ * - bm25 / rrf 는 본문 전체, knn 은 knn 절 (새 본문은 query.bool 중복 없이 knn.filter 에만 기록)
+ * - 벡터 성분은 %.6f 와 같은 텍스트 (NaN/Infinity 는 JSON 이 깨지지 않게 0.000000)
+ */
+class TourEsQueryWriterEquivalenceTest {
+    private static final int SIZE = 200;
+    private static final int K = 100;
+    private static final int NUM_CANDIDATES = 1000;
+    private static final int RANK_CONSTANT = 60;
+    private static final String VECTOR_START = "\"query_vector\":[";
+
+    private final ObjectMapper om = new ObjectMapper();
+
+    @Test
+    @DisplayName("bm25: 질의문 이스케이프/제외어 유무별 본문이 기존 템플릿과 동일")
+    void bm25_sameBody() throws Exception {
+        for (String q : queries()) {
+            for (List<String> excludes : excludeCases()) {
+                Set<Long> allow = allowIds(50);
+                JsonNode expected = om.readTree(LegacyTourEsTemplates.bm25Body(q, excludes, allow, SIZE));
+                JsonNode actual = om.readTree(TourEsQueryWriter.bm25Body(q, excludes, allow, null, SIZE));
+                assertThat(actual).as("q=%s excludes=%s", q, excludes).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("knn: 헤더와 knn 절이 기존 템플릿과 동일, query.bool 중복은 없음")
+    void knn_sameKnnClause() throws Exception {
+        float[] vec = randomVector(new Random(1L), 1536);
+        for (List<String> excludes : excludeCases()) {
+            Set<Long> allow = allowIds(300);
+            JsonNode expected = om.readTree(LegacyTourEsTemplates.knnBody(vec, excludes, allow, SIZE, K, NUM_CANDIDATES));
+            JsonNode actual = om.readTree(TourEsQueryWriter.knnBody(vec, excludes, allow, null, SIZE, K, NUM_CANDIDATES));
+
+            assertThat(actual.get("knn")).isEqualTo(expected.get("knn"));
+            for (String f : List.of("track_total_hits", "_source", "size", "collapse")) {
+                assertThat(actual.get(f)).as(f).isEqualTo(expected.get(f));
+            }
+            assertThat(actual.has("query")).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("rrf: 본문 전체가 기존 템플릿과 동일")
+    void rrf_sameBody() throws Exception {
+        float[] vec = randomVector(new Random(2L), 1536);
+        for (String q : queries()) {
+            for (List<String> excludes : excludeCases()) {
+                Set<Long> allow = allowIds(120);
+                JsonNode expected = om.readTree(LegacyTourEsTemplates.rrfBody(q, vec, excludes, allow, SIZE, K, NUM_CANDIDATES, RANK_CONSTANT));
+                JsonNode actual = om.readTree(TourEsQueryWriter.rrfBody(q, vec, excludes, allow, null,
+                        SIZE, K, NUM_CANDIDATES, RANK_CONSTANT, SIZE));
+                assertThat(actual).as("q=%s excludes=%s", q, excludes).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("벡터 성분: 음수/1e-6 반올림 경계/큰 값이 %.6f 와 같은 텍스트")
+    void vector_edgeCasesMatchFormat() {
+        float[] edges = {
+                0f, 1f, -1f, 0.5f, -0.5f,
+                1e-7f, -1e-7f, 4.9e-7f, -4.9e-7f, 5e-7f, -5e-7f, 5.1e-7f, -5.1e-7f,
+                1.5e-6f, -1.5e-6f, 0.9999995f, -0.9999995f, 1.0000005f, 0.1234565f, -0.1234565f,
+                123.456789f, -98765.4321f, Float.MIN_VALUE, -Float.MIN_VALUE, 1e7f, -1e7f
+        };
+        assertVectorText(edges);
+    }
+
+    @Test
+    @DisplayName("벡터 성분: 무작위 값이 %.6f 와 같은 텍스트")
+    void vector_randomMatchFormat() {
+        Random rnd = new Random(20241018L);
+        for (int round = 0; round < 50; round++) {
+            float[] vec = new float[2000];
+            for (int i = 0; i < vec.length; i++) {
+                vec[i] = switch (i % 3) {
+                    case 0 -> rnd.nextFloat() * 2 - 1;
+                    case 1 -> (rnd.nextFloat() * 2 - 1) * 1e-5f;
+                    default -> (rnd.nextFloat() * 2 - 1) * 1000f;
+                };
+            }
+            assertVectorText(vec);
+        }
+    }
+
+    @Test
+    @DisplayName("벡터 성분: NaN/Infinity 는 0.000000, -0 은 0.000000 (본문이 항상 유효한 JSON)")
+    void vector_nonFiniteWrittenAsZero() throws Exception {
+        float[] vec = {Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, -0f, 0.25f};
+        byte[] body = TourEsQueryWriter.knnBody(vec, List.of(), allowIds(3), null, SIZE, K, NUM_CANDIDATES);
+
+        assertThat(vectorText(body)).containsExactly("0.000000", "0.000000", "0.000000", "0.000000", "0.250000");
+        assertThat(om.readTree(body).at("/knn/query_vector").size()).isEqualTo(vec.length);
+    }
+
+    private void assertVectorText(float[] vec) {
+        byte[] body = TourEsQueryWriter.knnBody(vec, List.of(), allowIds(3), null, SIZE, K, NUM_CANDIDATES);
+        List<String> actual = vectorText(body);
+        assertThat(actual).hasSize(vec.length);
+        for (int i = 0; i < vec.length; i++) {
+            assertThat(actual.get(i)).as("v=%s", vec[i]).isEqualTo(String.format(Locale.ROOT, "%.6f", vec[i]));
+        }
+    }
+
+    // 본문의 query_vector 배열 원문을 성분별로 (숫자 파싱을 거치면 표기 차이가 가려지므로 텍스트 그대로)
+    private List<String> vectorText(byte[] body) {
+        String json = new String(body, StandardCharsets.UTF_8);
+        int start = json.indexOf(VECTOR_START) + VECTOR_START.length();
+        int end = json.indexOf(']', start);
+        String inner = json.substring(start, end);
+        return inner.isEmpty() ? List.of() : List.of(inner.split(","));
+    }
+
+    private List<String> queries() {
+        return List.of("오사카 온천", "  앞뒤 공백  ", "따옴표 \"포함\"", "역슬래시 \\ 포함", "");
+    }
+
+    private List<List<String>> excludeCases() {
+        List<List<String>> out = new ArrayList<>();
+        out.add(List.of());
+        out.add(List.of("쇼핑"));
+        out.add(List.of("쇼핑", " 옵션 ", "\"자유\""));
+        out.add(java.util.Arrays.asList("  ", null));
+        return out;
+    }
+
+    private Set<Long> allowIds(int n) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (long i = 1; i <= n; i++) ids.add(i * 7919L);
+        return ids;
+    }
+
+    private float[] randomVector(Random rnd, int dims) {
+        float[] v = new float[dims];
+        for (int i = 0; i < dims; i++) v[i] = rnd.nextFloat() * 2 - 1;
+        return v;
+    }
+}
@@ -0,0 +1,160 @@
+package tkitem.backend.tour;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tkitem.backend.domain.member.vo.Member;
+import tkitem.backend.domain.tour.dto.TourEsFilter;
+import tkitem.backend.domain.tour.dto.request.TourRecommendationRequestDto;
+import tkitem.backend.domain.tour.dto.response.TourRecommendationResponseDto;
+import tkitem.backend.domain.tour.mapper.TourMapper;
+import tkitem.backend.domain.tour.service.TourEsService;
+import tkitem.backend.domain.tour.service.TourKeywordCache;
+import tkitem.backend.domain.tour.service.TourLLmService;
+import tkitem.backend.domain.tour.service.TourRecommendFacadeService;
+import tkitem.backend.domain.tour.service.TourRecommendFacadeServiceImpl;
+import tkitem.backend.domain.tour.service.TourRecommendService;
+
+/**
+ * 커넥션 풀보다 많은 추천 요청이 동시에 들어와도 DB 단계가 커넥션을 얻지 못해 실패하지 않는지 검증
+ * - 실제 Hikari 풀(H2) + DataSourceTransactionManager, facade 는 @Transactional 을 해석하는 프록시로 감쌈
+ * - mapper/서비스 mock 은 JdbcTemplate 으로 실제 커넥션을 사용 (트랜잭션이 있으면 참여, recommendDbOnly 는 자체 트랜잭션)
+ * - 요청 스레드가 트랜잭션 커넥션을 쥔 채 단계를 기다리면 풀 고갈 → db-timeout BusinessException
+ */
+class TourRecommendFacadeConnectionPoolTest {
+    private static final int POOL_SIZE = 2;
+    private static final int REQUESTS = POOL_SIZE * 4;
+
+    HikariDataSource dataSource;
+    ExecutorService recommendExecutor;
+    ExecutorService callers;
+    TourRecommendFacadeService facade;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:recommend_pool;DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setConnectionTimeout(5_000);
+        dataSource = new HikariDataSource(config);
+
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+
+        TourMapper tourMapper = mock(TourMapper.class);
+        when(tourMapper.selectTourIdsByFilters(any(), any(), any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> query(jdbc, List.of(1L, 2L, 3L)));
+        when(tourMapper.selectRecommendedTourIds(anyLong(), any()))
+                .thenAnswer(inv -> query(jdbc, List.of()));
+
+        TourRecommendService recommendService = mock(TourRecommendService.class);
+        when(recommendService.recommendDbOnly(any(), anyInt(), any(), anyList()))
+                .thenAnswer(inv -> tx.execute(status -> query(jdbc, candidates())));
+        when(recommendService.fillTopNPackage(anyList(), any(), any(), anyInt()))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        TourEsService esService = mock(TourEsService.class);
+        when(esService.searchHybridSimple(anyString(), any(TourEsFilter.class), anyInt(), any()))
+                .thenAnswer(inv -> {
+                    Thread.sleep(50);
+                    TourEsService.HybridResult r = TourEsService.HybridResult.empty();
+                    r.scores = Map.of(1L, 2.0, 2L, 1.0);
+                    return r;
+                });
+
+        recommendExecutor = Executors.newFixedThreadPool(REQUESTS * 2);
+        TourRecommendFacadeServiceImpl target = new TourRecommendFacadeServiceImpl(recommendService, esService,
+                mock(TourLLmService.class), tourMapper, mock(TourKeywordCache.class), recommendExecutor,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(target, "parallelEnabled", true);
+        ReflectionTestUtils.setField(target, "dbTimeoutMs", 3_000L);
+        ReflectionTestUtils.setField(target, "esTimeoutMs", 2_000L);
+        ReflectionTestUtils.setField(target, "esNativeFilter", true);
+
+        // 운영과 같이 @Transactional 을 해석하는 프록시 (recommend 에 트랜잭션이 다시 붙으면 이 테스트가 실패)
+        ProxyFactory pf = new ProxyFactory(target);
+        pf.addAdvice(new TransactionInterceptor(txManager, new AnnotationTransactionAttributeSource()));
+        facade = (TourRecommendFacadeService) pf.getProxy();
+
+        callers = Executors.newFixedThreadPool(REQUESTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        recommendExecutor.shutdownNow();
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("풀 크기보다 많은 동시 요청이 모두 성공 (요청 스레드가 커넥션을 쥔 채 단계를 기다리지 않음)")
+    void moreRequestsThanPool_allSucceed() throws Exception {
+        List<Future<List<TourRecommendationResponseDto>>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            Member member = new Member();
+            member.setMemberId(100L + i);
+            TourRecommendationRequestDto req = new TourRecommendationRequestDto();
+            req.setGroupId(10L + i); // 같은 그룹 기추천 조회 → ES 단계도 커넥션 사용
+            futures.add(callers.submit(() -> facade.recommend(req, "온천", 2, member)));
+        }
+
+        for (Future<List<TourRecommendationResponseDto>> f : futures) {
+            List<TourRecommendationResponseDto> out = f.get(30, TimeUnit.SECONDS);
+            assertThat(out).extracting(TourRecommendationResponseDto::getTourId).containsExactly(1L, 2L);
+        }
+    }
+
+    // 커넥션을 실제로 잡고 잠시 유지 (DB 왕복 모사)
+    private static <T> T query(JdbcTemplate jdbc, T result) {
+        return jdbc.execute((ConnectionCallback<T>) con -> {
+            try (Statement st = con.createStatement()) {
+                st.execute("SELECT 1");
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        });
+    }
+
+    private static List<TourRecommendationResponseDto> candidates() {
+        List<TourRecommendationResponseDto> out = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            out.add(TourRecommendationResponseDto.builder().tourId(id).dbScore(1.0 / id).esScore(0.0).finalScore(1.0 / id).build());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,203 @@
+package tkitem.backend.tour;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.when;
+
+import java.util.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import tkitem.backend.domain.tour.dto.TourCandidateRowDto;
+import tkitem.backend.domain.tour.dto.TourScoreTagWeightDto;
+import tkitem.backend.domain.tour.dto.TourScoreUnitRowDto;
+import tkitem.backend.domain.tour.logic.TourScoreEngine;
+import tkitem.backend.domain.tour.mapper.TourMapper;
+
+/**
+ * TourScoreEngine 점수/정렬 검증 (scoreByIdsInline 의미)
+ * - 입력은 selectScoreUnitRows 결과와 같은 (투어, 일자, 유닛, 유형, 점수) 행 (숙소 REST 는 unitId = -1 로 이미 축약됨)
+ * - 기준 구현은 CTE 를 그대로 옮김: scored(가중치 × 점수) → unit_score(SUM) → ranked_day(ROW_NUMBER) → day_score(상위 nPerDay 합)
+ *   → tour_score(AVG) → 0점 제외 → finalScore DESC, min_price ASC, latest_departure ASC (NULL 은 뒤)
+ */
+@ExtendWith(MockitoExtension.class)
+class TourScoreEngineTest {
+    private static final long T10 = 10L, T20 = 20L, T30 = 30L;   // 일정 유형
+    private static final long DAY1 = 19_000L, DAY2 = 19_001L;
+    private static final double EPS = 1e-6;
+
+    // 8번 투어는 허용 목록에 없음
+    private static final List<Long> ALLOW = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+
+    private static final List<TourScoreUnitRowDto> ROWS = List.of(
+            // 1: 1일차 유닛 5 / 3 / 1, 2일차 2 → nPerDay 1: (5+2)/2, 2: (8+2)/2, 3: (9+2)/2
+            unit(1, DAY1, 101, T10, 3.0), unit(1, DAY1, 101, T20, 2.0),
+            unit(1, DAY1, 102, T10, 3.0),
+            unit(1, DAY1, 103, T30, 1.0),
+            unit(1, DAY2, 104, T20, 2.0),
+            // 2: 숙소 REST 4 + 유닛 4 / 2 (하루) → nPerDay 1: 4, 2: 8, 3: 10
+            unit(2, DAY1, -1, T30, 4.0),
+            unit(2, DAY1, 201, T10, 4.0),
+            unit(2, DAY1, 202, T10, 2.0),
+            // 3/4/5/7: 모두 6점 → 최저가, 최근 출발일, NULL(패키지 없음) 순으로 동점 정렬
+            unit(3, DAY1, 301, T20, 6.0),
+            unit(4, DAY1, 401, T20, 6.0),
+            unit(5, DAY1, 501, T20, 6.0),
+            // 6: 0점 → 제외
+            unit(6, DAY1, 601, T10, 0.0),
+            unit(7, DAY1, 701, T20, 6.0),
+            unit(8, DAY1, 801, T10, 100.0));
+
+    private static final List<TourScoreTagWeightDto> TAG_WEIGHTS = List.of(
+            new TourScoreTagWeightDto(100L, T10, 0.5),
+            new TourScoreTagWeightDto(100L, T20, 2.0),
+            new TourScoreTagWeightDto(200L, T10, 1.5),
+            new TourScoreTagWeightDto(200L, T30, 3.0));
+
+    private static final List<TourCandidateRowDto> PACKAGES = List.of(
+            pkg(1, 500L, 20),
+            pkg(2, 700L, 20),
+            pkg(3, 1000L, 10),
+            pkg(4, 900L, 20),
+            pkg(5, 900L, 10),
+            pkg(6, 100L, 10),
+            pkg(8, 100L, 10));
+
+    @Mock
+    TourMapper tourMapper;
+
+    TourScoreEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        when(tourMapper.selectScoreUnitRows(null)).thenReturn(ROWS);
+        when(tourMapper.selectScheduleTypeTagWeights()).thenReturn(TAG_WEIGHTS);
+        when(tourMapper.selectTourPackageSummaries()).thenReturn(PACKAGES);
+
+        engine = new TourScoreEngine(tourMapper, Runnable::run); // 재적재를 호출 스레드에서 바로 실행
+        ReflectionTestUtils.setField(engine, "enabled", true);
+        engine.init();
+        assertThat(engine.isReady()).isTrue();
+    }
+
+    @Test
+    @DisplayName("태그 없음, nPerDay=2: 일자별 상위 2개 합의 평균 → 점수 내림차순, 동점은 최저가/최근 출발일/NULL 뒤")
+    void nPerDay2_handChecked() {
+        List<TourCandidateRowDto> out = engine.score(ALLOW, 2, null);
+
+        assertThat(out).extracting(TourCandidateRowDto::getTourId).containsExactly(2L, 5L, 4L, 3L, 7L, 1L);
+        assertThat(out).extracting(TourCandidateRowDto::getSDbRaw)
+                .containsExactly(8.0, 6.0, 6.0, 6.0, 6.0, 5.0);
+    }
+
+    @Test
+    @DisplayName("nPerDay 에 따라 일자별 상위 유닛 선택이 달라져 순위가 바뀜 (1: 2번 투어가 6점 투어들 뒤로)")
+    void nPerDay_changesRanking() {
+        assertThat(engine.score(ALLOW, 1, null)).extracting(TourCandidateRowDto::getTourId)
+                .containsExactly(5L, 4L, 3L, 7L, 2L, 1L);
+        assertThat(engine.score(ALLOW, 1, null)).extracting(TourCandidateRowDto::getSDbRaw)
+                .containsExactly(6.0, 6.0, 6.0, 6.0, 4.0, 3.5);
+
+        assertThat(engine.score(ALLOW, 3, null)).extracting(TourCandidateRowDto::getTourId)
+                .containsExactly(2L, 5L, 4L, 3L, 7L, 1L);
+        assertThat(engine.score(ALLOW, 3, null).getFirst().getSDbRaw()).isCloseTo(10.0, within(EPS));
+    }
+
+    @Test
+    @DisplayName("nPerDay × 태그 조합 전부 CTE 기준 구현과 같은 순서/점수 (미매칭 유형 0, 없는 태그, 중복 태그 포함)")
+    void matchesInlineSemantics() {
+        List<List<Long>> tagLists = Arrays.asList(null, List.of(), List.of(100L), List.of(200L),
+                List.of(100L, 200L), List.of(100L, 100L), List.of(999L));
+        for (int nPerDay = 1; nPerDay <= 4; nPerDay++) {
+            for (List<Long> tags : tagLists) {
+                List<TourCandidateRowDto> actual = engine.score(ALLOW, nPerDay, tags);
+                List<double[]> expected = inlineReference(ALLOW, nPerDay, tags);
+
+                String ctx = "nPerDay=" + nPerDay + " tags=" + tags;
+                assertThat(actual).as(ctx).hasSize(expected.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertThat(actual.get(i).getTourId()).as(ctx + " rank " + i).isEqualTo((long) expected.get(i)[0]);
+                    assertThat(actual.get(i).getSDbRaw()).as(ctx + " rank " + i).isCloseTo(expected.get(i)[1], within(EPS));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("허용 목록이 비었거나 모르는 투어만 있으면 빈 결과")
+    void emptyOrUnknownAllowIds() {
+        assertThat(engine.score(List.of(), 2, null)).isEmpty();
+        assertThat(engine.score(Arrays.asList(null, 42L), 2, null)).isEmpty();
+    }
+
+    /*
+     * scoreByIdsInline 기준 구현 (CTE 순서대로)
+     * @return {tourId, finalScore} 정렬 결과
+     */
+    private static List<double[]> inlineReference(List<Long> allow, int nPerDay, List<Long> tagIds) {
+        // sel_tag: 선택 태그의 유형별 AVG(weight), 태그 미지정이면 전부 1, 행 없으면 NVL 0
+        boolean tagged = tagIds != null && !tagIds.isEmpty();
+        Map<Long, double[]> sumCnt = new HashMap<>();
+        if (tagged) {
+            Set<Long> sel = new HashSet<>(tagIds);
+            for (TourScoreTagWeightDto tw : TAG_WEIGHTS) {
+                if (!sel.contains(tw.getTagId())) continue;
+                double[] sc = sumCnt.computeIfAbsent(tw.getScheduleTypeId(), k -> new double[2]);
+                sc[0] += tw.getWeight();
+                sc[1]++;
+            }
+        }
+
+        // scored + unit_score: (tour, day, unit) 별 SUM(가중치 × 점수)
+        Map<Long, Map<Long, Map<Long, Double>>> units = new TreeMap<>();
+        for (TourScoreUnitRowDto r : ROWS) {
+            if (!allow.contains(r.getTourId())) continue;
+            double w = !tagged ? 1.0 : sumCnt.containsKey(r.getScheduleTypeId())
+                    ? sumCnt.get(r.getScheduleTypeId())[0] / sumCnt.get(r.getScheduleTypeId())[1] : 0.0;
+            units.computeIfAbsent(r.getTourId(), k -> new TreeMap<>())
+                    .computeIfAbsent(r.getScheduleDate(), k -> new TreeMap<>())
+                    .merge(r.getUnitId(), w * r.getBaseScore(), Double::sum);
+        }
+
+        // ranked_day + day_score + tour_score: 일자별 상위 nPerDay 합의 평균, 0점 제외
+        List<double[]> out = new ArrayList<>();
+        for (var tour : units.entrySet()) {
+            double sum = 0;
+            for (Map<Long, Double> day : tour.getValue().values()) {
+                sum += day.values().stream().sorted(Comparator.reverseOrder()).limit(nPerDay)
+                        .mapToDouble(Double::doubleValue).sum();
+            }
+            double score = sum / tour.getValue().size();
+            if (score > 0) out.add(new double[]{tour.getKey(), score});
+        }
+
+        // finalScore DESC, min_price ASC, latest_departure ASC (NULL 은 뒤)
+        Map<Long, TourCandidateRowDto> pkgs = new HashMap<>();
+        for (TourCandidateRowDto p : PACKAGES) pkgs.put(p.getTourId(), p);
+        Comparator<double[]> byScore = Comparator.comparingDouble(a -> -a[1]);
+        out.sort(byScore
+                .thenComparing(a -> pkgs.containsKey((long) a[0]) ? pkgs.get((long) a[0]).getMinPrice() : null,
+                        Comparator.nullsLast(Comparator.<Long>naturalOrder()))
+                .thenComparing(a -> pkgs.containsKey((long) a[0]) ? pkgs.get((long) a[0]).getLatestDeparture() : null,
+                        Comparator.nullsLast(Comparator.<Date>naturalOrder())));
+        return out;
+    }
+
+    private static TourScoreUnitRowDto unit(long tourId, long day, long unitId, long typeId, double score) {
+        return new TourScoreUnitRowDto(tourId, day, unitId, typeId, score);
+    }
+
+    private static TourCandidateRowDto pkg(long tourId, Long minPrice, int departureDay) {
+        TourCandidateRowDto p = new TourCandidateRowDto();
+        p.setTourId(tourId);
+        p.setMinPrice(minPrice);
+        p.setLatestDeparture(new Date(departureDay * 86_400_000L));
+        return p;
+    }
+}